@@ -16,6 +16,39 @@ public class DateComparisonUtils {
                 .toLocalDate();
     }
 
+    /**
+     * Convertit une colonne date renvoyée par une requête native (java.sql.Date, LocalDate...) en LocalDate
+     */
+    public static LocalDate toLocalDateFromSql(Object value) {
+        if (value == null) return null;
+        if (value instanceof LocalDate localDate) return localDate;
+        if (value instanceof java.sql.Date sqlDate) return sqlDate.toLocalDate();
+        if (value instanceof LocalDateTime localDateTime) return localDateTime.toLocalDate();
+        if (value instanceof Date date) return toLocalDate(date);
+        return LocalDate.parse(value.toString());
+    }
+
+    /**
+     * Convertit une colonne timestamp renvoyée par une requête native (Timestamp, LocalDateTime...) en LocalDateTime
+     */
+    public static LocalDateTime toLocalDateTimeFromSql(Object value) {
+        if (value == null) return null;
+        if (value instanceof LocalDateTime localDateTime) return localDateTime;
+        if (value instanceof java.sql.Timestamp timestamp) return timestamp.toLocalDateTime();
+        if (value instanceof java.time.OffsetDateTime offsetDateTime) return offsetDateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        if (value instanceof java.time.Instant instant) return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+        if (value instanceof Date date) return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        return LocalDateTime.parse(value.toString().replace(' ', 'T'));
+    }
+
+    /**
+     * Convertit une LocalDate en java.util.Date (début de journée)
+     */
+    public static Date toDate(LocalDate localDate) {
+        if (localDate == null) return null;
+        return Date.from(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
     public static LocalDate toLocalDatefromLocalDateTime(LocalDateTime localDateTime) {
         if (localDateTime == null) return null;
         return localDateTime.toLocalDate();
@@ -0,0 +1,161 @@
+package tunutech.api.Utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Sélection de champs d'une réponse (paramètre fields=a,b,c). Sert à la fois à éviter les chargements
+ * inutiles dans le mapping et à réduire le JSON renvoyé ; l'id est toujours conservé.
+ * Les chemins imbriqués (client.email, documentlist.originalName) réduisent l'objet ou les éléments
+ * de la liste correspondants. Sans paramètre, tous les champs sont renvoyés comme avant.
+ */
+public final class FieldSelection {
+
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    // null = tous les champs
+    private final Node root;
+
+    private FieldSelection(Node root) {
+        this.root = root;
+    }
+
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * @throws IllegalArgumentException si un champ demandé (ou un segment de chemin) n'existe pas dans le DTO
+     */
+    public static FieldSelection parse(String fields, Class<?> dtoType) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Node root = new Node();
+        root.child("id").whole = true;
+        for (String raw : fields.split(",")) {
+            String field = raw.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            Type type = dtoType;
+            for (String segment : field.split("\\.", -1)) {
+                Class<?> owner = nestedClass(type);
+                Field declared = owner != null ? findField(owner, segment) : null;
+                if (declared == null) {
+                    throw new IllegalArgumentException("Champ inconnu: " + field);
+                }
+                node = node.child(segment);
+                type = declared.getGenericType();
+            }
+            node.whole = true;
+        }
+        return new FieldSelection(root);
+    }
+
+    public boolean isAll() {
+        return root == null;
+    }
+
+    /**
+     * Vrai si le champ est demandé, en entier ou par un chemin imbriqué
+     */
+    public boolean includes(String field) {
+        return root == null || root.children.containsKey(field);
+    }
+
+    public boolean includesAny(String... candidates) {
+        if (root == null) {
+            return true;
+        }
+        for (String candidate : candidates) {
+            if (root.children.containsKey(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Réduit le DTO aux champs sélectionnés ; renvoyé tel quel si tous les champs sont demandés
+     */
+    public Object apply(Object dto, ObjectMapper objectMapper) {
+        if (root == null || dto == null) {
+            return dto;
+        }
+        JsonNode node = objectMapper.valueToTree(dto);
+        retain(node, root);
+        return node;
+    }
+
+    public List<Object> apply(List<?> dtos, ObjectMapper objectMapper) {
+        return dtos.stream().map(dto -> apply(dto, objectMapper)).collect(Collectors.toList());
+    }
+
+    private static void retain(JsonNode json, Node selection) {
+        if (selection.whole) {
+            return;
+        }
+        if (json instanceof ObjectNode object) {
+            object.retain(selection.children.keySet());
+            selection.children.forEach((name, child) -> {
+                JsonNode value = object.get(name);
+                if (value != null) {
+                    retain(value, child);
+                }
+            });
+        } else if (json instanceof ArrayNode array) {
+            array.forEach(element -> retain(element, selection));
+        }
+    }
+
+    // Classe dont les champs peuvent être sélectionnés : éléments des listes et Optional, hors types du JDK
+    private static Class<?> nestedClass(Type type) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw
+                && (Collection.class.isAssignableFrom(raw) || raw == Optional.class)) {
+            return nestedClass(parameterized.getActualTypeArguments()[0]);
+        }
+        if (!(type instanceof Class<?> cls)) {
+            return null;
+        }
+        if (cls.isArray()) {
+            return nestedClass(cls.getComponentType());
+        }
+        if (cls.isPrimitive() || cls.isEnum() || cls.getName().startsWith("java.")) {
+            return null;
+        }
+        return cls;
+    }
+
+    private static Field findField(Class<?> owner, String name) {
+        for (Class<?> cls = owner; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            for (Field field : cls.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nœud de sélection : champ entier, ou sous-champs retenus
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private boolean whole;
+
+        private Node child(String name) {
+            return children.computeIfAbsent(name, key -> new Node());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package tunutech.api.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Sketch HyperLogLog pour compter approximativement des identifiants distincts.
+ * Précision 12 : 4096 registres d'un octet (4 Ko), erreur type ~1,6 %.
+ * Deux sketches se fusionnent par maximum registre à registre (union des ensembles).
+ * Non thread-safe : l'appelant synchronise les accès.
+ */
+public class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * Relit un sketch sérialisé par toBytes ; null ou vide donne un sketch vide
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return new HyperLogLog();
+        }
+        if (bytes.length != REGISTERS + 1 || bytes[0] != PRECISION) {
+            throw new IllegalArgumentException("Sketch HyperLogLog invalide (" + bytes.length + " octets)");
+        }
+        return new HyperLogLog(Arrays.copyOfRange(bytes, 1, bytes.length));
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[REGISTERS + 1];
+        bytes[0] = PRECISION;
+        System.arraycopy(registers, 0, bytes, 1, REGISTERS);
+        return bytes;
+    }
+
+    /**
+     * Ajoute un identifiant ; retourne true si un registre a changé
+     */
+    public boolean add(long value) {
+        long hash = mix64(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Rang du premier bit à 1 dans les bits restants (+1), borné si tous sont nuls
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+            return true;
+        }
+        return false;
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other != null) {
+            for (int i = 0; i < REGISTERS; i++) {
+                if (other.registers[i] > registers[i]) {
+                    registers[i] = other.registers[i];
+                }
+            }
+        }
+        return this;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Petites cardinalités : comptage linéaire sur les registres vides
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Finaliseur SplitMix64 : disperse des identifiants séquentiels sur 64 bits
+    private static long mix64(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,36 @@
+package tunutech.api.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position de pagination d'une recherche classée (rang, id) : la page suivante reprend strictement
+ * après le dernier résultat lu. Le rang (real PostgreSQL) est transmis par ses bits IEEE 754, sans passer par
+ * une représentation décimale, pour que la comparaison (rang, id) côté base soit exacte.
+ */
+public record RankCursor(float rank, long id) {
+
+    public String encode() {
+        String raw = Integer.toHexString(Float.floatToRawIntBits(rank)) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu du client ; null ou vide = première page
+     *
+     * @throws IllegalArgumentException si le curseur est malformé
+     */
+    public static RankCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            float rank = Float.intBitsToFloat(Integer.parseUnsignedInt(raw.substring(0, separator), 16));
+            return new RankCursor(rank, Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package tunutech.api.Utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+    // Vrai pendant l'exécution d'un callback afterCommit : une synchronisation enregistrée à ce moment ne serait jamais appelée
+    private static final ThreadLocal<Boolean> IN_AFTER_COMMIT = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Exécute l'action après le commit de la transaction courante, immédiatement s'il n'y en a pas
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !IN_AFTER_COMMIT.get()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    IN_AFTER_COMMIT.set(true);
+                    try {
+                        action.run();
+                    } finally {
+                        IN_AFTER_COMMIT.set(false);
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package tunutech.api.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Exécuteur borné dédié au calcul parallèle des sections analytiques.
+ * Threads virtuels (Java 21+) limités en concurrence, sinon pool de threads borné.
+ */
+@Slf4j
+@Configuration
+public class AnalyticsExecutorConfig {
+
+    @Value("${app.analytics.executor.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${app.analytics.executor.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean(name = "analyticsExecutor")
+    public AsyncTaskExecutor analyticsExecutor() {
+        if (Runtime.version().feature() >= 21) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("analytics-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            log.info("Exécuteur analytique : threads virtuels (limite {})", maxConcurrency);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("analytics-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        // File pleine : la requête appelante calcule elle-même la section
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        log.info("Exécuteur analytique : pool de {} threads, file de {}", maxConcurrency, queueCapacity);
+        return executor;
+    }
+}
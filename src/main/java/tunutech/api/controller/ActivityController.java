@@ -6,12 +6,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import tunutech.api.dtos.ActivityDTO;
+import tunutech.api.dtos.CursorPageDto;
 import tunutech.api.model.ActivityType;
 import tunutech.api.services.ActivityService;
+import tunutech.api.services.implementsServices.ActivityLogWriter;
+import tunutech.api.services.implementsServices.ActivityStreamPublisher;
+import tunutech.api.services.implementsServices.OutboxRelay;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +30,11 @@ public class ActivityController {
 
     private final ActivityService activityService;
 
+    private final ActivityLogWriter activityLogWriter;
+
+    private final OutboxRelay outboxRelay;
+    private final ActivityStreamPublisher activityStreamPublisher;
+
     /**
      * Récupérer une activité par son ID
      */
@@ -55,7 +67,79 @@ public class ActivityController {
 
 
     /**
-     * Récupérer toutes les activités avec pagination
+     * Fil des activités paginé par curseur (à privilégier pour le défilement profond : ni OFFSET ni COUNT)
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPageDto<ActivityDTO>> getActivityFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(activityService.getActivityFeed(cursor, size));
+    }
+
+    /**
+     * Fil des activités d'un utilisateur paginé par curseur
+     */
+    @GetMapping("/user/{userId}/feed")
+    public ResponseEntity<CursorPageDto<ActivityDTO>> getUserActivityFeed(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(activityService.getUserActivityFeed(userId, cursor, size));
+    }
+
+    /**
+     * Fil des activités d'un projet paginé par curseur
+     */
+    @GetMapping("/project/{projectId}/feed")
+    public ResponseEntity<CursorPageDto<ActivityDTO>> getProjectActivityFeed(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(activityService.getProjectActivityFeed(projectId, cursor, size));
+    }
+
+    /**
+     * Activités dont la metadata contient key=value (ex. contractId=123), paginées par curseur
+     */
+    @GetMapping("/metadata")
+    public ResponseEntity<CursorPageDto<ActivityDTO>> getActivitiesByMetadataKey(
+            @RequestParam String key,
+            @RequestParam String value,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(activityService.findByMetadataKey(key, value, cursor, size));
+    }
+
+    /**
+     * Activités dont la metadata contient le document JSON fourni (contenance jsonb)
+     */
+    @PostMapping("/metadata/search")
+    public ResponseEntity<CursorPageDto<ActivityDTO>> searchActivitiesByMetadata(
+            @RequestBody Map<String, Object> criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(activityService.findByMetadata(criteria, cursor, size));
+    }
+
+    /**
+     * Activités archivées d'un utilisateur (hors rétention), lues dans les segments compressés
+     */
+    @GetMapping("/archive/user/{userId}")
+    public ResponseEntity<List<ActivityDTO>> getArchivedUserActivities(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        log.info("Lecture des archives d'activités pour l'utilisateur {} du {} au {}", userId, startDate, endDate);
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("La date de début doit être avant la date de fin");
+        }
+        return ResponseEntity.ok(activityService.getArchivedUserActivities(userId, startDate, endDate, limit));
+    }
+
+    /**
+     * Récupérer toutes les activités avec pagination (par offset ; voir /feed pour la pagination par curseur)
      */
     @GetMapping
     public ResponseEntity<Page<ActivityDTO>> getAllActivities(
@@ -179,18 +263,50 @@ public class ActivityController {
         return ResponseEntity.ok(stats);
     }
     /**
-     * Supprimer les anciennes activités
+     * Métriques du writer asynchrone (profondeur de file, latence d'écriture des lots)
+     */
+    @GetMapping("/writer/stats")
+    public ResponseEntity<Map<String, Object>> getWriterStats() {
+        return ResponseEntity.ok(activityLogWriter.stats());
+    }
+
+    /**
+     * État de l'outbox (événements en attente, traités, en échec) et compteurs du relais
+     */
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(outboxRelay.stats());
+    }
+
+    /**
+     * Abonnés au flux d'activités en direct (/user/queue/activities) et activités en attente d'envoi
+     */
+    @GetMapping("/stream/stats")
+    public ResponseEntity<Map<String, Object>> getStreamStats() {
+        return ResponseEntity.ok(activityStreamPublisher.stats());
+    }
+
+    /**
+     * Supprimer les anciennes activités par partitions mensuelles entières : seuls les mois entièrement
+     * antérieurs à la date limite sont retirés, le mois contenant la date limite est conservé.
+     * 409 tant que la table activity n'est pas partitionnée (db/manual/partition_activity.sql).
      */
     @DeleteMapping("/cleanup")
     public ResponseEntity<Map<String, Object>> cleanupOldActivities(
             @RequestParam(defaultValue = "30") int days) {
 
         log.info("Nettoyage des activités plus anciennes que {} jours", days);
-        activityService.deleteOldActivities(days);
+        YearMonth keptFrom = YearMonth.from(LocalDate.now().minusDays(days));
+        List<YearMonth> removedMonths = activityService.deleteOldActivities(days);
 
+        String message = removedMonths.isEmpty()
+                ? "Aucun mois entièrement antérieur à " + keptFrom + " à supprimer"
+                : removedMonths.size() + " mois d'activités supprimé(s) ; activités conservées à partir de " + keptFrom;
         Map<String, Object> response = Map.of(
-                "message", "Activités plus anciennes que " + days + " jours supprimées",
-                "days", days
+                "message", message,
+                "days", days,
+                "moisSupprimes", removedMonths.stream().map(YearMonth::toString).toList(),
+                "conserveDepuis", keptFrom.toString()
         );
 
         return ResponseEntity.ok(response);
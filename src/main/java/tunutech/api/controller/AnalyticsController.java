@@ -4,17 +4,26 @@ package tunutech.api.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tunutech.api.dtos.AnalyticsRequestDto;
 import tunutech.api.dtos.AnalyticsResponseDto;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import tunutech.api.services.AnalyticsExportService;
+import tunutech.api.services.AnalyticsRollupService;
 import tunutech.api.services.AnalyticsService;
+import tunutech.api.services.implementsServices.AnalyticsResponseCache;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -25,6 +34,12 @@ public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
 
+    private final AnalyticsRollupService analyticsRollupService;
+
+    private final AnalyticsResponseCache analyticsResponseCache;
+
+    private final AnalyticsExportService analyticsExportService;
+
     /**
      * Endpoint principal pour récupérer toutes les données analytiques
      * GET /analytics/dashboard?period=7j
@@ -134,6 +149,48 @@ public class AnalyticsController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint d'export en flux de la série journalière (CSV ou NDJSON), compression gzip optionnelle
+     * GET /analytics/custom/export?startDate=2022-01-01&endDate=2024-12-31&format=csv&gzip=true
+     */
+    @GetMapping("/custom/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomPeriod(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        log.info("📤 Export analytics - Start: {}, End: {}, Format: {}, Gzip: {}", startDate, endDate, format, gzip);
+
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("La date de début doit être avant la date de fin");
+        }
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Le format doit être: csv ou ndjson");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+                analyticsExportService.exportDailySeries(startDate, endDate, format, gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                analyticsExportService.exportDailySeries(startDate, endDate, format, outputStream);
+            }
+        };
+
+        String filename = "analytics_" + startDate + "_" + endDate + (csv ? ".csv" : ".ndjson");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     /**
      * Endpoint pour forcer l'actualisation des données
      * POST /analytics/refresh
@@ -157,6 +214,35 @@ public class AnalyticsController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint pour recalculer le rollup journalier depuis l'historique
+     * POST /analytics/rollup/rebuild?startDate=2024-01-01&endDate=2024-03-31 (dates optionnelles)
+     */
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollup(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        log.info("🧮 Reconstruction du rollup analytique - Start: {}, End: {}", startDate, endDate);
+
+        int days = analyticsRollupService.rebuild(startDate, endDate);
+
+        return ResponseEntity.ok(Map.of(
+                "message", "Rollup analytique recalculé",
+                "jours", days
+        ));
+    }
+
+    /**
+     * Endpoint des statistiques du cache analytique (hits, misses, invalidations)
+     * GET /analytics/cache/stats
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        log.info("🗃️ Statistiques du cache analytique");
+        return ResponseEntity.ok(analyticsResponseCache.stats());
+    }
+
     /**
      * Endpoint de santé du service
      * GET /analytics/health
@@ -1,13 +1,16 @@
 package tunutech.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import tunutech.api.Utils.FieldSelection;
 import tunutech.api.Utils.SecurityUtils;
 import tunutech.api.dtos.*;
 import tunutech.api.model.*;
@@ -16,6 +19,7 @@ import tunutech.api.repositories.ProjetTraducteurRepository;
 import tunutech.api.services.*;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -42,7 +46,13 @@ public class ChatRoomController {
     private ProjetTraducteurRepository projetTraducteurRepository;
 
     @Autowired
-    private final SimpMessagingTemplate messagingTemplate;
+    private OutboxService outboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
 
     @Autowired
@@ -69,12 +79,14 @@ public class ChatRoomController {
 
     // Récupérer toutes les chatrooms d'un utilisateur
     @GetMapping("/my-rooms")
-    public ResponseEntity<List<ChatRoomResponse>> getUserChatRooms(@AuthenticationPrincipal User user) {
+    public ResponseEntity<List<Object>> getUserChatRooms(@AuthenticationPrincipal User user,
+                                                         @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, ChatRoomResponse.class);
         List<ChatRoom> chatRooms = chatRoomService.getUserChatRooms(user);
         List<ChatRoomResponse> responses = chatRooms.stream()
-                .map(this::mapToChatRoomResponse)
+                .map(chatRoom -> mapToChatRoomResponse(chatRoom, selection))
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(selection.apply(responses, objectMapper));
     }
 
     @GetMapping("/getChatRoom/{roomId}")
@@ -85,6 +97,11 @@ public class ChatRoomController {
 
     // Méthode de mapping
     private ChatRoomResponse mapToChatRoomResponse(ChatRoom chatRoom) {
+        return mapToChatRoomResponse(chatRoom, FieldSelection.all());
+    }
+
+    // Dernier message et non lus ne sont chargés que si ces champs sont sélectionnés
+    private ChatRoomResponse mapToChatRoomResponse(ChatRoom chatRoom, FieldSelection selection) {
         ChatRoomResponse response = new ChatRoomResponse();
 
         response.setId(chatRoom.getId());
@@ -96,18 +113,22 @@ public class ChatRoomController {
         response.setStatus(chatRoom.getChatStatus());
         response.setCreatedAt(chatRoom.getCreated_At());
         // Dernier message
-        Optional<ChatMessage> lastMessage = Optional.ofNullable(chatMessageService.findTopByChatRoomOrderByTimestampDesc(chatRoom));
+        if (selection.includesAny("lastMessage", "userLastMessage")) {
+            Optional<ChatMessage> lastMessage = Optional.ofNullable(chatMessageService.findTopByChatRoomOrderByTimestampDesc(chatRoom));
 
-        lastMessage.ifPresent(message -> response.setLastMessage(mapToMessageResponse(message)));
-        if(lastMessage.isPresent())
-        {
-            response.setUserLastMessage(lastMessage.get().getUser().getFullName());
+            lastMessage.ifPresent(message -> response.setLastMessage(mapToMessageResponse(message)));
+            if(lastMessage.isPresent())
+            {
+                response.setUserLastMessage(lastMessage.get().getUser().getFullName());
+            }
         }
         // Compter messages non lus (à implémenter selon ta logique)
-        Integer unreadCount;
-        User user=userService.getByClient(chatRoom.getClient().getId());
-        unreadCount= Math.toIntExact(chatMessageService.getUnreadCount(chatRoom.getRoomId(), user));
-        response.setUnreadCount(Long.valueOf(unreadCount));
+        if (selection.includes("unreadCount")) {
+            Integer unreadCount;
+            User user=userService.getByClient(chatRoom.getClient().getId());
+            unreadCount= Math.toIntExact(chatMessageService.getUnreadCount(chatRoom.getRoomId(), user));
+            response.setUnreadCount(Long.valueOf(unreadCount));
+        }
         List<ParticipantsDto> participants = new ArrayList<>();
 
         // ✅ Participant 1 - Client
@@ -149,21 +170,25 @@ public class ChatRoomController {
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<ChatRoomResponse>> getActiveChatRooms(@AuthenticationPrincipal User user) {
+    public ResponseEntity<List<Object>> getActiveChatRooms(@AuthenticationPrincipal User user,
+                                                           @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, ChatRoomResponse.class);
         List<ChatRoom> chatRooms = chatRoomService.getActiveChatRooms(user);
         List<ChatRoomResponse> responses = chatRooms.stream()
-                .map(this::mapToChatRoomResponse)
+                .map(chatRoom -> mapToChatRoomResponse(chatRoom, selection))
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(selection.apply(responses, objectMapper));
     }
 
     @GetMapping("/pre-contract")
-    public ResponseEntity<List<ChatRoomResponse>> getPreContractChatRooms(@AuthenticationPrincipal User user) {
+    public ResponseEntity<List<Object>> getPreContractChatRooms(@AuthenticationPrincipal User user,
+                                                                @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, ChatRoomResponse.class);
         List<ChatRoom> chatRooms = chatRoomService.getPreContractChatRooms(user);
         List<ChatRoomResponse> responses = chatRooms.stream()
-                .map(this::mapToChatRoomResponse)
+                .map(chatRoom -> mapToChatRoomResponse(chatRoom, selection))
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(selection.apply(responses, objectMapper));
     }
 
     //Chat initie par ladmin  vers le client avant un contrat
@@ -191,14 +216,8 @@ public class ChatRoomController {
             }
 
             // Créer une nouvelle chatroom pré-contrat
-            ChatRoom newRoom = chatRoomService.createAdminClientChatRoom(client, project,admin);
-
-            messagingTemplate.convertAndSend(
-                    "/topic/user/" + client.getId(),
-                    new ChatNotification("Nouvelle conversation",
-                            "L'admin a démarré une conversation",
-                            newRoom.getId())
-            );
+            ChatRoom newRoom = createAndNotify(() -> chatRoomService.createAdminClientChatRoom(client, project,admin),
+                    client.getId(), "L'admin a démarré une conversation");
             return ResponseEntity.ok(mapToChatRoomResponse(newRoom));
 
         } catch (Exception e) {
@@ -231,14 +250,8 @@ public class ChatRoomController {
             }
 
             // Créer une nouvelle chatroom contrat
-            ChatRoom newRoom = chatRoomService.createAdminClientChatRoomContract(client, project,admin);
-
-            messagingTemplate.convertAndSend(
-                    "/topic/user/" + client.getId(),
-                    new ChatNotification("Nouvelle conversation",
-                            "L'admin a démarré une conversation",
-                            newRoom.getId())
-            );
+            ChatRoom newRoom = createAndNotify(() -> chatRoomService.createAdminClientChatRoomContract(client, project,admin),
+                    client.getId(), "L'admin a démarré une conversation");
             return ResponseEntity.ok(mapToChatRoomResponse(newRoom));
 
         } catch (Exception e) {
@@ -269,14 +282,8 @@ public class ChatRoomController {
             }
 
             // Créer une nouvelle chatroom Contrat
-            ChatRoom newRoom = chatRoomService.createTRaducteurClientChatRoom(client, project,admin);
-
-            messagingTemplate.convertAndSend(
-                    "/topic/user/" + client.getId(),
-                    new ChatNotification("Nouvelle conversation",
-                            "Le Traducteur a démarré une conversation",
-                            newRoom.getId())
-            );
+            ChatRoom newRoom = createAndNotify(() -> chatRoomService.createTRaducteurClientChatRoom(client, project,admin),
+                    client.getId(), "Le Traducteur a démarré une conversation");
             return ResponseEntity.ok(mapToChatRoomResponse(newRoom));
 
         } catch (Exception e) {
@@ -286,19 +293,23 @@ public class ChatRoomController {
 
     // Endpoints pour le client
     @GetMapping("/client/active")
-    public ResponseEntity<List<ChatRoomResponse>> getClientActiveChatRooms(@AuthenticationPrincipal Client client) {
+    public ResponseEntity<List<Object>> getClientActiveChatRooms(@AuthenticationPrincipal Client client,
+                                                                 @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, ChatRoomResponse.class);
         List<ChatRoom> chatRooms = chatRoomService.getActiveChatRooms(userService.getByClient(client.getId()));
-        return ResponseEntity.ok(chatRooms.stream()
-                .map(this::mapToChatRoomResponse)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(selection.apply(chatRooms.stream()
+                .map(chatRoom -> mapToChatRoomResponse(chatRoom, selection))
+                .collect(Collectors.toList()), objectMapper));
     }
 
     @GetMapping("/client/pre-contract")
-    public ResponseEntity<List<ChatRoomResponse>> getClientPreContractChatRooms(@AuthenticationPrincipal Client client) {
+    public ResponseEntity<List<Object>> getClientPreContractChatRooms(@AuthenticationPrincipal Client client,
+                                                                      @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, ChatRoomResponse.class);
         List<ChatRoom> chatRooms = chatRoomService.findByClientAndChatStatus(client, ChatStatus.PRE_CONTRACT);
-        return ResponseEntity.ok(chatRooms.stream()
-                .map(this::mapToChatRoomResponse)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(selection.apply(chatRooms.stream()
+                .map(chatRoom -> mapToChatRoomResponse(chatRoom, selection))
+                .collect(Collectors.toList()), objectMapper));
     }
 
 
@@ -309,8 +320,7 @@ public class ChatRoomController {
             Client client = clientService.getUnique(chatStartClientPrecontratDTO.getClientId());
             Project project = projetService.getUniquebyId(chatStartClientPrecontratDTO.getProjectId());
 
-            User user = new User();
-            user = chatRoomService.getUserofChatAndClientAndChatStatuts(client, project, ChatStatus.PRE_CONTRACT);
+            User user = chatRoomService.getUserofChatAndClientAndChatStatuts(client, project, ChatStatus.PRE_CONTRACT);
             if (user.getId() == null) {
                return ResponseEntity.badRequest().body("Vous ne pouvez pas initier la conversation");
             }
@@ -329,14 +339,8 @@ public class ChatRoomController {
             }
 
             // Créer une nouvelle chatroom pré-contrat
-            ChatRoom newRoom = chatRoomService.createClientAdminChatRoom(client, user, project);
-
-            messagingTemplate.convertAndSend(
-                    "/topic/user/" + client.getId(),
-                    new ChatNotification("Nouvelle conversation",
-                            "Le Client a démarré une conversation",
-                            newRoom.getId())
-            );
+            ChatRoom newRoom = createAndNotify(() -> chatRoomService.createClientAdminChatRoom(client, user, project),
+                    client.getId(), "Le Client a démarré une conversation");
             return ResponseEntity.ok(mapToChatRoomResponse(newRoom));
 
         } catch (Exception e) {
@@ -376,14 +380,8 @@ public class ChatRoomController {
             }
 
             // Créer une nouvelle chatroom pré-contrat
-            ChatRoom newRoom = chatRoomService.createClientAdminChatRoom(client, finalUser, project);
-
-            messagingTemplate.convertAndSend(
-                    "/topic/user/" + client.getId(),
-                    new ChatNotification("Nouvelle conversation",
-                            "Le Client a démarré une conversation",
-                            newRoom.getId())
-            );
+            ChatRoom newRoom = createAndNotify(() -> chatRoomService.createClientAdminChatRoom(client, finalUser, project),
+                    client.getId(), "Le Client a démarré une conversation");
             return ResponseEntity.ok(mapToChatRoomResponse(newRoom));
 
         } catch (Exception e) {
@@ -420,14 +418,8 @@ public class ChatRoomController {
 
                 // Créer une nouvelle chatroom pré-contrat
                 // Créer une nouvelle chatroom Contrat
-                ChatRoom newRoom = chatRoomService.createTRaducteurClientChatRoom(client, project,finalUser);
-
-                messagingTemplate.convertAndSend(
-                        "/topic/user/" + client.getId(),
-                        new ChatNotification("Nouvelle conversation",
-                                "Le Client a démarré une conversation",
-                                newRoom.getId())
-                );
+                ChatRoom newRoom = createAndNotify(() -> chatRoomService.createTRaducteurClientChatRoom(client, project,finalUser),
+                        client.getId(), "Le Client a démarré une conversation");
                 return ResponseEntity.ok(mapToChatRoomResponse(newRoom));
 
             }return ResponseEntity.badRequest().body("Erreur: ");
@@ -436,4 +428,15 @@ public class ChatRoomController {
             return ResponseEntity.badRequest().body("Erreur: " + e.getMessage());
         }
     }
+
+    /**
+     * Crée la chatroom et enregistre la notification du client dans la même transaction (envoi par le relais outbox)
+     */
+    private ChatRoom createAndNotify(Supplier<ChatRoom> creation, Long clientId, String message) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            ChatRoom room = creation.get();
+            outboxService.publishUserNotification(clientId, new ChatNotification("Nouvelle conversation", message, room.getId()));
+            return room;
+        });
+    }
 }
@@ -4,10 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import tunutech.api.dtos.LangueDto;
+import tunutech.api.model.AggregateType;
 import tunutech.api.model.Langue;
 import tunutech.api.repositories.LangueRepository;
 import tunutech.api.services.LangueService;
+import tunutech.api.services.implementsServices.AggregateVersions;
 
 import java.util.HashMap;
 import java.util.List;
@@ -22,16 +25,19 @@ public class LangueController {
     @Autowired
     private LangueRepository langueRepository;
 
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
     @GetMapping("all")
-    public List<Langue> getAll()
+    public ResponseEntity<List<Langue>> getAll(WebRequest request)
     {
-        return langueService.listall();
+        return aggregateVersions.conditional(request, () -> langueService.listall(), AggregateType.LANGUE);
     }
 
     @GetMapping("allpresent")
-    public List<Langue> getAllPresent()
+    public ResponseEntity<List<Langue>> getAllPresent(WebRequest request)
     {
-        return langueService.listallpresent(true);
+        return aggregateVersions.conditional(request, () -> langueService.listallpresent(true), AggregateType.LANGUE);
     }
 
     @PostMapping("add")
@@ -1,5 +1,6 @@
 package tunutech.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -8,18 +9,20 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import tunutech.api.Utils.FieldSelection;
 import tunutech.api.dtos.*;
 import tunutech.api.exception.DocumentStorageException;
 import tunutech.api.exception.DocumentValidationException;
 import tunutech.api.model.*;
 import tunutech.api.repositories.ProjectRepository;
 import tunutech.api.services.*;
+import org.springframework.web.context.request.WebRequest;
+import tunutech.api.services.implementsServices.AggregateVersions;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/project/")
@@ -45,6 +48,15 @@ public class ProjectController {
     @Autowired
     private ContratService contratService;
 
+    @Autowired
+    private ProjectTimelineService projectTimelineService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
     @PostMapping(value = "add", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<DocumentResponse> uploadDocument(
             @RequestParam("file") MultipartFile file,
@@ -229,69 +241,115 @@ public class ProjectController {
         }
     }
 
+    @PutMapping("terminer/{idproject}")
+    public ResponseEntity<?>terminer(@PathVariable Long idproject)
+    {
+        Project project=projetService.terminer(idproject);
+        return  ResponseEntity.ok(projetService.mapProject(project));
+    }
+
+    // Chronologie du projet (activités, messages, documents) paginée par curseur
+    @GetMapping("timeline/{idproject}")
+    public ResponseEntity<CursorPageDto<TimelineItemDto>> timeline(@PathVariable Long idproject,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(projectTimelineService.getTimeline(idproject, cursor, size));
+    }
+
+    // Liste filtrée (statut, client, traducteur, langues, type de document, dates) paginée par curseur
+    @GetMapping("page")
+    public ResponseEntity<CursorPageDto<Object>> page(@ModelAttribute ProjectFilterDto filter,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int size,
+                                                      @RequestParam(required = false) String fields,
+                                                      WebRequest request) {
+        return aggregateVersions.conditional(request, () -> {
+            FieldSelection selection = FieldSelection.parse(fields, ProjectResponseDto.class);
+            CursorPageDto<ProjectResponseDto> page = projetService.listPage(filter, cursor, size, selection);
+            return new CursorPageDto<>(selection.apply(page.getItems(), objectMapper),
+                    page.getNextCursor(), page.isHasMore(), page.getSize());
+        }, AggregateType.PROJECT);
+    }
+
+    // Recherche plein texte classée par pertinence (syntaxe websearch : "phrase exacte", -exclu, or)
+    @GetMapping("search")
+    public ResponseEntity<CursorPageDto<Object>> search(@RequestParam String q,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") int size,
+                                                        @RequestParam(required = false) String fields,
+                                                        WebRequest request) {
+        return aggregateVersions.conditional(request, () -> {
+            FieldSelection selection = FieldSelection.parse(fields, ProjectResponseDto.class);
+            CursorPageDto<ProjectResponseDto> page = projetService.search(q, cursor, size, selection);
+            return new CursorPageDto<>(selection.apply(page.getItems(), objectMapper),
+                    page.getNextCursor(), page.isHasMore(), page.getSize());
+        }, AggregateType.PROJECT);
+    }
+
     @GetMapping("getunique/{idproject}")
-    public ResponseEntity<?>getUniquebyId(@PathVariable Long idproject)
+    public ResponseEntity<?>getUniquebyId(@PathVariable Long idproject, WebRequest request)
     {
-        Project project=projetService.getUniquebyId(idproject);
-            return  ResponseEntity.ok(projetService.mapProject(project));
+        return aggregateVersions.conditional(request, () -> {
+            Project project=projetService.getUniquebyId(idproject);
+            return projetService.mapProject(project);
+        }, AggregateType.PROJECT);
     }
 
     @GetMapping("getuniquebyCode/{code}")
-    public ResponseEntity<?>getUniquebyCode(@PathVariable String code)
+    public ResponseEntity<?>getUniquebyCode(@PathVariable String code, WebRequest request)
     {
-        Project project=projetService.getUniquebyCode(code);
-            return  ResponseEntity.ok(projetService.mapProject(project));
+        return aggregateVersions.conditional(request, () -> {
+            Project project=projetService.getUniquebyCode(code);
+            return projetService.mapProject(project);
+        }, AggregateType.PROJECT);
     }
 
     @GetMapping("listofClientprofil/{idclient}")
-    public ResponseEntity<?>getlistofClientprofil(@PathVariable Long idclient)
+    public ResponseEntity<?>getlistofClientprofil(@PathVariable Long idclient, WebRequest request)
     {
-        List<ProjectResponseDto> listprojectresponse = projetService.ListofClient(idclient)
-                .stream()
-                .map(projetService::mapProject)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(projetService.bigMap(listprojectresponse));
+        return aggregateVersions.conditional(request, () -> {
+            List<ProjectResponseDto> listprojectresponse = projetService.mapProjects(projetService.ListofClient(idclient));
+            return projetService.bigMap(listprojectresponse);
+        }, AggregateType.PROJECT);
     }
 
     @GetMapping("listofClient/{idclient}")
-    public ResponseEntity<?>getlistofClient(@PathVariable Long idclient)
+    public ResponseEntity<?>getlistofClient(@PathVariable Long idclient, @RequestParam(required = false) String fields, WebRequest request)
     {
-        List<ProjectResponseDto> listprojectresponse = projetService.ListofClient(idclient)
-                .stream()
-                .map(projetService::mapProject)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(listprojectresponse);
+        return aggregateVersions.conditional(request, () -> {
+            FieldSelection selection = FieldSelection.parse(fields, ProjectResponseDto.class);
+            List<ProjectResponseDto> listprojectresponse = projetService.mapProjects(projetService.ListofClient(idclient), selection);
+            return selection.apply(listprojectresponse, objectMapper);
+        }, AggregateType.PROJECT);
     }
 
     @GetMapping("listall")
-    public ResponseEntity<?>getlist()
+    public ResponseEntity<?>getlist(@RequestParam(required = false) String fields, WebRequest request)
     {
-        List<ProjectResponseDto> listprojectresponse = projetService.listall()
-                .stream()
-                .map(projetService::mapProject)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(listprojectresponse);
+        return aggregateVersions.conditional(request, () -> {
+            FieldSelection selection = FieldSelection.parse(fields, ProjectResponseDto.class);
+            List<ProjectResponseDto> listprojectresponse = projetService.mapProjects(projetService.listall(), selection);
+            return selection.apply(listprojectresponse, objectMapper);
+        }, AggregateType.PROJECT);
     }
 
     @GetMapping("listallforClientPresent")
-    public ResponseEntity<?>getlistClientPresent()
+    public ResponseEntity<?>getlistClientPresent(@RequestParam(required = false) String fields, WebRequest request)
     {
-        List<ProjectResponseDto> listprojectresponse = projetService.listallofClientPresent()
-                .stream()
-                .map(projetService::mapProject)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(listprojectresponse);
+        return aggregateVersions.conditional(request, () -> {
+            FieldSelection selection = FieldSelection.parse(fields, ProjectResponseDto.class);
+            List<ProjectResponseDto> listprojectresponse = projetService.mapProjects(projetService.listallofClientPresent(), selection);
+            return selection.apply(listprojectresponse, objectMapper);
+        }, AggregateType.PROJECT);
     }
 
     @GetMapping("listoftraducteur")
-    public ResponseEntity<?>getlistofTraducteur(@AuthenticationPrincipal User user)
+    public ResponseEntity<?>getlistofTraducteur(@AuthenticationPrincipal User user, @RequestParam(required = false) String fields, WebRequest request)
     {
-        List<ProjectResponseDto> listprojectresponse = projetService.ListofTraducteur(user.getTraducteur().getId())
-                .stream()
-                .map(projetService::mapProject)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(listprojectresponse);
+        return aggregateVersions.conditional(request, () -> {
+            FieldSelection selection = FieldSelection.parse(fields, ProjectResponseDto.class);
+            List<ProjectResponseDto> listprojectresponse = projetService.mapProjects(projetService.ListofTraducteur(user.getTraducteur().getId()), selection);
+            return selection.apply(listprojectresponse, objectMapper);
+        }, AggregateType.PROJECT);
     }
 }
@@ -6,16 +6,22 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import tunutech.api.model.AggregateType;
 import tunutech.api.services.PriceService;
+import tunutech.api.services.implementsServices.AggregateVersions;
 
 @RestController
 @RequestMapping("/price/")
 public class TarifsController {
     @Autowired
     private PriceService priceService;
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
     @GetMapping("getprice/{typeDocument}")
-    public ResponseEntity<?>getPrice(@PathVariable String typeDocument)
+    public ResponseEntity<?>getPrice(@PathVariable String typeDocument, WebRequest request)
     {
-        return ResponseEntity.ok(priceService.gettarif(typeDocument));
+        return aggregateVersions.conditional(request, () -> priceService.gettarif(typeDocument), AggregateType.TARIF);
     }
 }
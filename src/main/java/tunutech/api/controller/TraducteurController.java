@@ -1,14 +1,18 @@
 package tunutech.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import tunutech.api.dtos.*;
 import tunutech.api.model.*;
 import tunutech.api.repositories.TraducteurRepository;
 import tunutech.api.repositories.UserRepository;
 import tunutech.api.services.*;
+import tunutech.api.services.implementsServices.AggregateVersions;
+import tunutech.api.Utils.FieldSelection;
 import tunutech.api.Utils.Functions;
 
 import java.util.HashMap;
@@ -36,8 +40,14 @@ public class TraducteurController {
     private Functions functions;
     @Autowired
     private UserService userService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private AggregateVersions aggregateVersions;
     @GetMapping("all")
-public List<Traducteur> getallTraducteursPresentandActive(){return traducteurService.getAllPresentAndActive(); }
+    public ResponseEntity<List<Traducteur>> getallTraducteursPresentandActive(WebRequest request){
+        return aggregateVersions.conditional(request, () -> traducteurService.getAllPresentAndActive(), AggregateType.TRADUCTEUR);
+    }
 
     @GetMapping("getUnique/{idtranslator}")
     public ResponseEntity<?> getInfo(@PathVariable Long idtranslator) throws Exception {
@@ -45,44 +55,50 @@ public List<Traducteur> getallTraducteursPresentandActive(){return traducteurSer
     return ResponseEntity.ok(traducteur);
     }
     @GetMapping("allpresent")
-public List<Traducteur> getallTraducteursPresents(){
-        return traducteurService.getAllPresent();
+    public ResponseEntity<List<Traducteur>> getallTraducteursPresents(WebRequest request){
+        return aggregateVersions.conditional(request, () -> traducteurService.getAllPresent(), AggregateType.TRADUCTEUR);
     }
     @GetMapping("allCountriesOfTranslators")
-public List<PaysResponsDTO> getallCountriesOfTraducteursPresents(){
-        return traducteurService.getCountryListTranslator(this.getallTraducteursPresents());
+    public ResponseEntity<List<PaysResponsDTO>> getallCountriesOfTraducteursPresents(WebRequest request){
+        return aggregateVersions.conditional(request, () -> traducteurService.getCountryListTranslator(traducteurService.getAllPresent()), AggregateType.TRADUCTEUR);
     }
     @GetMapping("allactive")
-public List<Traducteur> getallTraducteursActive(){
-        return traducteurService.getAllActive();
+    public ResponseEntity<List<Traducteur>> getallTraducteursActive(WebRequest request){
+        return aggregateVersions.conditional(request, () -> traducteurService.getAllActive(), AggregateType.TRADUCTEUR);
     }
 
     @GetMapping("allactiveresponse")
-public ResponseEntity<?> getallTraducteursActiveResponse(){
-        return ResponseEntity.ok(
-                traducteurService.getAllActive()
-                        .stream()
-                        .map(traducteur -> traducteurService.maptraducteur(traducteur, false))
-                        .toList()
-        );
+public ResponseEntity<?> getallTraducteursActiveResponse(@RequestParam(required = false) String fields, WebRequest request){
+        return aggregateVersions.conditional(request, () -> {
+            FieldSelection selection = FieldSelection.parse(fields, TraducteurResponseDto.class);
+            return selection.apply(
+                    traducteurService.getAllActive()
+                            .stream()
+                            .map(traducteur -> traducteurService.maptraducteur(traducteur, false, selection))
+                            .toList(), objectMapper);
+        }, AggregateType.TRADUCTEUR);
     }
 
     @PostMapping("allavailableresponse")
     public ResponseEntity<?> getallTraducteursAvailableResponse(
-            @RequestBody LanguerequestDto request) {
+            @RequestBody LanguerequestDto request,
+            @RequestParam(required = false) String fields) {
 
         List<Langue> langueList = request.getLangueslist();
+        FieldSelection selection = FieldSelection.parse(fields, TraducteurResponseDto.class);
 
-        return ResponseEntity.ok(
+        return ResponseEntity.ok(selection.apply(
                 traducteurService.getAllDisponible(langueList)
                         .stream()
-                        .map(traducteur -> traducteurService.maptraducteur(traducteur, false))
-                        .toList()
+                        .map(traducteur -> traducteurService.maptraducteur(traducteur, false, selection))
+                        .toList(), objectMapper)
         );
     }
 
     @GetMapping("alltraducteur")
-    public List<Traducteur> getallTraducteurs(){return traducteurService.getAllTraducteurs(); }
+    public ResponseEntity<List<Traducteur>> getallTraducteurs(WebRequest request){
+        return aggregateVersions.conditional(request, () -> traducteurService.getAllTraducteurs(), AggregateType.TRADUCTEUR);
+    }
 
     @PostMapping("add")
     public ResponseEntity<?>createTraducteur(@RequestBody TraducteurDto traducteurDto)
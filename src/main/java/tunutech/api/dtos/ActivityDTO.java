@@ -2,6 +2,7 @@ package tunutech.api.dtos;
 
 import lombok.Getter;
 import lombok.Setter;
+import tunutech.api.model.Activity;
 import tunutech.api.model.ActivityGroup;
 import tunutech.api.model.ActivityType;
 import tunutech.api.model.PriorityType;
@@ -41,6 +42,29 @@ public class ActivityDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    public static ActivityDTO fromActivity(Activity activity) {
+        ActivityDTO dto = new ActivityDTO();
+        dto.setId(activity.getId());
+        dto.setUuid(activity.getUuid());
+        dto.setType(activity.getType());
+        dto.setCategory(activity.getCategory());
+        dto.setTitle(activity.getTitle());
+        dto.setDescription(activity.getDescription());
+        dto.setUserId(activity.getUserId());
+        dto.setUserName(activity.getUserName());
+        dto.setUserEmail(activity.getUserEmail());
+        dto.setUserRole(activity.getUserRole());
+        dto.setProjectId(activity.getProjectId());
+        dto.setProjectName(activity.getProjectName());
+        dto.setBeneficiaire(activity.getBeneficiaire());
+        dto.setMetadata(activity.getMetadata());
+        dto.setIsRead(activity.getIsRead());
+        dto.setPriority(activity.getPriority());
+        dto.setCreatedAt(activity.getCreatedAt());
+        dto.setUpdatedAt(activity.getUpdatedAt());
+        return dto;
+    }
+
     // Méthodes utilitaires
     public String getTimeAgo() {
         // Implémentation pour afficher "il y a 2 heures", etc.
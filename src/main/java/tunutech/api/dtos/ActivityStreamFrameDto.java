@@ -0,0 +1,20 @@
+package tunutech.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Trame du flux d'activités admin : activités correspondant aux filtres de l'abonné depuis la trame
+ * précédente, et nombre d'activités écartées faute de place (le client peut alors recharger /activities/feed)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityStreamFrameDto {
+    private List<ActivityDTO> activities;
+
+    private long dropped;
+}
@@ -0,0 +1,42 @@
+package tunutech.api.dtos;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Message poussé sur /topic/analytics : variations des compteurs d'un jour depuis le dernier envoi.
+ * RESYNC indique que la plage [dateDebut, dateFin] a été recalculée et doit être rechargée.
+ */
+@Data
+public class AnalyticsDeltaDto {
+    public enum DeltaType {
+        DELTA,
+        RESYNC
+    }
+
+    private DeltaType type = DeltaType.DELTA;
+
+    private LocalDate jour;
+
+    private LocalDate dateDebut;
+
+    private LocalDate dateFin;
+
+    private Integer projetsCrees = 0;
+
+    private Integer projetsTermines = 0;
+
+    private Long motsTraduits = 0L;
+
+    private Integer nouveauxClients = 0;
+
+    private Integer utilisateursActifs = 0;
+
+    // idlangue -> variation du nombre d'utilisations
+    private Map<Long, Integer> langues;
+
+    private LocalDateTime emisLe;
+}
@@ -0,0 +1,23 @@
+package tunutech.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page obtenue par curseur : nextCursor est à renvoyer tel quel pour la page suivante (null en fin de liste)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> items;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    private int size;
+}
@@ -0,0 +1,33 @@
+package tunutech.api.dtos;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+import tunutech.api.model.ProjectStatus;
+import tunutech.api.model.TypeDocument;
+
+import java.time.LocalDate;
+
+/**
+ * Filtres de la liste paginée des projets ; un champ null n'est pas filtré. Les bornes de dates sont incluses.
+ */
+@Data
+public class ProjectFilterDto {
+    private ProjectStatus status;
+    private Long clientId;
+    private Long traducteurId;
+    private Long sourceLangueId;
+    private Long targetLangueId;
+    private TypeDocument typeDocument;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deadlineFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deadlineTo;
+}
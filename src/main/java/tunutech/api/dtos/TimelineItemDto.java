@@ -0,0 +1,38 @@
+package tunutech.api.dtos;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Élément de la chronologie d'un projet : activité, message de chat ou document déposé
+ */
+@Data
+public class TimelineItemDto {
+    public enum Source {
+        ACTIVITY,
+        CHAT_MESSAGE,
+        DOCUMENT
+    }
+
+    private Source source;
+
+    private Long id;
+
+    private LocalDateTime at;
+
+    private String type;
+
+    private String title;
+
+    private String description;
+
+    private Long authorId;
+
+    private String authorName;
+
+    // Champs propres à la source (salon de chat, statut du document...)
+    private Map<String, Object> details = new LinkedHashMap<>();
+}
@@ -0,0 +1,7 @@
+package tunutech.api.exception;
+
+public class ActivityPartitioningRequiredException extends RuntimeException {
+    public ActivityPartitioningRequiredException(String message) {
+        super(message);
+    }
+}
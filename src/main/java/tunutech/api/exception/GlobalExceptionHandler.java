@@ -50,6 +50,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(ActivityPartitioningRequiredException.class)
+    public ResponseEntity<ErrorResponse> handleActivityPartitioningRequiredException(ActivityPartitioningRequiredException ex, WebRequest request) {
+        log.warn("Rétention des activités impossible: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                System.currentTimeMillis(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(InvalidActivityDataException.class)
     public ResponseEntity<ErrorResponse> handleInvalidActivityDataException(InvalidActivityDataException ex, WebRequest request) {
         log.warn("Données d'activité invalides: {}", ex.getMessage());
@@ -7,21 +7,31 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Component;
+import org.springframework.security.core.Authentication;
+import tunutech.api.repositories.UserRepository;
 import tunutech.api.services.JwtService;
+import tunutech.api.services.implementsServices.ActivityStreamPublisher;
 
 import java.security.Principal;
 import java.util.Collections;
+import java.util.List;
 
 @Component
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
     private final JwtService jwtService;
+    private final UserRepository userRepository;
     private static final Logger logger = LoggerFactory.getLogger(WebSocketAuthInterceptor.class);
 
-    public WebSocketAuthInterceptor(JwtService jwtService) {
+    // Destinations réservées aux administrateurs
+    private static final List<String> ADMIN_DESTINATION_PREFIXES = List.of("/topic/analytics", "/user/queue/activities");
+
+    public WebSocketAuthInterceptor(JwtService jwtService, UserRepository userRepository) {
         this.jwtService = jwtService;
+        this.userRepository = userRepository;
     }
 
     @Override
@@ -41,8 +51,10 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                         logger.info("User authenticated: {}", username);
 
                         // ✅ CORRECTION : Utiliser UsernamePasswordAuthenticationToken
-                        UsernamePasswordAuthenticationToken auth =
-                                new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList());
+                        // Rôles chargés à la connexion pour contrôler les abonnements
+                        UsernamePasswordAuthenticationToken auth = userRepository.findByEmail(username)
+                                .map(u -> new UsernamePasswordAuthenticationToken(username, null, u.getAuthorities()))
+                                .orElseGet(() -> new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()));
                         accessor.setUser(auth);
 
                     } else {
@@ -51,6 +63,18 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                     }
                     break;
 
+                case SUBSCRIBE:
+                    String destination = accessor.getDestination();
+                    if (destination != null && ADMIN_DESTINATION_PREFIXES.stream().anyMatch(destination::startsWith) && !isAdmin(accessor.getUser())) {
+                        logger.warn("Abonnement refusé à {} (administrateur requis)", destination);
+                        throw new AccessDeniedException("Abonnement réservé aux administrateurs");
+                    }
+                    // Filtres invalides : trame ERROR plutôt qu'un abonnement à tout le flux
+                    if (ActivityStreamPublisher.SUBSCRIBE_DESTINATION.equals(destination)) {
+                        ActivityStreamPublisher.validateFilter(accessor);
+                    }
+                    break;
+
                 case SEND:
                     // ✅ CORRECTION : Afficher correctement le nom d'utilisateur
                     Object user = accessor.getUser();
@@ -68,6 +92,11 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
         return message;
     }
 
+    private boolean isAdmin(Principal user) {
+        return user instanceof Authentication authentication
+                && authentication.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+
     private String extractToken(StompHeaderAccessor accessor) {
         String authHeader = accessor.getFirstNativeHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
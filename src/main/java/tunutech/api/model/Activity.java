@@ -11,7 +11,12 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
-@Table(name = "activity")
+@Table(name = "activity", indexes = {
+        @Index(name = "idx_activity_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_activity_user_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_activity_project_created_at_id", columnList = "project_id, created_at, id"),
+        @Index(name = "uk_activity_uuid_created_at", columnList = "uuid, created_at", unique = true)
+})
 @Entity
 @Getter
 @Setter
@@ -24,7 +29,8 @@ public class Activity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "uuid", unique = true, nullable = false)
+    // Unique avec created_at (uk_activity_uuid_created_at) : la table est partitionnée par created_at
+    @Column(name = "uuid", nullable = false)
     private String uuid;
 
     @Enumerated(EnumType.STRING)
@@ -64,8 +70,9 @@ public class Activity {
     private String beneficiaire;
 
     // CORRECTION : Utilisation de @JdbcTypeCode pour JSON
+    // jsonb + index GIN (jsonb_path_ops, db/manual/activity_metadata_jsonb.sql) : filtres par contenance (@>)
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "metadata", columnDefinition = "json")
+    @Column(name = "metadata", columnDefinition = "jsonb")
     private Map<String, Object> metadata = new HashMap<>();
 
     @Column(name = "is_read")
@@ -75,8 +82,9 @@ public class Activity {
     @Column(name = "priority", length = 20)
     private PriorityType priority = PriorityType.MEDIUM; // Correction : supprimer le .MEDIUM en double
 
+    // Clé de partitionnement (partitions mensuelles, voir ActivityPartitionManager)
     @CreationTimestamp
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
@@ -0,0 +1,37 @@
+package tunutech.api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Activité que le writer n'a pas pu insérer, même ligne par ligne après les reprises :
+ * conservée (JSON complet) pour analyse et réinsertion manuelle.
+ */
+@Table(name = "activity_dead_letter", indexes = {
+        @Index(name = "idx_activity_dead_letter_failed_at", columnList = "failed_at")
+})
+@Entity
+@Getter
+@Setter
+@ToString
+public class ActivityDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "activity_uuid", length = 255)
+    private String activityUuid;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "error", columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+}
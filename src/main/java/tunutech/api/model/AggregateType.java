@@ -0,0 +1,11 @@
+package tunutech.api.model;
+
+/**
+ * Agrégats versionnés pour les ETag des listes (projets, langues, traducteurs, tarifs)
+ */
+public enum AggregateType {
+    PROJECT,
+    LANGUE,
+    TRADUCTEUR,
+    TARIF
+}
@@ -0,0 +1,52 @@
+package tunutech.api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat journalier des compteurs analytiques, maintenu à chaque écriture
+ * (projets, clients, activités) et reconstructible depuis l'historique.
+ */
+@Table(name = "analytics_daily")
+@Entity
+@Getter
+@Setter
+@ToString
+public class AnalyticsDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private LocalDate jour;
+
+    @Column(nullable = false)
+    private Integer projetsCrees = 0;
+
+    @Column(nullable = false)
+    private Integer projetsTermines = 0;
+
+    @Column(nullable = false)
+    private Long motsTraduits = 0L;
+
+    @Column(nullable = false)
+    private Integer nouveauxClients = 0;
+
+    @Column(nullable = false)
+    private Integer utilisateursActifs = 0;
+
+    // Sketch HyperLogLog des utilisateurs actifs du jour (fusionnable entre jours)
+    @ToString.Exclude
+    @Column(name = "utilisateurs_sketch")
+    private byte[] utilisateursSketch;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
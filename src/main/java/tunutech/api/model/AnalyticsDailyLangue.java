@@ -0,0 +1,32 @@
+package tunutech.api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Utilisation journalière d'une langue (source ou cible) par les projets créés ce jour-là.
+ */
+@Table(name = "analytics_daily_langue",
+        uniqueConstraints = @UniqueConstraint(name = "uk_analytics_daily_langue", columnNames = {"jour", "idlangue"}))
+@Entity
+@Getter
+@Setter
+@ToString
+public class AnalyticsDailyLangue {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate jour;
+
+    @Column(name = "idlangue", nullable = false)
+    private Long langueId;
+
+    @Column(nullable = false)
+    private Integer usages = 0;
+}
@@ -9,7 +9,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 import java.util.Date;
 
-@Table(name = "chatmessage")
+@Table(name = "chatmessage", indexes = {
+        @Index(name = "idx_chatmessage_room_timestamp_id", columnList = "idchatroom, timestamp, id")
+})
 @Entity
 @Getter
 @Setter
@@ -4,12 +4,14 @@ import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
 
 import java.time.LocalDateTime;
 import java.util.Date;
 
 @Table(name = "contrat")
 @Entity
+@EntityListeners(AggregateVersionListener.class)
 @Data
 public class Contrat {
     @Id
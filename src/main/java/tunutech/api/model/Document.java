@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
 
 import java.time.LocalDateTime;
 
-@Table(name = "document")
+@Table(name = "document", indexes = {
+        @Index(name = "idx_document_projet_upload_id", columnList = "idprojet, upload_date, id")
+})
 @Entity
+@EntityListeners(AggregateVersionListener.class)
 @Getter
 @Setter
 @ToString
@@ -6,11 +6,13 @@ import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
 
 import java.util.Date;
 
 @Table(name = "langue")
 @Entity
+@EntityListeners(AggregateVersionListener.class)
 @Getter
 @Setter
 @ToString
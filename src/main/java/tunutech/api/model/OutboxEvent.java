@@ -0,0 +1,68 @@
+package tunutech.api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Événement de domaine écrit dans la même transaction que le changement métier,
+ * puis distribué de manière asynchrone par le relais outbox.
+ */
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_status_id", columnList = "status, id")
+})
+@Entity
+@Getter
+@Setter
+@ToString
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private Map<String, Object> payload = new HashMap<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    // Prochaine tentative après un échec (délai exponentiel) ; null = distribuable immédiatement
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Clé d'ordonnancement : les événements d'un même agrégat sont traités dans l'ordre des id
+     */
+    public String aggregateKey() {
+        return aggregateType + ":" + aggregateId;
+    }
+}
@@ -0,0 +1,8 @@
+package tunutech.api.model;
+
+public enum OutboxEventType {
+    // Activité métier sur un projet (journal d'activités + agrégats analytiques)
+    PROJECT_ACTIVITY,
+    // Notification WebSocket envoyée à un utilisateur
+    USER_NOTIFICATION
+}
@@ -0,0 +1,7 @@
+package tunutech.api.model;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSED,
+    FAILED
+}
@@ -8,14 +8,22 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.beans.factory.annotation.Autowired;
 import tunutech.api.repositories.ProjetLangueSourceRepository;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-@Table(name = "project")
+@Table(name = "project", indexes = {
+        @Index(name = "idx_project_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_project_status_created_id", columnList = "project_status, created_at, id"),
+        @Index(name = "idx_project_client_created_id", columnList = "idclient, created_at, id"),
+        @Index(name = "idx_project_type_created_id", columnList = "type_document, created_at, id"),
+        @Index(name = "idx_project_deadline", columnList = "datevoulue")
+})
 @Entity
+@EntityListeners(AggregateVersionListener.class)
 @Setter
 @Getter
 @ToString
@@ -6,11 +6,16 @@ import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
 
 import java.util.Date;
 
-@Table(name = "projetlanguecible")
+@Table(name = "projetlanguecible", indexes = {
+        @Index(name = "idx_projetlanguecible_langue_projet", columnList = "idlangue, idproject"),
+        @Index(name = "idx_projetlanguecible_projet", columnList = "idproject")
+})
 @Entity
+@EntityListeners(AggregateVersionListener.class)
 @Getter
 @Setter
 @ToString
@@ -5,11 +5,16 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
 
 import java.util.Date;
 
-@Table(name = "projettraducteur")
+@Table(name = "projettraducteur", indexes = {
+        @Index(name = "idx_projettraducteur_traducteur_projet", columnList = "idtraducteur, idproject"),
+        @Index(name = "idx_projettraducteur_projet", columnList = "idproject")
+})
 @Entity
+@EntityListeners(AggregateVersionListener.class)
 @Getter
 @Setter
 @ToString
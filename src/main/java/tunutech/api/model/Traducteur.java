@@ -6,6 +6,7 @@ import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
 
 import java.util.Date;
 
@@ -14,6 +15,7 @@ import java.util.Date;
 @Setter
 @ToString
 @Entity
+@EntityListeners(AggregateVersionListener.class)
 public class Traducteur {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -9,6 +9,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
 
 import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
@@ -17,6 +18,7 @@ import java.util.List;
 
 @Table(name = "users")
 @Entity
+@EntityListeners(AggregateVersionListener.class)
 @Getter
 @Setter
 @ToString
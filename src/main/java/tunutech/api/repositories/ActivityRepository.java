@@ -4,7 +4,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Range;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import tunutech.api.model.Activity;
@@ -12,6 +11,7 @@ import tunutech.api.model.ActivityGroup;
 import tunutech.api.model.ActivityType;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
@@ -27,23 +27,68 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
     Long countByUserIdAndIsReadFalse(Long userId);
 
     // Requêtes personnalisées
-    @Query("SELECT a FROM Activity a ORDER BY a.createdAt DESC LIMIT :limit")
+    @Query("SELECT a FROM Activity a ORDER BY a.createdAt DESC, a.id DESC LIMIT :limit")
     List<Activity> findRecentActivities(@Param("limit") int limit);
 
-    @Query(value = "SELECT a.* FROM activity a WHERE a.project_id = :idProject ORDER BY a.created_at DESC LIMIT :limit",
+    @Query(value = "SELECT a.* FROM activity a WHERE a.project_id = :idProject ORDER BY a.created_at DESC, a.id DESC LIMIT :limit",
             nativeQuery = true)
     List<Activity> findRecentActivitiesofProject(@Param("idProject") Long idProject, @Param("limit") int limit);
 
+    // Dernière activité par projet : [project_id, max(created_at)]
+    @Query(value = "SELECT a.project_id, MAX(a.created_at) FROM activity a WHERE a.project_id IN (:projectIds) GROUP BY a.project_id",
+            nativeQuery = true)
+    List<Object[]> findLastActivityByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
+
+    // Pagination par curseur (created_at, id) décroissant : parcours d'index, coût constant quelle que soit la profondeur
+    @Query(value = "SELECT a.* FROM activity a ORDER BY a.created_at DESC, a.id DESC LIMIT :limit", nativeQuery = true)
+    List<Activity> findFeedFirst(@Param("limit") int limit);
+
+    @Query(value = "SELECT a.* FROM activity a WHERE (a.created_at, a.id) < (:createdAt, :id) " +
+            "ORDER BY a.created_at DESC, a.id DESC LIMIT :limit", nativeQuery = true)
+    List<Activity> findFeedAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(value = "SELECT a.* FROM activity a WHERE a.user_id = :userId " +
+            "ORDER BY a.created_at DESC, a.id DESC LIMIT :limit", nativeQuery = true)
+    List<Activity> findUserFeedFirst(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Query(value = "SELECT a.* FROM activity a WHERE a.user_id = :userId AND (a.created_at, a.id) < (:createdAt, :id) " +
+            "ORDER BY a.created_at DESC, a.id DESC LIMIT :limit", nativeQuery = true)
+    List<Activity> findUserFeedAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(value = "SELECT a.* FROM activity a WHERE a.project_id = :projectId " +
+            "ORDER BY a.created_at DESC, a.id DESC LIMIT :limit", nativeQuery = true)
+    List<Activity> findProjectFeedFirst(@Param("projectId") Long projectId, @Param("limit") int limit);
+
+    @Query(value = "SELECT a.* FROM activity a WHERE a.project_id = :projectId AND (a.created_at, a.id) < (:createdAt, :id) " +
+            "ORDER BY a.created_at DESC, a.id DESC LIMIT :limit", nativeQuery = true)
+    List<Activity> findProjectFeedAfter(@Param("projectId") Long projectId, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, @Param("limit") int limit);
+
+    // Filtres sur metadata par contenance jsonb (@>), servis par l'index GIN ; une seconde forme est acceptée
+    // pour couvrir une même valeur stockée en nombre ou en chaîne
+    @Query(value = "SELECT a.* FROM activity a WHERE (a.metadata @> CAST(:criteria AS jsonb) OR a.metadata @> CAST(:alternative AS jsonb)) " +
+            "ORDER BY a.created_at DESC, a.id DESC LIMIT :limit", nativeQuery = true)
+    List<Activity> findByMetadataFirst(@Param("criteria") String criteria, @Param("alternative") String alternative,
+                                       @Param("limit") int limit);
+
+    @Query(value = "SELECT a.* FROM activity a WHERE (a.metadata @> CAST(:criteria AS jsonb) OR a.metadata @> CAST(:alternative AS jsonb)) " +
+            "AND (a.created_at, a.id) < (:createdAt, :id) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit", nativeQuery = true)
+    List<Activity> findByMetadataAfter(@Param("criteria") String criteria, @Param("alternative") String alternative,
+                                       @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                       @Param("limit") int limit);
+
+    // Nombre d'activités par heure depuis une date (initialisation de l'histogramme horaire)
+    @Query(value = "SELECT date_trunc('hour', a.created_at), COUNT(*) FROM activity a " +
+            "WHERE a.created_at >= :since GROUP BY 1", nativeQuery = true)
+    List<Object[]> countByHourSince(@Param("since") LocalDateTime since);
+
     @Query("SELECT a.type, COUNT(a) FROM Activity a GROUP BY a.type")
     List<Object[]> countActivitiesByType();
 
     @Query("SELECT a.category, COUNT(a) FROM Activity a GROUP BY a.category")
     List<Object[]> countActivitiesByCategory();
 
-    @Modifying
-    @Query("DELETE FROM Activity a WHERE a.createdAt < :cutoffDate")
-    int deleteByCreatedAtBefore(@Param("cutoffDate") LocalDateTime cutoffDate);
-
     // Statistiques avancées
     @Query("SELECT COUNT(a) FROM Activity a WHERE a.createdAt BETWEEN :startDate AND :endDate")
     Long countActivitiesBetweenDates(@Param("startDate") LocalDateTime startDate,
@@ -55,4 +100,8 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
             "ORDER BY FUNCTION('DATE', a.createdAt)")
     List<Object[]> getDailyActivityCount(@Param("startDate") LocalDateTime startDate,
                                          @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT a FROM Activity a WHERE a.createdAt >= :startDate AND a.createdAt < :endDate ORDER BY a.createdAt, a.id")
+    List<Activity> findActivitiesBetween(@Param("startDate") LocalDateTime startDate,
+                                         @Param("endDate") LocalDateTime endDate);
 }
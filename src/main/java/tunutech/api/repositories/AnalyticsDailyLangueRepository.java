@@ -0,0 +1,52 @@
+package tunutech.api.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import tunutech.api.model.AnalyticsDailyLangue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface AnalyticsDailyLangueRepository extends JpaRepository<AnalyticsDailyLangue, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO analytics_daily_langue (jour, idlangue, usages) VALUES (:jour, :idlangue, :delta) " +
+            "ON CONFLICT (jour, idlangue) DO UPDATE SET usages = analytics_daily_langue.usages + EXCLUDED.usages",
+            nativeQuery = true)
+    int increment(@Param("jour") LocalDate jour, @Param("idlangue") Long idlangue, @Param("delta") int delta);
+
+    // Langues utilisées par jour, les plus utilisées en premier
+    @Query(value = "SELECT adl.jour, l.code, adl.usages FROM analytics_daily_langue adl " +
+            "JOIN langue l ON l.id = adl.idlangue " +
+            "WHERE adl.jour BETWEEN :startDate AND :endDate AND adl.usages > 0 " +
+            "ORDER BY adl.jour, adl.usages DESC, l.code", nativeQuery = true)
+    List<Object[]> findUsagesBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Même lecture en curseur pour les exports : à consommer dans une transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT adl.jour, l.code, adl.usages FROM analytics_daily_langue adl " +
+            "JOIN langue l ON l.id = adl.idlangue " +
+            "WHERE adl.jour BETWEEN :startDate AND :endDate AND adl.usages > 0 " +
+            "ORDER BY adl.jour, adl.usages DESC, l.code", nativeQuery = true)
+    Stream<Object[]> streamUsagesBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsDailyLangue a WHERE a.jour BETWEEN :startDate AND :endDate")
+    int deleteByJourBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO analytics_daily_langue (jour, idlangue, usages) " +
+            "SELECT CAST(p.created_at AS date), pl.idlangue, COUNT(*) FROM (" +
+            "  SELECT idproject, idlangue FROM projetlanguesource " +
+            "  UNION ALL SELECT idproject, idlangue FROM projetlanguecible" +
+            ") pl JOIN project p ON p.id = pl.idproject " +
+            "WHERE p.created_at >= :startDate AND p.created_at < :endDate GROUP BY 1, 2", nativeQuery = true)
+    int rebuildBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+}
@@ -0,0 +1,100 @@
+package tunutech.api.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import tunutech.api.model.AnalyticsDaily;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface AnalyticsDailyRepository extends JpaRepository<AnalyticsDaily, Long> {
+    List<AnalyticsDaily> findByJourBetweenOrderByJour(LocalDate startDate, LocalDate endDate);
+
+    // Lecture curseur (scroll en avant) pour les exports : à consommer dans une transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AnalyticsDaily a WHERE a.jour BETWEEN :startDate AND :endDate ORDER BY a.jour")
+    Stream<AnalyticsDaily> streamByJourBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Incrément atomique des compteurs du jour (crée la ligne si elle n'existe pas encore)
+    @Modifying
+    @Query(value = "INSERT INTO analytics_daily (jour, projets_crees, projets_termines, mots_traduits, " +
+            "nouveaux_clients, utilisateurs_actifs, updated_at) " +
+            "VALUES (:jour, :projetsCrees, :projetsTermines, :motsTraduits, :nouveauxClients, :utilisateursActifs, now()) " +
+            "ON CONFLICT (jour) DO UPDATE SET " +
+            "projets_crees = analytics_daily.projets_crees + EXCLUDED.projets_crees, " +
+            "projets_termines = analytics_daily.projets_termines + EXCLUDED.projets_termines, " +
+            "mots_traduits = analytics_daily.mots_traduits + EXCLUDED.mots_traduits, " +
+            "nouveaux_clients = analytics_daily.nouveaux_clients + EXCLUDED.nouveaux_clients, " +
+            "utilisateurs_actifs = analytics_daily.utilisateurs_actifs + EXCLUDED.utilisateurs_actifs, " +
+            "updated_at = now()", nativeQuery = true)
+    int increment(@Param("jour") LocalDate jour,
+                  @Param("projetsCrees") int projetsCrees,
+                  @Param("projetsTermines") int projetsTermines,
+                  @Param("motsTraduits") long motsTraduits,
+                  @Param("nouveauxClients") int nouveauxClients,
+                  @Param("utilisateursActifs") int utilisateursActifs);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsDaily a WHERE a.jour BETWEEN :startDate AND :endDate")
+    int deleteByJourBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Reconstruction depuis l'historique : projets créés, projets terminés (date de fin), clients, clients actifs
+    @Modifying
+    @Query(value = "INSERT INTO analytics_daily (jour, projets_crees, projets_termines, mots_traduits, " +
+            "nouveaux_clients, utilisateurs_actifs, updated_at) " +
+            "SELECT d.jour, SUM(d.crees), SUM(d.termines), SUM(d.mots), SUM(d.clients), SUM(d.actifs), now() FROM (" +
+            "  SELECT CAST(p.created_at AS date) AS jour, COUNT(*) AS crees, 0 AS termines, 0 AS mots, 0 AS clients, 0 AS actifs " +
+            "  FROM project p WHERE p.created_at >= :startDate AND p.created_at < :endDate GROUP BY 1 " +
+            "  UNION ALL " +
+            "  SELECT CAST(COALESCE(p.end_at, p.updated_at) AS date), 0, COUNT(*), COALESCE(SUM(ROUND(p.wordscount)), 0), 0, 0 " +
+            "  FROM project p WHERE p.is_end AND COALESCE(p.end_at, p.updated_at) >= :startDate " +
+            "  AND COALESCE(p.end_at, p.updated_at) < :endDate GROUP BY 1 " +
+            "  UNION ALL " +
+            "  SELECT CAST(c.created_at AS date), 0, 0, 0, COUNT(*), 0 " +
+            "  FROM client c WHERE c.created_at >= :startDate AND c.created_at < :endDate GROUP BY 1 " +
+            "  UNION ALL " +
+            "  SELECT CAST(a.created_at AS date), 0, 0, 0, 0, COUNT(DISTINCT a.user_id) " +
+            "  FROM activity a WHERE a.user_role = 'CLIENT' AND a.created_at >= :startDate AND a.created_at < :endDate GROUP BY 1" +
+            ") d GROUP BY d.jour", nativeQuery = true)
+    int rebuildBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    // Sketch du jour verrouillé pour fusion (la ligne doit exister)
+    @Query(value = "SELECT utilisateurs_sketch FROM analytics_daily WHERE jour = :jour FOR UPDATE", nativeQuery = true)
+    Object findSketchForUpdate(@Param("jour") LocalDate jour);
+
+    @Modifying
+    @Query(value = "UPDATE analytics_daily SET utilisateurs_sketch = :sketch, utilisateurs_actifs = :utilisateursActifs, " +
+            "updated_at = now() WHERE jour = :jour", nativeQuery = true)
+    int updateSketch(@Param("jour") LocalDate jour, @Param("sketch") byte[] sketch,
+                     @Param("utilisateursActifs") int utilisateursActifs);
+
+    @Query("SELECT MIN(a.jour) FROM AnalyticsDaily a WHERE a.utilisateursActifs > 0 AND a.utilisateursSketch IS NULL")
+    LocalDate findFirstDayWithoutSketch();
+
+    @Query("SELECT a.jour, a.utilisateursSketch FROM AnalyticsDaily a " +
+            "WHERE a.jour BETWEEN :startDate AND :endDate AND a.utilisateursSketch IS NOT NULL")
+    List<Object[]> findSketchesBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Couples (jour, client) actifs distincts, triés par jour, pour reconstruire les sketches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT DISTINCT CAST(a.created_at AS date), a.user_id FROM activity a " +
+            "WHERE a.user_role = 'CLIENT' AND a.created_at >= :startDate AND a.created_at < :endDate ORDER BY 1",
+            nativeQuery = true)
+    Stream<Object[]> streamActiveClientsBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query(value = "SELECT CAST(MIN(m) AS date) FROM (" +
+            "SELECT MIN(created_at) AS m FROM project " +
+            "UNION ALL SELECT MIN(created_at) FROM client " +
+            "UNION ALL SELECT MIN(created_at) FROM activity) h", nativeQuery = true)
+    Object findFirstHistoryDate();
+}
@@ -7,6 +7,7 @@ import tunutech.api.model.ChatMessage;
 import tunutech.api.model.ChatRoom;
 import tunutech.api.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
@@ -18,4 +19,17 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     Long countUnreadMessages(@Param("chatRoom") ChatRoom chatRoom, @Param("user") User user);
 
     ChatMessage findTopByChatRoomOrderByTimestampDesc(ChatRoom chatRoom);
+
+    // Messages des salons d'un projet par (timestamp, id) décroissant, pour la chronologie : id, timestamp,
+    // contenu, type, rôle, auteur, fichier, salon
+    @Query(value = "SELECT m.id, m.timestamp, m.content, m.type, m.sender_role, m.iduser, m.file_name, m.idchatroom " +
+            "FROM chatmessage m JOIN chatroom r ON r.id = m.idchatroom WHERE r.idproject = :projectId " +
+            "ORDER BY m.timestamp DESC, m.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findTimelineFirst(@Param("projectId") Long projectId, @Param("limit") int limit);
+
+    @Query(value = "SELECT m.id, m.timestamp, m.content, m.type, m.sender_role, m.iduser, m.file_name, m.idchatroom " +
+            "FROM chatmessage m JOIN chatroom r ON r.id = m.idchatroom WHERE r.idproject = :projectId " +
+            "AND (m.timestamp, m.id) < (:at, :id) ORDER BY m.timestamp DESC, m.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findTimelineAfter(@Param("projectId") Long projectId, @Param("at") LocalDateTime at,
+                                     @Param("id") Long id, @Param("limit") int limit);
 }
@@ -1,13 +1,23 @@
 package tunutech.api.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tunutech.api.model.Client;
 import tunutech.api.model.Traducteur;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ClientRepository extends JpaRepository<Client, Long> {
   Optional <Client> findByEmail(String email);
   List<Client> findByPresent(Boolean present);
+
+  // Agrégats analytiques : nouveaux clients par jour
+  @Query(value = "SELECT CAST(c.created_at AS date) AS jour, COUNT(*) FROM client c " +
+          "WHERE c.created_at >= :startDate AND c.created_at < :endDate " +
+          "GROUP BY CAST(c.created_at AS date) ORDER BY jour", nativeQuery = true)
+  List<Object[]> countDailyNewClients(@Param("startDate") LocalDateTime startDate,
+                                      @Param("endDate") LocalDateTime endDate);
 }
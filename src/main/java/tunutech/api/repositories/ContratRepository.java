@@ -1,8 +1,11 @@
 package tunutech.api.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tunutech.api.model.Contrat;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +13,8 @@ public interface ContratRepository extends JpaRepository<Contrat, Long> {
     Optional<Contrat> findByProjectId(Long projetId);
     List<Contrat> findByContratStatut(String statut);
     void deleteByProjectId(long projectId);
+
+    // Montant du contrat par projet : [projectId, montantContrat]
+    @Query("SELECT c.project.id, c.montantContrat FROM Contrat c WHERE c.project.id IN :projectIds")
+    List<Object[]> findMontantsByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
 }
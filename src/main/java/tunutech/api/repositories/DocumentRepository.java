@@ -1,9 +1,13 @@
 package tunutech.api.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tunutech.api.model.Document;
 import tunutech.api.model.Project;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface DocumentRepository extends JpaRepository<Document, Long> {
@@ -11,4 +15,18 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     Document findByProjectId(Long idproject);
     List<Document> findDocumentsByProjectId(Long idproject);
     void deleteByProject(Project project);
+
+    List<Document> findByProjectIdInOrderByIdAsc(Collection<Long> projectIds);
+
+    // Documents d'un projet par (upload_date, id) décroissant, pour la chronologie : id, date, nom, statut,
+    // déposant, type, taille
+    @Query(value = "SELECT d.id, d.upload_date, d.original_name, d.status, d.uploaded_by, d.type_document, d.file_size " +
+            "FROM document d WHERE d.idprojet = :projectId ORDER BY d.upload_date DESC, d.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findTimelineFirst(@Param("projectId") Long projectId, @Param("limit") int limit);
+
+    @Query(value = "SELECT d.id, d.upload_date, d.original_name, d.status, d.uploaded_by, d.type_document, d.file_size " +
+            "FROM document d WHERE d.idprojet = :projectId AND (d.upload_date, d.id) < (:at, :id) " +
+            "ORDER BY d.upload_date DESC, d.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findTimelineAfter(@Param("projectId") Long projectId, @Param("at") LocalDateTime at,
+                                     @Param("id") Long id, @Param("limit") int limit);
 }
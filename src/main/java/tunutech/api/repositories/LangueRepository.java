@@ -1,8 +1,11 @@
 package tunutech.api.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tunutech.api.model.Langue;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,15 @@ public interface LangueRepository extends JpaRepository<Langue, Long> {
     Optional <Langue> findByName(String name);
    Optional <Langue> findByCode(String code);
     List<Langue> findByActive(Boolean active);
+
+    // Nombre de projets de la période utilisant chaque langue présente (en source ou en cible) : id, name, nb
+    @Query(value = "SELECT l.id, l.name, COUNT(DISTINCT pl.idproject) FROM langue l " +
+            "LEFT JOIN (" +
+            "  SELECT s.idproject, s.idlangue FROM projetlanguesource s JOIN project p ON p.id = s.idproject " +
+            "  WHERE p.created_at >= :startDate AND p.created_at < :endDate " +
+            "  UNION SELECT c.idproject, c.idlangue FROM projetlanguecible c JOIN project p ON p.id = c.idproject " +
+            "  WHERE p.created_at >= :startDate AND p.created_at < :endDate" +
+            ") pl ON pl.idlangue = l.id " +
+            "WHERE l.present = true GROUP BY l.id, l.name ORDER BY l.name", nativeQuery = true)
+    List<Object[]> countProjetsParLangueBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 }
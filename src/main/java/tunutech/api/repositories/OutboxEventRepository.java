@@ -0,0 +1,41 @@
+package tunutech.api.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import tunutech.api.model.OutboxEvent;
+import tunutech.api.model.OutboxStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Événements du statut donné dont la prochaine tentative est échue, par id croissant
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :status " +
+            "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.id ASC")
+    List<OutboxEvent> findDueByStatusOrderByIdAsc(@Param("status") OutboxStatus status,
+                                                  @Param("now") LocalDateTime now,
+                                                  Pageable pageable);
+
+    /**
+     * Agrégats retenus par un événement FAILED ou en attente de reprise : [aggregateType, aggregateId, min(id)]
+     */
+    @Query("SELECT e.aggregateType, e.aggregateId, MIN(e.id) FROM OutboxEvent e " +
+            "WHERE e.status = :failed OR (e.status = :pending AND e.nextAttemptAt > :now) " +
+            "GROUP BY e.aggregateType, e.aggregateId")
+    List<Object[]> findHeldAggregateHeads(@Param("failed") OutboxStatus failed,
+                                          @Param("pending") OutboxStatus pending,
+                                          @Param("now") LocalDateTime now);
+
+    long countByStatus(OutboxStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+}
@@ -1,15 +1,51 @@
 package tunutech.api.repositories;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tunutech.api.model.Project;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, JpaSpecificationExecutor<Project> {
     List<Project> findByIsEnd(Boolean terminer);
     List<Project> findByValider(Boolean valider);
+    // Listes destinées à l'assembleur : client chargé dans la même requête
+    @Override
+    @EntityGraph(attributePaths = "client")
+    List<Project> findAll();
+
+    @EntityGraph(attributePaths = "client")
+    List<Project> findByClientPresentTrue();
+
+    @Query("SELECT p FROM Project p JOIN FETCH p.client " +
+            "WHERE p.id IN (SELECT pt.project.id FROM ProjetTraducteur pt WHERE pt.traducteur.id = :traducteurId)")
+    List<Project> findByTraducteurId(@Param("traducteurId") Long traducteurId);
+
+    @EntityGraph(attributePaths = "client")
+    List<Project> findByIdIn(Collection<Long> ids);
+
+    // Recherche plein texte classée : [id, rang], par rang puis id décroissants (voir ProjectSearchIndex)
+    @Query(value = "SELECT p.id, ts_rank_cd(p.search_vector, tsq) AS rank " +
+            "FROM project p, websearch_to_tsquery(CAST(:config AS regconfig), :text) tsq " +
+            "WHERE p.search_vector @@ tsq ORDER BY rank DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> searchFirst(@Param("config") String config, @Param("text") String text, @Param("limit") int limit);
+
+    @Query(value = "SELECT p.id, ts_rank_cd(p.search_vector, tsq) AS rank " +
+            "FROM project p, websearch_to_tsquery(CAST(:config AS regconfig), :text) tsq " +
+            "WHERE p.search_vector @@ tsq AND (ts_rank_cd(p.search_vector, tsq), p.id) < (CAST(:rank AS real), :id) " +
+            "ORDER BY rank DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> searchAfter(@Param("config") String config, @Param("text") String text,
+                               @Param("rank") float rank, @Param("id") long id, @Param("limit") int limit);
+
     List<Project>findByClientId(Long id);
     Project findByCode(String code);
     Boolean existsByCode(String code);
+
+    List<Project> findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(Date startDate, Date endDate);
 }
@@ -0,0 +1,102 @@
+package tunutech.api.repositories;
+
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import tunutech.api.Utils.DateComparisonUtils;
+import tunutech.api.Utils.KeysetCursor;
+import tunutech.api.dtos.ProjectFilterDto;
+import tunutech.api.model.Project;
+import tunutech.api.model.ProjetLangueCible;
+import tunutech.api.model.ProjetLangueSource;
+import tunutech.api.model.ProjetTraducteur;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Critères de la liste paginée des projets, évalués côté base (voir les index de la table project)
+ */
+public final class ProjectSpecifications {
+
+    private ProjectSpecifications() {
+    }
+
+    public static Specification<Project> matching(ProjectFilterDto filter) {
+        Specification<Project> spec = withClient();
+        if (filter.getStatus() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("projectStatus"), filter.getStatus()));
+        }
+        if (filter.getClientId() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("client").get("id"), filter.getClientId()));
+        }
+        if (filter.getTypeDocument() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("typeDocument"), filter.getTypeDocument()));
+        }
+        if (filter.getTraducteurId() != null) {
+            spec = spec.and((root, query, cb) -> {
+                Subquery<Long> sub = query.subquery(Long.class);
+                Root<ProjetTraducteur> pt = sub.from(ProjetTraducteur.class);
+                sub.select(pt.get("project").get("id"))
+                        .where(cb.equal(pt.get("traducteur").get("id"), filter.getTraducteurId()));
+                return root.get("id").in(sub);
+            });
+        }
+        if (filter.getSourceLangueId() != null) {
+            spec = spec.and((root, query, cb) -> {
+                Subquery<Long> sub = query.subquery(Long.class);
+                Root<ProjetLangueSource> pl = sub.from(ProjetLangueSource.class);
+                sub.select(pl.get("project").get("id"))
+                        .where(cb.equal(pl.get("langue").get("id"), filter.getSourceLangueId()));
+                return root.get("id").in(sub);
+            });
+        }
+        if (filter.getTargetLangueId() != null) {
+            spec = spec.and((root, query, cb) -> {
+                Subquery<Long> sub = query.subquery(Long.class);
+                Root<ProjetLangueCible> pl = sub.from(ProjetLangueCible.class);
+                sub.select(pl.get("project").get("id"))
+                        .where(cb.equal(pl.get("langue").get("id"), filter.getTargetLangueId()));
+                return root.get("id").in(sub);
+            });
+        }
+        // Bornes de dates incluses : [from 00:00, to + 1 jour 00:00[
+        if (filter.getCreatedFrom() != null) {
+            Date from = DateComparisonUtils.toDate(filter.getCreatedFrom());
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from));
+        }
+        if (filter.getCreatedTo() != null) {
+            Date to = DateComparisonUtils.toDate(filter.getCreatedTo().plusDays(1));
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("createdAt"), to));
+        }
+        if (filter.getDeadlineFrom() != null) {
+            Date from = DateComparisonUtils.toDate(filter.getDeadlineFrom());
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("datevoulue"), from));
+        }
+        if (filter.getDeadlineTo() != null) {
+            Date to = DateComparisonUtils.toDate(filter.getDeadlineTo().plusDays(1));
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("datevoulue"), to));
+        }
+        return spec;
+    }
+
+    /**
+     * Reprise strictement après (created_at, id) dans l'ordre décroissant
+     */
+    public static Specification<Project> after(KeysetCursor position) {
+        Date createdAt = Timestamp.valueOf(position.createdAt());
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), position.id())));
+    }
+
+    // Client chargé dans la même requête (sauf requête de comptage)
+    private static Specification<Project> withClient() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("client");
+            }
+            return null;
+        };
+    }
+}
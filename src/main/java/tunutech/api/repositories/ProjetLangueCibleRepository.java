@@ -1,9 +1,12 @@
 package tunutech.api.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tunutech.api.model.Project;
 import tunutech.api.model.ProjetLangueCible;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +14,7 @@ public interface ProjetLangueCibleRepository extends JpaRepository<ProjetLangueC
     List<ProjetLangueCible> findByProjectId(Long idproject);
     Optional<ProjetLangueCible> findByProjectIdAndLangueId(Long idproject, Long idlangue);
     void  deleteAllByProject(Project project);
+
+    @Query("SELECT pl FROM ProjetLangueCible pl JOIN FETCH pl.langue WHERE pl.project.id IN :projectIds ORDER BY pl.id")
+    List<ProjetLangueCible> findWithLangueByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
 }
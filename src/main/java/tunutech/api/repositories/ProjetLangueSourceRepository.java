@@ -1,10 +1,13 @@
 package tunutech.api.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tunutech.api.model.Project;
 import tunutech.api.model.ProjetLangueCible;
 import tunutech.api.model.ProjetLangueSource;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,7 @@ public interface ProjetLangueSourceRepository extends JpaRepository<ProjetLangue
     List<ProjetLangueSource> findByProjectId(Long projectId);
     Optional<ProjetLangueSource> findByProjectIdAndLangueId(Long projectId, Long langueId);
     void  deleteAllByProject(Project project);
+
+    @Query("SELECT pl FROM ProjetLangueSource pl JOIN FETCH pl.langue WHERE pl.project.id IN :projectIds ORDER BY pl.id")
+    List<ProjetLangueSource> findWithLangueByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
 }
@@ -1,8 +1,11 @@
 package tunutech.api.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tunutech.api.model.ProjetTraducteur;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,9 @@ public interface ProjetTraducteurRepository extends JpaRepository<ProjetTraducte
    List<ProjetTraducteur> findByTraducteurId(Long traductuerid);
 
    Optional<ProjetTraducteur>findByTraducteurIdAndProjectId(Long traducteurid, long projetid);
+
+   // Affectations de plusieurs projets en une requête (traducteur et utilisateur chargés avec)
+   @Query("SELECT pt FROM ProjetTraducteur pt JOIN FETCH pt.traducteur LEFT JOIN FETCH pt.user u " +
+           "LEFT JOIN FETCH u.client LEFT JOIN FETCH u.traducteur WHERE pt.project.id IN :projectIds")
+   List<ProjetTraducteur> findWithTraducteurByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
 }
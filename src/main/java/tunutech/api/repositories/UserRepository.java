@@ -1,12 +1,15 @@
 package tunutech.api.repositories;
 
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tunutech.api.model.RoleUser;
 import tunutech.api.model.Traducteur;
 import tunutech.api.model.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +31,8 @@ public interface UserRepository extends CrudRepository<User, Integer> {
 
     Optional<String>findAvatarUrlById(Long id);
 
+    // Chargement groupé des utilisateurs avec leur client (une seule requête)
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.client WHERE u.id IN :ids")
+    List<User> findWithClientByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -3,11 +3,13 @@ package tunutech.api.services;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import tunutech.api.dtos.ActivityDTO;
+import tunutech.api.dtos.CursorPageDto;
 import tunutech.api.model.Activity;
 import tunutech.api.model.ActivityType;
 import tunutech.api.model.User;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -15,6 +17,8 @@ public interface ActivityService {
     // Méthodes de logging d'activités
     void logUserActivity(User user, ActivityType type, String description);
     void logProjectActivity(User user, ActivityType type, String projectName, String beneficiaire,Long projectId, String description);
+    // Insertion synchrone dans la transaction courante (consommateur outbox)
+    void recordProjectActivity(User user, ActivityType type, String projectName, String beneficiaire,Long projectId, String description);
     void logPaymentActivity(User user, ActivityType type, String projectName, Long projectId, Map<String, Object> metadata);
     void logSystemActivity(ActivityType type, String description, Map<String, Object> metadata);
 
@@ -27,7 +31,16 @@ public interface ActivityService {
     List<Activity> getActivitiesInPeriod(LocalDate date1, LocalDate date2);
     List<ActivityDTO> getRecentActivities(int limit);
     List<ActivityDTO> getRecentActivitiesOfProject(int limit,Long idproject);
+    // Pagination par curseur (created_at, id), sans OFFSET ni COUNT ; cursor null = première page
+    CursorPageDto<ActivityDTO> getActivityFeed(String cursor, int size);
+    CursorPageDto<ActivityDTO> getUserActivityFeed(Long userId, String cursor, int size);
+    CursorPageDto<ActivityDTO> getProjectActivityFeed(Long projectId, String cursor, int size);
+    // Filtres sur metadata (contenance jsonb indexée), paginés par curseur
+    CursorPageDto<ActivityDTO> findByMetadata(Map<String, Object> criteria, String cursor, int size);
+    CursorPageDto<ActivityDTO> findByMetadataKey(String key, String value, String cursor, int size);
     ActivityDTO getActivityById(Long activityId); // AJOUTÉE
+    // Lecture dans les archives froides (activités sorties de la rétention)
+    List<ActivityDTO> getArchivedUserActivities(Long userId, LocalDate startDate, LocalDate endDate, int limit);
 
     // Méthodes de gestion du statut de lecture
     void markAsRead(Long activityId);
@@ -41,5 +54,6 @@ public interface ActivityService {
 
     // Méthodes de suppression
     void deleteActivity(Long activityId);
-    void deleteOldActivities(int days);
+    // Retourne les mois (partitions mensuelles entières) retirés
+    List<YearMonth> deleteOldActivities(int days);
 }
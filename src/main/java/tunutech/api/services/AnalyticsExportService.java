@@ -0,0 +1,14 @@
+package tunutech.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface AnalyticsExportService {
+    /**
+     * Écrit la série journalière de la période (un enregistrement par jour, jours vides inclus)
+     * en flux, sans la charger en mémoire
+     * @param format csv ou ndjson
+     */
+    void exportDailySeries(LocalDate startDate, LocalDate endDate, String format, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,43 @@
+package tunutech.api.services;
+
+import tunutech.api.model.Client;
+import tunutech.api.model.Project;
+import tunutech.api.model.RoleUser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface AnalyticsRollupService {
+    /**
+     * Incrémente les compteurs du jour de création du projet
+     */
+    void recordProjectCreated(Project project);
+
+    /**
+     * Incrémente les projets terminés et les mots traduits du jour de fin du projet
+     */
+    void recordProjectCompleted(Project project);
+
+    /**
+     * Incrémente les nouveaux clients du jour de création du client
+     */
+    void recordClientCreated(Client client);
+
+    /**
+     * Compte un utilisateur client comme actif pour le jour de l'activité (une seule fois par jour)
+     */
+    void recordActivity(Long userId, RoleUser userRole, LocalDateTime createdAt);
+
+    /**
+     * Ajoute (delta > 0) ou retire (delta < 0) une utilisation de langue au jour de création du projet
+     */
+    void recordLangueUsage(Project project, Long idlangue, int delta);
+
+    /**
+     * Recalcule les agrégats journaliers depuis l'historique
+     * @param startDate Date de début (null = première donnée connue)
+     * @param endDate Date de fin (null = aujourd'hui)
+     * @return Nombre de jours recalculés
+     */
+    int rebuild(LocalDate startDate, LocalDate endDate);
+}
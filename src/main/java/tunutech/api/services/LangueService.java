@@ -2,7 +2,9 @@ package tunutech.api.services;
 
 import tunutech.api.dtos.LangueDto;
 import tunutech.api.model.Langue;
+import tunutech.api.model.LanguesResponseAnalyticDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface LangueService {
@@ -27,4 +29,6 @@ public interface LangueService {
     Langue setEnableLangue(LangueDto langueDto);
     Langue setPresentLangue(LangueDto langueDto);
 
+    List<LanguesResponseAnalyticDto> repartitionProjets(LocalDateTime startDate, LocalDateTime endDate);
+
 }
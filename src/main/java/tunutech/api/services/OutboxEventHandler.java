@@ -0,0 +1,13 @@
+package tunutech.api.services;
+
+import tunutech.api.model.OutboxEvent;
+
+/**
+ * Consommateur d'événements outbox, appelé par le relais dans la transaction de l'événement.
+ * Une exception annule la transaction : l'événement sera redistribué (au moins une fois).
+ */
+public interface OutboxEventHandler {
+    boolean supports(OutboxEvent event);
+
+    void handle(OutboxEvent event);
+}
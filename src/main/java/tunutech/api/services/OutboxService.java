@@ -0,0 +1,25 @@
+package tunutech.api.services;
+
+import tunutech.api.model.ActivityType;
+import tunutech.api.model.OutboxEventType;
+import tunutech.api.model.Project;
+import tunutech.api.model.User;
+
+import java.util.Map;
+
+public interface OutboxService {
+    /**
+     * Enregistre un événement dans la transaction courante (distribué après commit par le relais)
+     */
+    void publish(String aggregateType, Long aggregateId, OutboxEventType eventType, Map<String, Object> payload);
+
+    /**
+     * Activité sur un projet ; user peut être null (seuls les agrégats analytiques sont alors alimentés)
+     */
+    void publishProjectActivity(Project project, User user, ActivityType type, String beneficiaire, String description);
+
+    /**
+     * Notification WebSocket envoyée sur /topic/user/{userId}
+     */
+    void publishUserNotification(Long userId, ChatNotification notification);
+}
@@ -0,0 +1,12 @@
+package tunutech.api.services;
+
+import tunutech.api.dtos.CursorPageDto;
+import tunutech.api.dtos.TimelineItemDto;
+
+public interface ProjectTimelineService {
+    /**
+     * Chronologie du projet (plus récent d'abord) fusionnant activités, messages de chat et documents ;
+     * cursor null = première page
+     */
+    CursorPageDto<TimelineItemDto> getTimeline(Long projectId, String cursor, int size);
+}
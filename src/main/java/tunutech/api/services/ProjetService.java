@@ -1,6 +1,9 @@
 package tunutech.api.services;
 
+import tunutech.api.Utils.FieldSelection;
+import tunutech.api.dtos.CursorPageDto;
 import tunutech.api.dtos.ProjectDto;
+import tunutech.api.dtos.ProjectFilterDto;
 import tunutech.api.dtos.ProjectResponseDto;
 import tunutech.api.dtos.TranslationProjectsDto;
 import tunutech.api.model.*;
@@ -38,10 +41,24 @@ public interface ProjetService {
 
     ProjectResponseDto mapProject(Project project);
 
+    // Version groupée de mapProject : nombre de requêtes constant quel que soit le nombre de projets
+    List<ProjectResponseDto> mapProjects(List<Project> projects);
+
+    // Seules les associations correspondant aux champs sélectionnés sont chargées
+    List<ProjectResponseDto> mapProjects(List<Project> projects, FieldSelection selection);
+
+    // Liste filtrée côté base, paginée par curseur (created_at, id) décroissant
+    CursorPageDto<ProjectResponseDto> listPage(ProjectFilterDto filter, String cursor, int size, FieldSelection selection);
+
+    // Recherche plein texte (titre, description, code, client, documents), classée et paginée par curseur
+    CursorPageDto<ProjectResponseDto> search(String text, String cursor, int size, FieldSelection selection);
+
     TranslationProjectsDto bigMap(List<ProjectResponseDto> list);
 
 
     Project update(ProjectDto projectDto);
 
+    Project terminer(Long idproject);
+
     Optional<Traducteur> getTraducteorofProject(Project project);
 }
@@ -1,5 +1,6 @@
 package tunutech.api.services;
 
+import tunutech.api.Utils.FieldSelection;
 import tunutech.api.dtos.PaysResponsDTO;
 import tunutech.api.dtos.TraducteurDto;
 import tunutech.api.dtos.TraducteurResponseDto;
@@ -30,4 +31,7 @@ public interface TraducteurService {
 
     TraducteurResponseDto maptraducteur(Traducteur traducteur,Boolean end);
 
+    // Seules les données correspondant aux champs sélectionnés sont chargées (langues, utilisateur, nombre de projets)
+    TraducteurResponseDto maptraducteur(Traducteur traducteur, Boolean end, FieldSelection selection);
+
 }
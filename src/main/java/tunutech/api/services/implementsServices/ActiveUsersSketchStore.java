@@ -0,0 +1,105 @@
+package tunutech.api.services.implementsServices;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tunutech.api.Utils.HyperLogLog;
+import tunutech.api.Utils.TransactionUtils;
+import tunutech.api.repositories.AnalyticsDailyRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Utilisateurs actifs par jour sous forme de sketches HyperLogLog.
+ * Les activités alimentent un sketch en mémoire par jour, fusionné périodiquement
+ * (maximum registre à registre) dans analytics_daily.utilisateurs_sketch.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveUsersSketchStore {
+
+    private final AnalyticsDailyRepository analyticsDailyRepository;
+    private final AnalyticsResponseCache analyticsResponseCache;
+    private final AnalyticsLivePublisher analyticsLivePublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    // Sketches non encore persistés ; accès uniquement via compute/remove (verrou par jour)
+    private final ConcurrentHashMap<LocalDate, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    public void record(LocalDate day, Long userId) {
+        TransactionUtils.afterCommit(() -> pending.compute(day, (key, sketch) -> {
+            HyperLogLog s = sketch != null ? sketch : new HyperLogLog();
+            s.add(userId);
+            return s;
+        }));
+    }
+
+    /**
+     * Nombre approximatif d'utilisateurs distincts sur la période : union des sketches journaliers
+     */
+    public long estimateDistinct(LocalDate startDate, LocalDate endDate) {
+        HyperLogLog union = new HyperLogLog();
+        for (Object[] row : analyticsDailyRepository.findSketchesBetween(startDate, endDate)) {
+            union.merge(HyperLogLog.fromBytes((byte[]) row[1]));
+        }
+        for (LocalDate day : pending.keySet()) {
+            if (!day.isBefore(startDate) && !day.isAfter(endDate)) {
+                pending.computeIfPresent(day, (key, sketch) -> {
+                    union.merge(sketch);
+                    return sketch;
+                });
+            }
+        }
+        return union.estimate();
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.sketch.flush-ms:10000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (LocalDate day : new ArrayList<>(pending.keySet())) {
+            HyperLogLog sketch = pending.remove(day);
+            if (sketch == null) {
+                continue;
+            }
+            try {
+                int[] counts = transactionTemplate.execute(status -> persist(day, sketch));
+                if (counts != null && counts[1] != counts[0]) {
+                    analyticsResponseCache.invalidate(day);
+                    analyticsLivePublisher.recordCounters(day, 0, 0, 0L, 0, counts[1] - counts[0]);
+                }
+            } catch (Exception e) {
+                // Le sketch est remis en attente pour le prochain passage
+                pending.merge(day, sketch, HyperLogLog::merge);
+                log.error("Erreur persistance du sketch des utilisateurs actifs du {}: {}", day, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Fusionne le sketch avec celui en base ; retourne les estimations avant/après
+     */
+    private int[] persist(LocalDate day, HyperLogLog sketch) {
+        // Crée la ligne du jour si besoin, puis la verrouille
+        analyticsDailyRepository.increment(day, 0, 0, 0L, 0, 0);
+        HyperLogLog stored = HyperLogLog.fromBytes((byte[]) analyticsDailyRepository.findSketchForUpdate(day));
+        int before = (int) stored.estimate();
+        int after = (int) stored.merge(sketch).estimate();
+        analyticsDailyRepository.updateSketch(day, stored.toBytes(), after);
+        return new int[]{before, after};
+    }
+}
@@ -0,0 +1,304 @@
+package tunutech.api.services.implementsServices;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tunutech.api.model.Activity;
+import tunutech.api.model.ActivityGroup;
+import tunutech.api.model.ActivityType;
+import tunutech.api.model.PriorityType;
+import tunutech.api.model.RoleUser;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archive froide des activités : une partition mensuelle devient un segment immuable
+ * (activity-YYYYMM.seg) fait de blocs gzip indépendants de lignes NDJSON triées par (created_at, id),
+ * accompagné d'un index creux (activity-YYYYMM.idx) donnant pour chaque bloc sa position,
+ * ses bornes de dates et les utilisateurs présents. Une lecture ne décompresse que les blocs candidats.
+ */
+@Slf4j
+@Component
+public class ActivityArchiver {
+
+    /**
+     * Entrée d'index d'un bloc : position dans le segment, bornes de dates et utilisateurs (triés)
+     */
+    public record BlockEntry(long offset, int length, int count, LocalDateTime minCreatedAt, LocalDateTime maxCreatedAt,
+                             long[] userIds) {
+    }
+
+    public record SegmentIndex(String month, long activities, List<BlockEntry> blocks) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path rootPath;
+    private final int blockSize;
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<YearMonth, Optional<SegmentIndex>> indexes = new ConcurrentHashMap<>();
+
+    public ActivityArchiver(JdbcTemplate jdbcTemplate,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.activity.archive.root-path:./archives/activity}") String rootPath,
+                            @Value("${app.activity.archive.block-size:1000}") int blockSize,
+                            @Value("${app.activity.archive.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.rootPath = Paths.get(rootPath);
+        this.blockSize = blockSize;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Écrit le segment d'une partition (réécrit s'il existe déjà : la partition fait foi tant qu'elle n'est pas supprimée).
+     * Le segment et son index sont écrits dans des fichiers temporaires, synchronisés sur disque puis renommés.
+     */
+    public SegmentIndex archivePartition(String partitionName, YearMonth month) throws IOException {
+        Files.createDirectories(rootPath);
+        Path segmentTmp = rootPath.resolve(segmentFile(month).getFileName() + ".tmp");
+        Path indexTmp = rootPath.resolve(indexFile(month).getFileName() + ".tmp");
+
+        SegmentIndex index;
+        try (FileChannel channel = FileChannel.open(segmentTmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SegmentWriter writer = new SegmentWriter(channel);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("SELECT * FROM " + partitionName + " ORDER BY created_at, id");
+                ps.setFetchSize(blockSize);
+                return ps;
+            }, rs -> {
+                writer.append(mapRow(rs));
+            }));
+            writer.finish();
+            channel.force(true);
+            index = new SegmentIndex(month.toString(), writer.total, writer.blocks);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Files.write(indexTmp, objectMapper.writeValueAsBytes(index));
+        try (FileChannel channel = FileChannel.open(indexTmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(segmentTmp, segmentFile(month), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(indexTmp, indexFile(month), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        indexes.put(month, Optional.of(index));
+        log.info("Partition {} archivée : {} activités en {} blocs", partitionName, index.activities(), index.blocks().size());
+        return index;
+    }
+
+    /**
+     * Activités archivées d'un utilisateur sur [from, to[, par ordre chronologique, au plus limit
+     */
+    public List<Activity> findUserActivities(Long userId, LocalDateTime from, LocalDateTime to, int limit) throws IOException {
+        List<Activity> result = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)) && result.size() < limit; month = month.plusMonths(1)) {
+            Optional<SegmentIndex> index = loadIndex(month);
+            if (index.isEmpty()) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segmentFile(month), StandardOpenOption.READ)) {
+                for (BlockEntry block : index.get().blocks()) {
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                    // Blocs écartés par l'index : ni lecture ni décompression
+                    if (block.maxCreatedAt().isBefore(from) || !block.minCreatedAt().isBefore(to)
+                            || Arrays.binarySearch(block.userIds(), userId) < 0) {
+                        continue;
+                    }
+                    for (Activity activity : readBlock(channel, block)) {
+                        if (userId.equals(activity.getUserId()) && !activity.getCreatedAt().isBefore(from)
+                                && activity.getCreatedAt().isBefore(to)) {
+                            result.add(activity);
+                            if (result.size() >= limit) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<String> listSegments() throws IOException {
+        if (!Files.isDirectory(rootPath)) {
+            return List.of();
+        }
+        try (var files = Files.list(rootPath)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".seg"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Optional<SegmentIndex> loadIndex(YearMonth month) {
+        return indexes.computeIfAbsent(month, key -> {
+            Path file = indexFile(key);
+            if (!Files.exists(file) || !Files.exists(segmentFile(key))) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(objectMapper.readValue(file.toFile(), SegmentIndex.class));
+            } catch (IOException e) {
+                log.error("Index d'archive illisible {}: {}", file, e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+
+    private List<Activity> readBlock(FileChannel channel, BlockEntry block) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(block.length());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, block.offset() + buffer.position()) < 0) {
+                throw new EOFException("Segment tronqué");
+            }
+        }
+        List<Activity> activities = new ArrayList<>(block.count());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(buffer.array())), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                activities.add(objectMapper.readValue(line, Activity.class));
+            }
+        }
+        return activities;
+    }
+
+    private Path segmentFile(YearMonth month) {
+        return rootPath.resolve(String.format("activity-%04d%02d.seg", month.getYear(), month.getMonthValue()));
+    }
+
+    private Path indexFile(YearMonth month) {
+        return rootPath.resolve(String.format("activity-%04d%02d.idx", month.getYear(), month.getMonthValue()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Activity mapRow(ResultSet rs) throws SQLException {
+        String metadata = rs.getString("metadata");
+        Map<String, Object> metadataMap;
+        try {
+            metadataMap = metadata != null ? objectMapper.readValue(metadata, Map.class) : new HashMap<>();
+        } catch (IOException e) {
+            metadataMap = new HashMap<>();
+        }
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        String priority = rs.getString("priority");
+        return Activity.builder()
+                .id(rs.getLong("id"))
+                .uuid(rs.getString("uuid"))
+                .type(ActivityType.valueOf(rs.getString("type")))
+                .category(ActivityGroup.valueOf(rs.getString("category")))
+                .userId(rs.getLong("user_id"))
+                .userName(rs.getString("user_name"))
+                .userRole(RoleUser.valueOf(rs.getString("user_role")))
+                .userEmail(rs.getString("user_email"))
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .projectId(rs.getObject("project_id", Long.class))
+                .projectName(rs.getString("project_name"))
+                .beneficiaire(rs.getString("beneficiaire"))
+                .metadata(metadataMap)
+                .isRead(rs.getBoolean("is_read"))
+                .priority(priority != null ? PriorityType.valueOf(priority) : null)
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                .build();
+    }
+
+    /**
+     * Regroupe les activités en blocs gzip indépendants et construit l'index au fil de l'eau
+     */
+    private class SegmentWriter {
+        private final FileChannel channel;
+        private final List<BlockEntry> blocks = new ArrayList<>();
+        private final TreeSet<Long> userIds = new TreeSet<>();
+        private ByteArrayOutputStream bytes;
+        private Writer out;
+        private int count;
+        private long total;
+        private long offset;
+        private LocalDateTime minCreatedAt;
+        private LocalDateTime maxCreatedAt;
+
+        SegmentWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void append(Activity activity) {
+            try {
+                if (out == null) {
+                    bytes = new ByteArrayOutputStream();
+                    out = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8);
+                    minCreatedAt = activity.getCreatedAt();
+                }
+                out.write(objectMapper.writeValueAsString(activity));
+                out.write('\n');
+                userIds.add(activity.getUserId());
+                maxCreatedAt = activity.getCreatedAt();
+                count++;
+                total++;
+                if (count >= blockSize) {
+                    flushBlock();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (out != null) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            out.close();
+            byte[] block = bytes.toByteArray();
+            ByteBuffer buffer = ByteBuffer.wrap(block);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            blocks.add(new BlockEntry(offset, block.length, count, minCreatedAt, maxCreatedAt,
+                    userIds.stream().mapToLong(Long::longValue).toArray()));
+            offset += block.length;
+            out = null;
+            count = 0;
+            userIds.clear();
+        }
+    }
+}
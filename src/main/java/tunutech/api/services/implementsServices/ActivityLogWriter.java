@@ -0,0 +1,434 @@
+package tunutech.api.services.implementsServices;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tunutech.api.Utils.TransactionUtils;
+import tunutech.api.model.Activity;
+import tunutech.api.model.AggregateType;
+import tunutech.api.services.AnalyticsRollupService;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Écriture asynchrone du journal d'activités : file bornée en mémoire vidée par un thread dédié
+ * en lots JDBC (par taille ou par délai). Les activités ne sont mises en file qu'après le commit
+ * de la transaction appelante. Un lot en échec est rejoué avec un délai exponentiel, puis écrit
+ * ligne par ligne : seules les lignes encore refusées partent dans activity_dead_letter.
+ */
+@Slf4j
+@Component
+public class ActivityLogWriter {
+
+    /**
+     * Comportement quand la file est pleine
+     */
+    public enum OverflowPolicy {
+        // Attendre une place jusqu'au délai, puis écrire dans le thread appelant
+        BLOCK,
+        // Écrire immédiatement dans le thread appelant
+        CALLER_RUNS,
+        // Abandonner l'activité (comptée dans dropped)
+        DROP
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO activity (id, uuid, type, category, user_id, user_name, user_role, " +
+            "user_email, title, description, project_id, project_name, beneficiaire, metadata, is_read, priority, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?)";
+
+    // Identifiants réservés d'avance sur la séquence de la colonne identity
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('activity', 'id')) FROM generate_series(1, ?)";
+
+    private static final String DEAD_LETTER_SQL = "INSERT INTO activity_dead_letter (activity_uuid, payload, error, failed_at) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final HourlyActivityRing hourlyActivityRing;
+    private final ActivityStatsCounters activityStatsCounters;
+    private final ProjectRecentActivityCache projectRecentActivityCache;
+    private final ActivityStreamPublisher activityStreamPublisher;
+    private final AggregateVersions aggregateVersions;
+
+    private final BlockingQueue<Activity> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long blockTimeoutMs;
+    private final long shutdownTimeoutMs;
+    private final OverflowPolicy overflowPolicy;
+    private final int retryAttempts;
+    private final long retryBackoffMs;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writtenInTransaction = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rowFallbacks = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchWriteNanos = new LongAdder();
+    private final AtomicLong maxBatchWriteNanos = new AtomicLong();
+    private final LongAdder queueWaitMillis = new LongAdder();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             AnalyticsRollupService analyticsRollupService,
+                             HourlyActivityRing hourlyActivityRing,
+                             ActivityStatsCounters activityStatsCounters,
+                             ProjectRecentActivityCache projectRecentActivityCache,
+                             ActivityStreamPublisher activityStreamPublisher,
+                             AggregateVersions aggregateVersions,
+                             @Value("${app.activity.writer.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.activity.writer.batch-size:200}") int batchSize,
+                             @Value("${app.activity.writer.flush-interval-ms:500}") long flushIntervalMs,
+                             @Value("${app.activity.writer.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                             @Value("${app.activity.writer.block-timeout-ms:200}") long blockTimeoutMs,
+                             @Value("${app.activity.writer.shutdown-timeout-ms:10000}") long shutdownTimeoutMs,
+                             @Value("${app.activity.writer.retry-attempts:3}") int retryAttempts,
+                             @Value("${app.activity.writer.retry-backoff-ms:100}") long retryBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.analyticsRollupService = analyticsRollupService;
+        this.hourlyActivityRing = hourlyActivityRing;
+        this.activityStatsCounters = activityStatsCounters;
+        this.projectRecentActivityCache = projectRecentActivityCache;
+        this.activityStreamPublisher = activityStreamPublisher;
+        this.aggregateVersions = aggregateVersions;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.retryAttempts = Math.max(1, retryAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "activity-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Writer d'activités démarré (file {}, lots de {}, délai {} ms, politique {})",
+                queue.remainingCapacity(), batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    /**
+     * Met l'activité en file après le commit de la transaction appelante
+     */
+    public void submit(Activity activity) {
+        TransactionUtils.afterCommit(() -> enqueue(activity));
+    }
+
+    /**
+     * Écriture synchrone dans la transaction courante (relais outbox) ; les exceptions remontent
+     * pour annuler la transaction. Les agrégats dérivés sont alimentés après le commit.
+     */
+    public void writeInTransaction(Activity activity) {
+        activity.setId(jdbcTemplate.queryForObject(NEXT_IDS_SQL, Long.class, 1));
+        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, activity));
+        TransactionUtils.afterCommit(() -> {
+            writtenInTransaction.increment();
+            recordDerived(activity);
+        });
+    }
+
+    private void enqueue(Activity activity) {
+        if (!running) {
+            writeNow(activity);
+            return;
+        }
+        boolean accepted = queue.offer(activity);
+        if (!accepted && overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(activity, blockTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (accepted) {
+            enqueued.increment();
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            dropped.increment();
+            log.warn("File d'activités pleine : activité {} abandonnée", activity.getType());
+            return;
+        }
+        // CALLER_RUNS, ou BLOCK après expiration du délai : le thread appelant écrit lui-même
+        writeNow(activity);
+    }
+
+    private void writeNow(Activity activity) {
+        callerRuns.increment();
+        writeBatch(List.of(activity));
+    }
+
+    private void drainLoop() {
+        List<Activity> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Activity first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Lot envoyé dès qu'il est plein, ou au plus tard flushIntervalMs après la première activité
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Activity next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Arrêt demandé : on termine la vidange de la file avant de sortir
+                running = false;
+            } catch (Exception e) {
+                log.error("Erreur du writer d'activités: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+        log.info("Writer d'activités arrêté ({} activités écrites)", written.sum());
+    }
+
+    private void writeBatch(List<Activity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Activity> persisted;
+        try {
+            persisted = insertWithRetry(batch) ? batch : insertRowByRow(batch);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            batches.increment();
+            batchWriteNanos.add(elapsed);
+            maxBatchWriteNanos.accumulateAndGet(elapsed, Math::max);
+        }
+        written.add(persisted.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Activity activity : persisted) {
+            queueWaitMillis.add(Duration.between(activity.getCreatedAt(), now).toMillis());
+            recordDerived(activity);
+        }
+    }
+
+    /**
+     * Insertion du lot en un seul batch, rejouée retryAttempts fois (délai doublé à chaque reprise)
+     */
+    private boolean insertWithRetry(List<Activity> batch) {
+        long backoff = retryBackoffMs;
+        for (int attempt = 1; attempt <= retryAttempts; attempt++) {
+            try {
+                insertBatch(batch);
+                return true;
+            } catch (Exception e) {
+                log.warn("Échec d'écriture d'un lot de {} activités (tentative {}/{}): {}",
+                        batch.size(), attempt, retryAttempts, e.getMessage());
+            }
+            if (attempt < retryAttempts) {
+                retries.increment();
+                if (!sleep(backoff)) {
+                    break;
+                }
+                backoff *= 2;
+            }
+        }
+        return false;
+    }
+
+    private void insertBatch(List<Activity> batch) {
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bind(ps, batch.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+
+    /**
+     * Repli après les reprises : une ligne fautive n'emporte plus tout le lot
+     */
+    private List<Activity> insertRowByRow(List<Activity> batch) {
+        rowFallbacks.increment();
+        List<Activity> persisted = new ArrayList<>(batch.size());
+        for (Activity activity : batch) {
+            try {
+                activity.setId(jdbcTemplate.queryForObject(NEXT_IDS_SQL, Long.class, 1));
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, activity));
+                persisted.add(activity);
+            } catch (Exception e) {
+                failed.increment();
+                deadLetter(activity, e);
+            }
+        }
+        return persisted;
+    }
+
+    private void deadLetter(Activity activity, Exception cause) {
+        String payload = toJson(activity);
+        try {
+            jdbcTemplate.update(DEAD_LETTER_SQL, activity.getUuid(), payload, String.valueOf(cause.getMessage()),
+                    Timestamp.valueOf(LocalDateTime.now()));
+            deadLettered.increment();
+            log.error("Activité {} non insérée, placée dans activity_dead_letter: {}", activity.getUuid(), cause.getMessage());
+        } catch (Exception e) {
+            // Base indisponible : le contenu reste au moins dans les logs
+            log.error("Activité perdue (dead letter impossible: {}): {}", e.getMessage(), payload);
+        }
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            // Arrêt du worker : on passe directement au repli ligne par ligne et on vide la file
+            if (Thread.currentThread() == worker) {
+                running = false;
+            } else {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+
+    private void recordDerived(Activity activity) {
+        analyticsRollupService.recordActivity(activity.getUserId(), activity.getUserRole(), activity.getCreatedAt());
+        hourlyActivityRing.record(activity.getCreatedAt());
+        activityStatsCounters.increment(activity.getType(), activity.getCategory());
+        projectRecentActivityCache.record(activity);
+        activityStreamPublisher.publish(activity);
+        // Date de dernière activité des réponses projet
+        if (activity.getProjectId() != null) {
+            aggregateVersions.bump(AggregateType.PROJECT);
+        }
+    }
+
+    private void bind(PreparedStatement ps, Activity activity) throws SQLException {
+        ps.setLong(1, activity.getId());
+        ps.setString(2, activity.getUuid());
+        ps.setString(3, activity.getType().name());
+        ps.setString(4, activity.getCategory().name());
+        ps.setLong(5, activity.getUserId());
+        ps.setString(6, activity.getUserName());
+        ps.setString(7, activity.getUserRole().name());
+        ps.setString(8, activity.getUserEmail());
+        ps.setString(9, activity.getTitle());
+        ps.setString(10, activity.getDescription());
+        if (activity.getProjectId() != null) {
+            ps.setLong(11, activity.getProjectId());
+        } else {
+            ps.setNull(11, Types.BIGINT);
+        }
+        ps.setString(12, activity.getProjectName());
+        ps.setString(13, activity.getBeneficiaire());
+        ps.setString(14, toJson(activity.getMetadata()));
+        ps.setBoolean(15, Boolean.TRUE.equals(activity.getIsRead()));
+        ps.setString(16, activity.getPriority() != null ? activity.getPriority().name() : null);
+        ps.setTimestamp(17, Timestamp.valueOf(activity.getCreatedAt()));
+        ps.setTimestamp(18, Timestamp.valueOf(activity.getUpdatedAt() != null ? activity.getUpdatedAt() : activity.getCreatedAt()));
+    }
+
+    private String toJson(Activity activity) {
+        try {
+            return objectMapper.writeValueAsString(activity);
+        } catch (JsonProcessingException e) {
+            return activity.toString();
+        }
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata != null ? metadata : Map.of());
+        } catch (JsonProcessingException e) {
+            log.warn("Métadonnées d'activité non sérialisables: {}", e.getMessage());
+            return "{}";
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long batchCount = batches.sum();
+        long writtenCount = written.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueRemainingCapacity", queue.remainingCapacity());
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("written", writtenCount);
+        stats.put("writtenInTransaction", writtenInTransaction.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("callerRuns", callerRuns.sum());
+        stats.put("failed", failed.sum());
+        stats.put("retries", retries.sum());
+        stats.put("rowFallbacks", rowFallbacks.sum());
+        stats.put("deadLettered", deadLettered.sum());
+        stats.put("batches", batchCount);
+        stats.put("avgBatchWriteMs", batchCount > 0 ? batchWriteNanos.sum() / 1_000_000.0 / batchCount : 0.0);
+        stats.put("maxBatchWriteMs", maxBatchWriteNanos.get() / 1_000_000.0);
+        stats.put("avgQueueWaitMs", writtenCount > 0 ? (double) queueWaitMillis.sum() / writtenCount : 0.0);
+        return stats;
+    }
+
+    /**
+     * Arrêt : plus de mise en file, vidange du reste puis attente du thread (borné)
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(shutdownTimeoutMs);
+            if (worker.isAlive()) {
+                log.warn("Writer d'activités non terminé après {} ms ({} en file)", shutdownTimeoutMs, queue.size());
+            }
+        }
+    }
+}
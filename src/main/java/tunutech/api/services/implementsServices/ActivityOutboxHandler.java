@@ -0,0 +1,55 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tunutech.api.exception.InvalidActivityDataException;
+import tunutech.api.model.ActivityType;
+import tunutech.api.model.OutboxEvent;
+import tunutech.api.model.OutboxEventType;
+import tunutech.api.model.User;
+import tunutech.api.services.ActivityService;
+import tunutech.api.services.OutboxEventHandler;
+import tunutech.api.services.UserService;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Journal d'activités : l'activité est insérée dans la transaction de l'événement outbox
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityOutboxHandler implements OutboxEventHandler {
+
+    private final ActivityService activityService;
+    private final UserService userService;
+
+    @Override
+    public boolean supports(OutboxEvent event) {
+        return event.getEventType() == OutboxEventType.PROJECT_ACTIVITY && event.getPayload().get("userId") != null;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        Map<String, Object> payload = event.getPayload();
+        Long userId = ((Number) payload.get("userId")).longValue();
+        Optional<User> user = userService.getById(userId);
+        if (user.isEmpty()) {
+            log.warn("Événement outbox {} ignoré : utilisateur {} introuvable", event.getId(), userId);
+            return;
+        }
+        try {
+            activityService.recordProjectActivity(user.get(),
+                    ActivityType.valueOf((String) payload.get("activityType")),
+                    (String) payload.get("projectName"),
+                    (String) payload.get("beneficiaire"),
+                    event.getAggregateId(),
+                    (String) payload.get("description"));
+        } catch (InvalidActivityDataException e) {
+            // Données invalides : une nouvelle tentative échouerait de la même façon
+            log.warn("Événement outbox {} ignoré : {}", event.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package tunutech.api.services.implementsServices;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tunutech.api.Utils.TransactionUtils;
+import tunutech.api.exception.ActivityPartitioningRequiredException;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partitionnement mensuel (RANGE sur created_at) de la table activity.
+ * La conversion de la table est un script ponctuel (db/manual/partition_activity.sql) ;
+ * ce composant crée à l'avance les partitions à venir, reclasse les lignes tombées dans la
+ * partition par défaut et applique la rétention en détachant ou supprimant des partitions entières.
+ */
+@Slf4j
+@Component
+public class ActivityPartitionManager {
+
+    public enum RetentionMode {
+        // Détacher puis supprimer la partition
+        DROP,
+        // Détacher seulement (la table reste disponible pour archivage)
+        DETACH
+    }
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("activity_p(\\d{4})(\\d{2})");
+    private static final String DEFAULT_PARTITION = "activity_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityArchiver activityArchiver;
+    private final ActivityStatsCounters activityStatsCounters;
+    private final ProjectRecentActivityCache projectRecentActivityCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final RetentionMode retentionMode;
+
+    // EntityManagerFactory injectée pour passer après la mise à jour du schéma par Hibernate
+    public ActivityPartitionManager(JdbcTemplate jdbcTemplate,
+                                    ActivityArchiver activityArchiver,
+                                    ActivityStatsCounters activityStatsCounters,
+                                    ProjectRecentActivityCache projectRecentActivityCache,
+                                    PlatformTransactionManager transactionManager,
+                                    EntityManagerFactory entityManagerFactory,
+                                    @Value("${app.activity.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${app.activity.retention.months:0}") int retentionMonths,
+                                    @Value("${app.activity.retention.mode:DROP}") RetentionMode retentionMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.activityArchiver = activityArchiver;
+        this.activityStatsCounters = activityStatsCounters;
+        this.projectRecentActivityCache = projectRecentActivityCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.retentionMode = retentionMode;
+    }
+
+    @PostConstruct
+    public void init() {
+        String relkind = relkind();
+        if ("r".equals(relkind)) {
+            log.warn("Table activity non partitionnée : appliquer db/manual/partition_activity.sql");
+        }
+        if (relkind != null) {
+            ensurePartitions();
+        }
+    }
+
+    private String relkind() {
+        return jdbcTemplate.queryForObject(
+                "SELECT (SELECT relkind::text FROM pg_class WHERE oid = to_regclass('activity'))", String.class);
+    }
+
+    /**
+     * Crée les partitions du mois courant et des mois à venir
+     */
+    @Scheduled(cron = "${app.activity.partitions.cron:0 0 2 * * *}")
+    public void ensurePartitions() {
+        if (!"p".equals(relkind())) {
+            return;
+        }
+        routeDefaultPartition();
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                createPartition(current.plusMonths(i));
+            } catch (Exception e) {
+                // Typiquement : création concurrente par une autre instance
+                log.error("Création de la partition {} impossible: {}", partitionName(current.plusMonths(i)), e.getMessage());
+            }
+        }
+        if (retentionMonths > 0) {
+            dropPartitionsBefore(current.minusMonths(retentionMonths).atDay(1).atStartOfDay());
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF activity FOR VALUES FROM ('"
+                + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    /**
+     * Les lignes hors des partitions existantes (mois passés ou lointains) tombent dans activity_default,
+     * que la rétention ne voit pas : chaque mois présent y est déplacé dans sa propre partition mensuelle.
+     * Retourne le nombre de lignes déplacées.
+     */
+    public int routeDefaultPartition() {
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, DEFAULT_PARTITION) != Boolean.TRUE) {
+            return 0;
+        }
+        int moved = 0;
+        List<LocalDate> months = jdbcTemplate.queryForList(
+                "SELECT DISTINCT date_trunc('month', created_at)::date FROM " + DEFAULT_PARTITION, LocalDate.class);
+        for (LocalDate firstDay : months) {
+            YearMonth month = YearMonth.from(firstDay);
+            try {
+                Integer rows = transactionTemplate.execute(status -> moveDefaultRows(month));
+                moved += rows != null ? rows : 0;
+            } catch (Exception e) {
+                log.error("Reclassement de la partition par défaut vers {} impossible: {}", partitionName(month), e.getMessage());
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Crée la partition du mois hors de la table mère, y déplace les lignes puis l'attache
+     * (l'attachement vérifie la partition par défaut, normalement quasi vide)
+     */
+    private int moveDefaultRows(YearMonth month) {
+        // Un seul reclassement à la fois entre instances
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('activity_partitions'))", Boolean.class))) {
+            return 0;
+        }
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE activity INCLUDING DEFAULTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE created_at >= ? AND created_at < ? " +
+                "RETURNING *) INSERT INTO " + name + " SELECT * FROM moved", from.atStartOfDay(), to.atStartOfDay());
+        jdbcTemplate.execute("ALTER TABLE activity ATTACH PARTITION " + name + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        log.info("{} activités déplacées de {} vers {}", moved, DEFAULT_PARTITION, name);
+        return moved;
+    }
+
+    /**
+     * Rétention : retire les partitions entièrement antérieures à la date limite (granularité mensuelle,
+     * le mois contenant la date limite est conservé), après les avoir archivées en segments compressés.
+     * Retourne les mois retirés.
+     *
+     * @throws ActivityPartitioningRequiredException si la table activity n'est pas encore partitionnée
+     */
+    public List<YearMonth> dropPartitionsBefore(LocalDateTime cutoff) {
+        if (!"p".equals(relkind())) {
+            throw new ActivityPartitioningRequiredException(
+                    "Table activity non partitionnée : appliquer db/manual/partition_activity.sql avant toute rétention");
+        }
+        List<YearMonth> removed = new ArrayList<>();
+        for (YearMonth month : listPartitionMonths()) {
+            LocalDate end = month.plusMonths(1).atDay(1);
+            if (end.atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            String name = partitionName(month);
+            if (activityArchiver.isEnabled()) {
+                try {
+                    activityArchiver.archivePartition(name, month);
+                } catch (IOException e) {
+                    // Partition conservée tant que son archive n'est pas écrite
+                    log.error("Archivage de la partition {} impossible, rétention reportée: {}", name, e.getMessage());
+                    continue;
+                }
+            }
+            jdbcTemplate.execute("ALTER TABLE activity DETACH PARTITION " + name);
+            if (retentionMode == RetentionMode.DROP) {
+                jdbcTemplate.execute("DROP TABLE " + name);
+            }
+            removed.add(month);
+            log.info("Partition {} {}", name, retentionMode == RetentionMode.DROP ? "supprimée" : "détachée");
+        }
+        if (!removed.isEmpty()) {
+            TransactionUtils.afterCommit(() -> {
+                activityStatsCounters.reconcile();
+                projectRecentActivityCache.clear();
+            });
+        }
+        return removed;
+    }
+
+    /**
+     * Mois couverts par les partitions attachées, du plus ancien au plus récent
+     */
+    public List<YearMonth> listPartitionMonths() {
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass('activity') ORDER BY c.relname", String.class);
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("activity_p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -1,13 +1,17 @@
 package tunutech.api.services.implementsServices;
 
 import jakarta.transaction.Transactional;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import tunutech.api.Utils.DateComparisonUtils;
+import tunutech.api.Utils.KeysetCursor;
+import tunutech.api.Utils.TransactionUtils;
 import tunutech.api.dtos.ActivityDTO;
+import tunutech.api.dtos.CursorPageDto;
 import tunutech.api.exception.ActivityNotFoundException;
 import tunutech.api.exception.ActivityServiceException;
 import tunutech.api.exception.InvalidActivityDataException;
@@ -15,8 +19,11 @@ import tunutech.api.model.*;
 import tunutech.api.repositories.ActivityRepository;
 import tunutech.api.services.ActivityService;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,6 +33,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class ActivityServiceImpl implements ActivityService {
     private final ActivityRepository activityRepository;
+    private final ActivityLogWriter activityLogWriter;
+    private final ActivityPartitionManager activityPartitionManager;
+    private final ActivityArchiver activityArchiver;
+    private final ObjectMapper objectMapper;
+    private final ActivityStatsCounters activityStatsCounters;
+    private final ProjectRecentActivityCache projectRecentActivityCache;
+
+    private static final int MAX_FEED_SIZE = 100;
+    private static final int MAX_ARCHIVE_READ = 5000;
 
     // CORRECTION : Implémentation de toutes les méthodes de l'interface
 
@@ -52,6 +68,16 @@ public class ActivityServiceImpl implements ActivityService {
         }
     }
 
+    @Override
+    public void recordProjectActivity(User user, ActivityType type, String projectName, String beneficiaire,Long projectId, String description) {
+        validateUser(user);
+        validateProjectData(projectName, projectId);
+        validateDescription(description);
+        Activity activity = buildActivity(user, type, ActivityGroup.PROJECT, description, projectName, beneficiaire, projectId, new HashMap<>());
+        activityLogWriter.writeInTransaction(activity);
+        log.info("Activity recorded: {} - {}", type, description);
+    }
+
     @Override
     public void logPaymentActivity(User user, ActivityType type, String projectName, Long projectId, Map<String, Object> metadata) {
         try {
@@ -80,10 +106,11 @@ public class ActivityServiceImpl implements ActivityService {
                     .metadata(metadata != null ? metadata : new HashMap<>())
                     .isRead(false)
                     .priority(determinePriority(type))
+                    .createdAt(LocalDateTime.now())
                     .build();
 
-            activityRepository.save(activity);
-            log.info("System activity logged: {} - {}", type, description);
+            activityLogWriter.submit(activity);
+            log.info("System activity queued: {} - {}", type, description);
         } catch (Exception e) {
             throw new ActivityServiceException("Erreur lors du logging de l'activité système", e);
         }
@@ -93,10 +120,19 @@ public class ActivityServiceImpl implements ActivityService {
     private void logActivity(User user, ActivityType type, ActivityGroup category,
                              String description, String projectName, String beneficiaire,Long projectId,
                              Map<String, Object> metadata) {
+        Activity activity = buildActivity(user, type, category, description, projectName, beneficiaire, projectId, metadata);
+
+        // Écriture différée et groupée par ActivityLogWriter, après le commit de l'appelant
+        activityLogWriter.submit(activity);
+        log.info("Activity queued: {} - {}", type, description);
+    }
 
+    private Activity buildActivity(User user, ActivityType type, ActivityGroup category,
+                                   String description, String projectName, String beneficiaire,Long projectId,
+                                   Map<String, Object> metadata) {
         Map<String, Object> finalMetadata = metadata != null ? new HashMap<>(metadata) : new HashMap<>();
 
-        Activity activity = Activity.builder()
+        return Activity.builder()
                 .uuid(UUID.randomUUID().toString())
                 .type(type)
                 .category(category)
@@ -112,10 +148,8 @@ public class ActivityServiceImpl implements ActivityService {
                 .metadata(finalMetadata)
                 .isRead(false)
                 .priority(determinePriority(type))
+                .createdAt(LocalDateTime.now())
                 .build();
-
-        activityRepository.save(activity);
-        log.info("Activity logged: {} - {}", type, description);
     }
 
     // CORRECTION : Ajout de la méthode getActivityById manquante
@@ -128,26 +162,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     // CORRECTION : Ajout de la méthode convertToDTO manquante
     private ActivityDTO convertToDTO(Activity activity) {
-        ActivityDTO dto = new ActivityDTO();
-        dto.setId(activity.getId());
-        dto.setUuid(activity.getUuid());
-        dto.setType(activity.getType());
-        dto.setCategory(activity.getCategory());
-        dto.setTitle(activity.getTitle());
-        dto.setDescription(activity.getDescription());
-        dto.setUserId(activity.getUserId());
-        dto.setUserName(activity.getUserName());
-        dto.setUserEmail(activity.getUserEmail());
-        dto.setUserRole(activity.getUserRole());
-        dto.setProjectId(activity.getProjectId());
-        dto.setProjectName(activity.getProjectName());
-        dto.setBeneficiaire(activity.getBeneficiaire());
-        dto.setMetadata(activity.getMetadata());
-        dto.setIsRead(activity.getIsRead());
-        dto.setPriority(activity.getPriority());
-        dto.setCreatedAt(activity.getCreatedAt());
-        dto.setUpdatedAt(activity.getUpdatedAt());
-        return dto;
+        return ActivityDTO.fromActivity(activity);
     }
 
     // Méthodes de génération de titres et descriptions
@@ -278,26 +293,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     public List<Activity> getActivitiesInPeriod(LocalDate date1, LocalDate date2) {
-        List<Activity>activityList=new ArrayList<>();
-        for(Activity activity:this.activityRepository.findAll())
-        {
-            if(DateComparisonUtils.isBetweenDateLocalDateTime(activity.getCreatedAt(),date1,date2))
-            {
-                Boolean dja=false;
-                for(Activity activity1:activityList)
-                {
-                    if(activity1.getId()==activity.getId())
-                    {
-                        dja=true;
-                    }
-                }
-                if(!dja)
-                {
-                    activityList.add(activity);
-                }
-            }
-        }
-        return activityList;
+        return activityRepository.findActivitiesBetween(date1.atStartOfDay(), date2.plusDays(1).atStartOfDay());
     }
 
     @Override
@@ -310,12 +306,123 @@ public class ActivityServiceImpl implements ActivityService {
 
     @Override
     public List<ActivityDTO> getRecentActivitiesOfProject(int limit, Long idproject) {
-        return activityRepository.findRecentActivitiesofProject(idproject,limit)
+        // Servi par le cache des dernières activités par projet (une requête seulement au premier accès)
+        return projectRecentActivityCache.recent(idproject, limit)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDto<ActivityDTO> getActivityFeed(String cursor, int size) {
+        KeysetCursor position = decodeCursor(cursor);
+        int limit = feedSize(size);
+        List<Activity> rows = position == null
+                ? activityRepository.findFeedFirst(limit + 1)
+                : activityRepository.findFeedAfter(position.createdAt(), position.id(), limit + 1);
+        return toCursorPage(rows, limit);
+    }
+
+    @Override
+    public CursorPageDto<ActivityDTO> getUserActivityFeed(Long userId, String cursor, int size) {
+        KeysetCursor position = decodeCursor(cursor);
+        int limit = feedSize(size);
+        List<Activity> rows = position == null
+                ? activityRepository.findUserFeedFirst(userId, limit + 1)
+                : activityRepository.findUserFeedAfter(userId, position.createdAt(), position.id(), limit + 1);
+        return toCursorPage(rows, limit);
+    }
+
+    @Override
+    public CursorPageDto<ActivityDTO> getProjectActivityFeed(Long projectId, String cursor, int size) {
+        KeysetCursor position = decodeCursor(cursor);
+        int limit = feedSize(size);
+        List<Activity> rows = position == null
+                ? activityRepository.findProjectFeedFirst(projectId, limit + 1)
+                : activityRepository.findProjectFeedAfter(projectId, position.createdAt(), position.id(), limit + 1);
+        return toCursorPage(rows, limit);
+    }
+
+    @Override
+    public CursorPageDto<ActivityDTO> findByMetadata(Map<String, Object> criteria, String cursor, int size) {
+        if (criteria == null || criteria.isEmpty()) {
+            throw new InvalidActivityDataException("Au moins un critère de metadata est requis");
+        }
+        String json = toJson(criteria);
+        return findByMetadataJson(json, json, cursor, size);
+    }
+
+    @Override
+    public CursorPageDto<ActivityDTO> findByMetadataKey(String key, String value, String cursor, int size) {
+        if (key == null || key.isBlank() || value == null) {
+            throw new InvalidActivityDataException("La clé et la valeur de metadata sont requises");
+        }
+        // La valeur peut avoir été enregistrée en nombre/booléen ou en chaîne : les deux formes sont cherchées
+        String asString = toJson(Map.of(key, value));
+        String typed = asString;
+        if (value.matches("-?\\d+(\\.\\d+)?")) {
+            typed = toJson(Map.of(key, new BigDecimal(value)));
+        } else if (value.equals("true") || value.equals("false")) {
+            typed = toJson(Map.of(key, Boolean.parseBoolean(value)));
+        }
+        return findByMetadataJson(asString, typed, cursor, size);
+    }
+
+    private CursorPageDto<ActivityDTO> findByMetadataJson(String criteria, String alternative, String cursor, int size) {
+        KeysetCursor position = decodeCursor(cursor);
+        int limit = feedSize(size);
+        List<Activity> rows = position == null
+                ? activityRepository.findByMetadataFirst(criteria, alternative, limit + 1)
+                : activityRepository.findByMetadataAfter(criteria, alternative, position.createdAt(), position.id(), limit + 1);
+        return toCursorPage(rows, limit);
+    }
+
+    private String toJson(Map<String, Object> criteria) {
+        try {
+            return objectMapper.writeValueAsString(criteria);
+        } catch (JsonProcessingException e) {
+            throw new InvalidActivityDataException("Critères de metadata invalides");
+        }
+    }
+
+    @Override
+    public List<ActivityDTO> getArchivedUserActivities(Long userId, LocalDate startDate, LocalDate endDate, int limit) {
+        try {
+            return activityArchiver.findUserActivities(userId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(),
+                            Math.max(1, Math.min(limit, MAX_ARCHIVE_READ)))
+                    .stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new ActivityServiceException("Erreur de lecture des archives d'activités", e);
+        }
+    }
+
+    private KeysetCursor decodeCursor(String cursor) {
+        try {
+            return KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidActivityDataException(e.getMessage());
+        }
+    }
+
+    private int feedSize(int size) {
+        return Math.max(1, Math.min(size, MAX_FEED_SIZE));
+    }
+
+    // Une ligne de plus que demandé est lue pour savoir s'il reste une page, sans COUNT
+    private CursorPageDto<ActivityDTO> toCursorPage(List<Activity> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<Activity> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Activity last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<ActivityDTO> items = page.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return new CursorPageDto<>(items, nextCursor, hasMore, items.size());
+    }
+
     // Méthodes de gestion du statut de lecture
     @Override
     public void markAsRead(Long activityId) {
@@ -349,38 +456,32 @@ public class ActivityServiceImpl implements ActivityService {
     // Méthodes statistiques
     @Override
     public Long getTotalActivitiesCount() {
-        return activityRepository.count();
+        return activityStatsCounters.total();
     }
 
+    // Compteurs en mémoire (ActivityStatsCounters), recalés périodiquement sur la base
     @Override
     public Map<String, Long> getActivitiesCountByType() {
-        List<Object[]> results = activityRepository.countActivitiesByType();
-        return results.stream()
-                .collect(Collectors.toMap(
-                        result -> ((ActivityType) result[0]).name(),
-                        result -> (Long) result[1]
-                ));
+        return activityStatsCounters.countsByType();
     }
 
     @Override
     public Map<String, Long> getActivitiesCountByCategory() {
-        List<Object[]> results = activityRepository.countActivitiesByCategory();
-        return results.stream()
-                .collect(Collectors.toMap(
-                        result -> ((ActivityGroup) result[0]).name(),
-                        result -> (Long) result[1]
-                ));
+        return activityStatsCounters.countsByCategory();
     }
 
     // Méthodes de suppression
     @Override
     public void deleteActivity(Long activityId) {
-        if (!activityRepository.existsById(activityId)) {
-            throw new ActivityNotFoundException(activityId);
-        }
+        Activity activity = activityRepository.findById(activityId)
+                .orElseThrow(() -> new ActivityNotFoundException(activityId));
 
         try {
-            activityRepository.deleteById(activityId);
+            activityRepository.delete(activity);
+            TransactionUtils.afterCommit(() -> {
+                activityStatsCounters.decrement(activity.getType(), activity.getCategory());
+                projectRecentActivityCache.evict(activity.getProjectId());
+            });
             log.info("Activity {} deleted", activityId);
         } catch (Exception e) {
             throw new ActivityServiceException("Erreur lors de la suppression de l'activité", e);
@@ -388,10 +489,12 @@ public class ActivityServiceImpl implements ActivityService {
     }
 
     @Override
-    public void deleteOldActivities(int days) {
+    public List<YearMonth> deleteOldActivities(int days) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
-        int deletedCount = activityRepository.deleteByCreatedAtBefore(cutoffDate);
-        log.info("Deleted {} activities older than {} days", deletedCount, days);
+        // Retrait de partitions mensuelles entières plutôt que des suppressions ligne à ligne
+        List<YearMonth> removedMonths = activityPartitionManager.dropPartitionsBefore(cutoffDate);
+        log.info("Removed {} monthly activity partitions older than {} days", removedMonths.size(), days);
+        return removedMonths;
     }
 
     // Méthodes de validation
@@ -0,0 +1,130 @@
+package tunutech.api.services.implementsServices;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tunutech.api.model.ActivityGroup;
+import tunutech.api.model.ActivityType;
+import tunutech.api.repositories.ActivityRepository;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'activités par type et par catégorie tenus en mémoire : initialisés au démarrage
+ * par les requêtes d'agrégation, incrémentés à chaque écriture effective et recalés
+ * périodiquement sur la base. Les lectures ne touchent pas la table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityStatsCounters {
+
+    private final ActivityRepository activityRepository;
+
+    // Une entrée par valeur d'enum, créée d'avance : lectures et incréments sans verrou
+    private final Map<ActivityType, LongAdder> byType = new EnumMap<>(ActivityType.class);
+    private final Map<ActivityGroup, LongAdder> byCategory = new EnumMap<>(ActivityGroup.class);
+
+    @PostConstruct
+    public void init() {
+        for (ActivityType type : ActivityType.values()) {
+            byType.put(type, new LongAdder());
+        }
+        for (ActivityGroup category : ActivityGroup.values()) {
+            byCategory.put(category, new LongAdder());
+        }
+        reconcile();
+    }
+
+    public void increment(ActivityType type, ActivityGroup category) {
+        byType.get(type).increment();
+        byCategory.get(category).increment();
+    }
+
+    public void decrement(ActivityType type, ActivityGroup category) {
+        byType.get(type).decrement();
+        byCategory.get(category).decrement();
+    }
+
+    /**
+     * Recalage sur la base : chaque compteur reçoit l'écart entre la valeur en base et sa valeur
+     * relevée avant la requête, ce qui préserve les incréments survenus pendant la requête. Un incrément
+     * dont la ligne est déjà visible par la requête est compté deux fois jusqu'au recalage suivant.
+     */
+    @Scheduled(fixedDelayString = "${app.activity.stats.reconcile-ms:300000}", initialDelayString = "${app.activity.stats.reconcile-ms:300000}")
+    public void reconcile() {
+        try {
+            Map<ActivityType, Long> typesBefore = snapshot(byType);
+            Map<ActivityGroup, Long> categoriesBefore = snapshot(byCategory);
+            Map<ActivityType, Long> typesInDb = toCounts(activityRepository.countActivitiesByType(), ActivityType.class);
+            Map<ActivityGroup, Long> categoriesInDb = toCounts(activityRepository.countActivitiesByCategory(), ActivityGroup.class);
+
+            long drift = adjust(byType, typesBefore, typesInDb) + adjust(byCategory, categoriesBefore, categoriesInDb);
+            if (drift != 0) {
+                log.info("Compteurs d'activités recalés (écart absolu {})", drift);
+            }
+        } catch (Exception e) {
+            log.error("Recalage des compteurs d'activités impossible: {}", e.getMessage());
+        }
+    }
+
+    public long total() {
+        long total = 0;
+        for (LongAdder adder : byType.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    public Map<String, Long> countsByType() {
+        return toNamedCounts(byType);
+    }
+
+    public Map<String, Long> countsByCategory() {
+        return toNamedCounts(byCategory);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> snapshot(Map<E, LongAdder> counters) {
+        Map<E, Long> values = new LinkedHashMap<>();
+        counters.forEach((key, adder) -> values.put(key, adder.sum()));
+        return values;
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> toCounts(List<Object[]> rows, Class<E> keyType) {
+        Map<E, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            counts.put(keyType.cast(row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private static <E extends Enum<E>> long adjust(Map<E, LongAdder> counters, Map<E, Long> before, Map<E, Long> inDb) {
+        long drift = 0;
+        for (Map.Entry<E, LongAdder> entry : counters.entrySet()) {
+            long delta = inDb.getOrDefault(entry.getKey(), 0L) - before.get(entry.getKey());
+            if (delta != 0) {
+                entry.getValue().add(delta);
+                drift += Math.abs(delta);
+            }
+        }
+        return drift;
+    }
+
+    // Même forme que l'ancienne réponse GROUP BY : seules les valeurs présentes sont listées
+    private static <E extends Enum<E>> Map<String, Long> toNamedCounts(Map<E, LongAdder> counters) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counters.forEach((key, adder) -> {
+            long value = adder.sum();
+            if (value > 0) {
+                counts.put(key.name(), value);
+            }
+        });
+        return counts;
+    }
+}
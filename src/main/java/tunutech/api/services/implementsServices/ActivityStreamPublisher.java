@@ -0,0 +1,210 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import tunutech.api.dtos.ActivityDTO;
+import tunutech.api.dtos.ActivityStreamFrameDto;
+import tunutech.api.model.Activity;
+import tunutech.api.model.ActivityGroup;
+import tunutech.api.model.ActivityType;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Flux d'activités en direct pour les administrateurs. Le client s'abonne à /user/queue/activities
+ * avec des en-têtes STOMP optionnels types, categories, userIds, projectIds (valeurs séparées par des virgules) ;
+ * une valeur invalide fait refuser l'abonnement (trame ERROR, voir WebSocketAuthInterceptor).
+ * Chaque activité écrite est évaluée une fois contre les filtres de chaque abonné puis déposée dans
+ * son tampon borné ; un tampon plein écarte les plus anciennes (comptées dans la trame suivante)
+ * sans jamais bloquer le writer. Les tampons sont vidés périodiquement, une trame par abonné.
+ */
+@Slf4j
+@Component
+public class ActivityStreamPublisher {
+
+    public static final String DESTINATION = "/queue/activities";
+    public static final String SUBSCRIBE_DESTINATION = "/user" + DESTINATION;
+
+    /**
+     * Filtres d'un abonné ; un ensemble vide accepte toutes les valeurs
+     */
+    record Filter(Set<ActivityType> types, Set<ActivityGroup> categories, Set<Long> userIds, Set<Long> projectIds) {
+        boolean matches(Activity activity) {
+            return (types.isEmpty() || types.contains(activity.getType()))
+                    && (categories.isEmpty() || categories.contains(activity.getCategory()))
+                    && (userIds.isEmpty() || userIds.contains(activity.getUserId()))
+                    && (projectIds.isEmpty() || (activity.getProjectId() != null && projectIds.contains(activity.getProjectId())));
+        }
+    }
+
+    private static final class Subscriber {
+        private final String sessionId;
+        private final String subscriptionId;
+        private final Filter filter;
+        private final ArrayBlockingQueue<Activity> buffer;
+        private final AtomicLong dropped = new AtomicLong();
+
+        Subscriber(String sessionId, String subscriptionId, Filter filter, int capacity) {
+            this.sessionId = sessionId;
+            this.subscriptionId = subscriptionId;
+            this.filter = filter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        // Non bloquant : la plus ancienne activité en attente cède sa place
+        void offer(Activity activity) {
+            while (!buffer.offer(activity)) {
+                if (buffer.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int bufferCapacity;
+
+    // Un abonnement (et donc un jeu de filtres) par session WebSocket
+    private final ConcurrentHashMap<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    public ActivityStreamPublisher(SimpMessagingTemplate messagingTemplate,
+                                   @Value("${app.activity.stream.buffer-capacity:200}") int bufferCapacity) {
+        this.messagingTemplate = messagingTemplate;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Appelé par le writer après chaque écriture effective
+     */
+    public void publish(Activity activity) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.filter.matches(activity)) {
+                subscriber.offer(activity);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.activity.stream.flush-ms:500}")
+    public void flush() {
+        for (Subscriber subscriber : subscribers.values()) {
+            List<Activity> pending = new ArrayList<>(subscriber.buffer.size());
+            subscriber.buffer.drainTo(pending);
+            long dropped = subscriber.dropped.getAndSet(0);
+            if (pending.isEmpty() && dropped == 0) {
+                continue;
+            }
+            List<ActivityDTO> activities = pending.stream().map(ActivityDTO::fromActivity).toList();
+            try {
+                messagingTemplate.convertAndSendToUser(subscriber.sessionId, DESTINATION,
+                        new ActivityStreamFrameDto(activities, dropped), sessionHeaders(subscriber.sessionId));
+            } catch (Exception e) {
+                log.warn("Envoi du flux d'activités à la session {} impossible: {}", subscriber.sessionId, e.getMessage());
+            }
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (!SUBSCRIBE_DESTINATION.equals(accessor.getDestination()) || accessor.getSessionId() == null) {
+            return;
+        }
+        Filter filter;
+        try {
+            filter = parseFilter(accessor);
+        } catch (IllegalArgumentException e) {
+            // Normalement refusé en amont : sans filtre valide, la session ne reçoit rien
+            log.warn("Flux d'activités : abonnement de la session {} ignoré ({})", accessor.getSessionId(), e.getMessage());
+            return;
+        }
+        subscribers.put(accessor.getSessionId(),
+                new Subscriber(accessor.getSessionId(), accessor.getSubscriptionId(), filter, bufferCapacity));
+        log.info("Flux d'activités : abonnement de la session {} ({})", accessor.getSessionId(), filter);
+    }
+
+    /**
+     * Vérifie les en-têtes de filtre d'un SUBSCRIBE avant qu'il ne soit accepté
+     *
+     * @throws IllegalArgumentException si une valeur de filtre est invalide
+     */
+    public static void validateFilter(StompHeaderAccessor accessor) {
+        parseFilter(accessor);
+    }
+
+    static Filter parseFilter(StompHeaderAccessor accessor) {
+        return new Filter(
+                parse("types", accessor.getFirstNativeHeader("types"), ActivityType::valueOf),
+                parse("categories", accessor.getFirstNativeHeader("categories"), ActivityGroup::valueOf),
+                parse("userIds", accessor.getFirstNativeHeader("userIds"), Long::valueOf),
+                parse("projectIds", accessor.getFirstNativeHeader("projectIds"), Long::valueOf));
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Subscriber subscriber = accessor.getSessionId() != null ? subscribers.get(accessor.getSessionId()) : null;
+        if (subscriber != null && Objects.equals(subscriber.subscriptionId, accessor.getSubscriptionId())) {
+            subscribers.remove(accessor.getSessionId(), subscriber);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        subscribers.remove(event.getSessionId());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("buffered", subscribers.values().stream().mapToInt(s -> s.buffer.size()).sum());
+        return stats;
+    }
+
+    // Un ensemble vide signifie « pas de filtre » : une valeur invalide est donc refusée plutôt qu'ignorée
+    private static <T> Set<T> parse(String name, String header, Function<String, T> parser) {
+        if (header == null || header.isBlank()) {
+            return Set.of();
+        }
+        Set<T> values = new HashSet<>();
+        for (String raw : header.split(",")) {
+            String value = raw.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                values.add(parser.apply(value));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Filtre de flux d'activités invalide : " + name + "=" + value);
+            }
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Filtre de flux d'activités vide : " + name);
+        }
+        return values;
+    }
+
+    // Adressage à la session précise (et non à toutes les sessions de l'utilisateur)
+    private static Map<String, Object> sessionHeaders(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+}
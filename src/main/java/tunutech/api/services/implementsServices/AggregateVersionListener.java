@@ -0,0 +1,47 @@
+package tunutech.api.services.implementsServices;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import tunutech.api.model.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listener JPA des entités dont dépendent les réponses versionnées : toute écriture incrémente
+ * la version des agrégats concernés (une langue apparaît aussi dans les projets et les traducteurs...)
+ */
+@Component
+public class AggregateVersionListener {
+
+    private static final Map<Class<?>, List<AggregateType>> AGGREGATES = Map.ofEntries(
+            Map.entry(Project.class, List.of(AggregateType.PROJECT)),
+            Map.entry(Client.class, List.of(AggregateType.PROJECT)),
+            Map.entry(Contrat.class, List.of(AggregateType.PROJECT)),
+            Map.entry(Document.class, List.of(AggregateType.PROJECT)),
+            Map.entry(ProjetLangueSource.class, List.of(AggregateType.PROJECT)),
+            Map.entry(ProjetLangueCible.class, List.of(AggregateType.PROJECT)),
+            Map.entry(ProjetTraducteur.class, List.of(AggregateType.PROJECT, AggregateType.TRADUCTEUR)),
+            Map.entry(Traducteur.class, List.of(AggregateType.TRADUCTEUR, AggregateType.PROJECT)),
+            Map.entry(TraducteurLangue.class, List.of(AggregateType.TRADUCTEUR)),
+            Map.entry(User.class, List.of(AggregateType.TRADUCTEUR)),
+            Map.entry(Langue.class, List.of(AggregateType.LANGUE, AggregateType.PROJECT, AggregateType.TRADUCTEUR)),
+            Map.entry(Tarif.class, List.of(AggregateType.TARIF)));
+
+    private final AggregateVersions aggregateVersions;
+
+    public AggregateVersionListener(AggregateVersions aggregateVersions) {
+        this.aggregateVersions = aggregateVersions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        for (AggregateType type : AGGREGATES.getOrDefault(entity.getClass(), List.of())) {
+            aggregateVersions.bump(type);
+        }
+    }
+}
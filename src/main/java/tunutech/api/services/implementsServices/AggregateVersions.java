@@ -0,0 +1,78 @@
+package tunutech.api.services.implementsServices;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import tunutech.api.Utils.TransactionUtils;
+import tunutech.api.model.AggregateType;
+
+import java.security.Principal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Compteurs de version en mémoire par agrégat, incrémentés après le commit de chaque écriture.
+ * Un ETag construit sur ces versions permet de répondre 304 à un If-None-Match sans exécuter les
+ * requêtes ni le mapping. L'époque de démarrage fait partie de l'ETag : un redémarrage invalide tout.
+ */
+@Component
+public class AggregateVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<AggregateType, AtomicLong> versions = new EnumMap<>(AggregateType.class);
+
+    public AggregateVersions() {
+        for (AggregateType type : AggregateType.values()) {
+            versions.put(type, new AtomicLong());
+        }
+    }
+
+    public long current(AggregateType type) {
+        return versions.get(type).get();
+    }
+
+    /**
+     * Après commit : une lecture concurrente ne peut pas associer l'ancienne donnée à la nouvelle version
+     */
+    public void bump(AggregateType type) {
+        TransactionUtils.afterCommit(() -> versions.get(type).incrementAndGet());
+    }
+
+    /**
+     * ETag fort de la ressource : versions des agrégats dont elle dépend, paramètres de la requête
+     * (fields, filtres, curseur...) et utilisateur connecté. A calculer avant toute lecture en base.
+     */
+    public String etag(WebRequest request, AggregateType... types) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (AggregateType type : types) {
+            etag.append('-').append(type.name().toLowerCase()).append(current(type));
+        }
+        StringBuilder variant = new StringBuilder();
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+                variant.append(name).append('=').append(String.join(",", values)).append('&'));
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            variant.append('@').append(principal.getName());
+        }
+        if (variant.length() > 0) {
+            etag.append('-').append(Integer.toHexString(variant.toString().hashCode()));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * GET conditionnel : 304 sans corps si l'If-None-Match correspond encore, sinon 200 avec l'ETag.
+     * Le corps n'est calculé qu'en cas de 200, l'ETag étant figé avant la lecture en base.
+     */
+    public <T> ResponseEntity<T> conditional(WebRequest request, Supplier<? extends T> body, AggregateType... types) {
+        String etag = etag(request, types);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body.get());
+    }
+}
@@ -0,0 +1,103 @@
+package tunutech.api.services.implementsServices;
+
+import java.time.LocalDate;
+
+/**
+ * Compteurs analytiques d'une période, rangés dans des tableaux primitifs indexés par
+ * le décalage en jours (epoch-day) depuis le début de la période.
+ * Chaque ligne est rangée en O(1) : le coût ne dépend que du nombre de lignes, pas de la durée.
+ */
+final class AnalyticsDayBuckets {
+
+    private final LocalDate startDate;
+    private final long startEpochDay;
+    private final int days;
+    private final int maxLanguesParJour;
+
+    private final int[] projetsCrees;
+    private final int[] projetsTermines;
+    private final long[] motsTraduits;
+    private final int[] nouveauxClients;
+    private final int[] utilisateursActifs;
+    private final String[] languesUtilisees;
+    private final int[] nbLangues;
+
+    AnalyticsDayBuckets(LocalDate startDate, LocalDate endDate, int maxLanguesParJour) {
+        this.startDate = startDate;
+        this.startEpochDay = startDate.toEpochDay();
+        this.days = Math.toIntExact(endDate.toEpochDay() - startEpochDay + 1);
+        this.maxLanguesParJour = maxLanguesParJour;
+        this.projetsCrees = new int[days];
+        this.projetsTermines = new int[days];
+        this.motsTraduits = new long[days];
+        this.nouveauxClients = new int[days];
+        this.utilisateursActifs = new int[days];
+        this.languesUtilisees = new String[days];
+        this.nbLangues = new int[days];
+    }
+
+    /**
+     * Index du jour dans les tableaux, -1 s'il est hors période
+     */
+    int indexOf(LocalDate day) {
+        if (day == null) {
+            return -1;
+        }
+        long offset = day.toEpochDay() - startEpochDay;
+        return offset >= 0 && offset < days ? (int) offset : -1;
+    }
+
+    void add(LocalDate day, int crees, int termines, long mots, int clients, int actifs) {
+        int index = indexOf(day);
+        if (index < 0) {
+            return;
+        }
+        projetsCrees[index] += crees;
+        projetsTermines[index] += termines;
+        motsTraduits[index] += mots;
+        nouveauxClients[index] += clients;
+        utilisateursActifs[index] += actifs;
+    }
+
+    /**
+     * Ajoute une langue au jour, dans l'ordre d'arrivée, jusqu'à maxLanguesParJour
+     */
+    void addLangue(LocalDate day, String code) {
+        int index = indexOf(day);
+        if (index < 0 || nbLangues[index] >= maxLanguesParJour) {
+            return;
+        }
+        languesUtilisees[index] = nbLangues[index] == 0 ? code : languesUtilisees[index] + "-" + code;
+        nbLangues[index]++;
+    }
+
+    int size() { return days; }
+    LocalDate dayAt(int index) { return startDate.plusDays(index); }
+
+    int projetsCrees(int index) { return projetsCrees[index]; }
+    int projetsTermines(int index) { return projetsTermines[index]; }
+    long motsTraduits(int index) { return motsTraduits[index]; }
+    int nouveauxClients(int index) { return nouveauxClients[index]; }
+    int utilisateursActifs(int index) { return utilisateursActifs[index]; }
+    String languesUtilisees(int index) { return languesUtilisees[index] != null ? languesUtilisees[index] : ""; }
+
+    int totalProjetsCrees() { return sum(projetsCrees); }
+    int totalProjetsTermines() { return sum(projetsTermines); }
+    int totalNouveauxClients() { return sum(nouveauxClients); }
+
+    long totalMotsTraduits() {
+        long total = 0;
+        for (long value : motsTraduits) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
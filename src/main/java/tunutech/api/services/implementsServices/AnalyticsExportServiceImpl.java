@@ -0,0 +1,179 @@
+package tunutech.api.services.implementsServices;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tunutech.api.Utils.DateComparisonUtils;
+import tunutech.api.model.AnalyticsDaily;
+import tunutech.api.repositories.AnalyticsDailyLangueRepository;
+import tunutech.api.repositories.AnalyticsDailyRepository;
+import tunutech.api.services.AnalyticsExportService;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsExportServiceImpl implements AnalyticsExportService {
+
+    private static final String CSV_HEADER = "date,projetsCrees,projetsTermines,motsTraduits,nouveauxClients,utilisateursActifs,langues";
+
+    private final AnalyticsDailyRepository analyticsDailyRepository;
+    private final AnalyticsDailyLangueRepository analyticsDailyLangueRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    // Pas de séparateur implicite entre objets racine : chaque objet est suivi d'un saut de ligne
+    private final JsonFactory jsonFactory = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+
+    @Override
+    public void exportDailySeries(LocalDate startDate, LocalDate endDate, String format, OutputStream outputStream) throws IOException {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("La date de début doit être avant la date de fin");
+        }
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Format d'export invalide: " + format + " (csv ou ndjson)");
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 16 * 1024);
+        DailyRowWriter rowWriter = csv ? new CsvRowWriter(writer) : new NdjsonRowWriter(jsonFactory.createGenerator(writer), writer);
+
+        // Les curseurs JDBC ne sont ouverts que dans une transaction (autocommit désactivé) : lecture seule
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<AnalyticsDaily> dailies = analyticsDailyRepository.streamByJourBetween(startDate, endDate);
+                 Stream<Object[]> usages = analyticsDailyLangueRepository.streamUsagesBetween(startDate, endDate)) {
+                writeSeries(startDate, endDate, dailies.iterator(), usages.iterator(), rowWriter);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        rowWriter.finish();
+        writer.flush();
+    }
+
+    /**
+     * Fusionne les deux curseurs triés par jour et complète les jours sans activité par des zéros
+     */
+    private void writeSeries(LocalDate startDate, LocalDate endDate, Iterator<AnalyticsDaily> dailies,
+                             Iterator<Object[]> usages, DailyRowWriter rowWriter) throws IOException {
+        rowWriter.start();
+        AnalyticsDaily nextDaily = dailies.hasNext() ? dailies.next() : null;
+        Object[] nextUsage = usages.hasNext() ? usages.next() : null;
+        StringBuilder langues = new StringBuilder();
+        long rows = 0;
+
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            langues.setLength(0);
+            while (nextUsage != null && !DateComparisonUtils.toLocalDateFromSql(nextUsage[0]).isAfter(day)) {
+                if (DateComparisonUtils.toLocalDateFromSql(nextUsage[0]).isEqual(day)) {
+                    if (langues.length() > 0) {
+                        langues.append('-');
+                    }
+                    langues.append((String) nextUsage[1]);
+                }
+                nextUsage = usages.hasNext() ? usages.next() : null;
+            }
+
+            if (nextDaily != null && nextDaily.getJour().isEqual(day)) {
+                rowWriter.write(day, nextDaily.getProjetsCrees(), nextDaily.getProjetsTermines(), nextDaily.getMotsTraduits(),
+                        nextDaily.getNouveauxClients(), nextDaily.getUtilisateursActifs(), langues);
+                // Détacher l'entité pour garder un contexte de persistance de taille constante
+                entityManager.detach(nextDaily);
+                nextDaily = dailies.hasNext() ? dailies.next() : null;
+            } else {
+                rowWriter.write(day, 0, 0, 0L, 0, 0, langues);
+            }
+            rows++;
+        }
+        log.info("Export analytique du {} au {} : {} lignes", startDate, endDate, rows);
+    }
+
+    private interface DailyRowWriter {
+        default void start() throws IOException {
+        }
+
+        void write(LocalDate day, int projetsCrees, int projetsTermines, long motsTraduits,
+                   int nouveauxClients, int utilisateursActifs, CharSequence langues) throws IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static class CsvRowWriter implements DailyRowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(LocalDate day, int projetsCrees, int projetsTermines, long motsTraduits,
+                          int nouveauxClients, int utilisateursActifs, CharSequence langues) throws IOException {
+            writer.write(day.toString());
+            writer.write(',');
+            writer.write(Integer.toString(projetsCrees));
+            writer.write(',');
+            writer.write(Integer.toString(projetsTermines));
+            writer.write(',');
+            writer.write(Long.toString(motsTraduits));
+            writer.write(',');
+            writer.write(Integer.toString(nouveauxClients));
+            writer.write(',');
+            writer.write(Integer.toString(utilisateursActifs));
+            writer.write(',');
+            writer.append(langues);
+            writer.write('\n');
+        }
+    }
+
+    private static class NdjsonRowWriter implements DailyRowWriter {
+        private final JsonGenerator generator;
+        private final Writer writer;
+
+        NdjsonRowWriter(JsonGenerator generator, Writer writer) {
+            this.generator = generator;
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(LocalDate day, int projetsCrees, int projetsTermines, long motsTraduits,
+                          int nouveauxClients, int utilisateursActifs, CharSequence langues) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("date", day.toString());
+            generator.writeNumberField("projetsCrees", projetsCrees);
+            generator.writeNumberField("projetsTermines", projetsTermines);
+            generator.writeNumberField("motsTraduits", motsTraduits);
+            generator.writeNumberField("nouveauxClients", nouveauxClients);
+            generator.writeNumberField("utilisateursActifs", utilisateursActifs);
+            generator.writeStringField("langues", langues.toString());
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
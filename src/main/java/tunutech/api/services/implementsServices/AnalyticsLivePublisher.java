@@ -0,0 +1,124 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tunutech.api.Utils.TransactionUtils;
+import tunutech.api.dtos.AnalyticsDeltaDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accumule les variations du rollup par jour et les pousse sur /topic/analytics,
+ * regroupées en au plus une trame (liste de AnalyticsDeltaDto) par seconde.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalyticsLivePublisher {
+
+    public static final String DESTINATION = "/topic/analytics";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // Toutes les lectures/écritures passent par compute/remove : le verrou de la clé protège les compteurs
+    private final ConcurrentHashMap<LocalDate, DayDelta> pending = new ConcurrentHashMap<>();
+    private final List<AnalyticsDeltaDto> pendingResyncs = new ArrayList<>();
+
+    public void recordCounters(LocalDate day, int projetsCrees, int projetsTermines, long motsTraduits,
+                               int nouveauxClients, int utilisateursActifs) {
+        TransactionUtils.afterCommit(() -> pending.compute(day, (key, delta) -> {
+            DayDelta d = delta != null ? delta : new DayDelta();
+            d.projetsCrees += projetsCrees;
+            d.projetsTermines += projetsTermines;
+            d.motsTraduits += motsTraduits;
+            d.nouveauxClients += nouveauxClients;
+            d.utilisateursActifs += utilisateursActifs;
+            return d;
+        }));
+    }
+
+    public void recordLangue(LocalDate day, Long idlangue, int usages) {
+        TransactionUtils.afterCommit(() -> pending.compute(day, (key, delta) -> {
+            DayDelta d = delta != null ? delta : new DayDelta();
+            d.langues.merge(idlangue, usages, Integer::sum);
+            return d;
+        }));
+    }
+
+    public void recordResync(LocalDate startDate, LocalDate endDate) {
+        TransactionUtils.afterCommit(() -> {
+            AnalyticsDeltaDto resync = new AnalyticsDeltaDto();
+            resync.setType(AnalyticsDeltaDto.DeltaType.RESYNC);
+            resync.setDateDebut(startDate);
+            resync.setDateFin(endDate);
+            synchronized (pendingResyncs) {
+                pendingResyncs.add(resync);
+            }
+        });
+    }
+
+    @Scheduled(fixedRateString = "${app.analytics.live.flush-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty() && pendingResyncs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<AnalyticsDeltaDto> messages = new ArrayList<>();
+        synchronized (pendingResyncs) {
+            messages.addAll(pendingResyncs);
+            pendingResyncs.clear();
+        }
+        for (LocalDate day : new ArrayList<>(pending.keySet())) {
+            DayDelta delta = pending.remove(day);
+            if (delta != null && !delta.isEmpty()) {
+                messages.add(delta.toDto(day));
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        messages.forEach(message -> message.setEmisLe(now));
+        try {
+            // Une seule trame par intervalle, contenant toutes les variations accumulées
+            messagingTemplate.convertAndSend(DESTINATION, messages);
+        } catch (Exception e) {
+            log.error("Erreur envoi des variations analytiques: {}", e.getMessage());
+        }
+    }
+
+    private static class DayDelta {
+        private int projetsCrees;
+        private int projetsTermines;
+        private long motsTraduits;
+        private int nouveauxClients;
+        private int utilisateursActifs;
+        private final Map<Long, Integer> langues = new HashMap<>();
+
+        boolean isEmpty() {
+            langues.values().removeIf(v -> v == 0);
+            return projetsCrees == 0 && projetsTermines == 0 && motsTraduits == 0
+                    && nouveauxClients == 0 && utilisateursActifs == 0 && langues.isEmpty();
+        }
+
+        AnalyticsDeltaDto toDto(LocalDate day) {
+            AnalyticsDeltaDto dto = new AnalyticsDeltaDto();
+            dto.setJour(day);
+            dto.setProjetsCrees(projetsCrees);
+            dto.setProjetsTermines(projetsTermines);
+            dto.setMotsTraduits(motsTraduits);
+            dto.setNouveauxClients(nouveauxClients);
+            dto.setUtilisateursActifs(utilisateursActifs);
+            dto.setLangues(langues);
+            return dto;
+        }
+    }
+}
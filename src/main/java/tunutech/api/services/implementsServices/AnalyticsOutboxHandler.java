@@ -0,0 +1,42 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tunutech.api.model.ActivityType;
+import tunutech.api.model.OutboxEvent;
+import tunutech.api.model.OutboxEventType;
+import tunutech.api.repositories.ProjectRepository;
+import tunutech.api.services.AnalyticsRollupService;
+import tunutech.api.services.OutboxEventHandler;
+
+/**
+ * Agrégats analytiques : création et clôture de projet, relues depuis l'état commité du projet
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyticsOutboxHandler implements OutboxEventHandler {
+
+    private final AnalyticsRollupService analyticsRollupService;
+    private final ProjectRepository projectRepository;
+
+    @Override
+    public boolean supports(OutboxEvent event) {
+        if (event.getEventType() != OutboxEventType.PROJECT_ACTIVITY) {
+            return false;
+        }
+        Object type = event.getPayload().get("activityType");
+        return ActivityType.PROJECT_CREATED.name().equals(type) || ActivityType.PROJECT_COMPLETED.name().equals(type);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        // Projet supprimé depuis : rien à agréger
+        projectRepository.findById(event.getAggregateId()).ifPresent(project -> {
+            if (ActivityType.PROJECT_CREATED.name().equals(event.getPayload().get("activityType"))) {
+                analyticsRollupService.recordProjectCreated(project);
+            } else {
+                analyticsRollupService.recordProjectCompleted(project);
+            }
+        });
+    }
+}
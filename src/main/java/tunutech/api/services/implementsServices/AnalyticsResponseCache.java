@@ -0,0 +1,163 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tunutech.api.Utils.TransactionUtils;
+import tunutech.api.dtos.AnalyticsResponseDto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cache des réponses analytiques, clé (période, début, fin).
+ * TTL court pour "24h", invalidation des entrées couvrant un jour modifié par une écriture.
+ * Chaque invalidation incrémente une génération : un calcul commencé avant l'invalidation
+ * (génération lue par {@link #generation()}) n'est pas remis en cache à la fin.
+ */
+@Slf4j
+@Component
+public class AnalyticsResponseCache {
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+    // Vérification de génération + put (lecture) exclusives de l'invalidation (écriture)
+    private final ReentrantReadWriteLock generationLock = new ReentrantReadWriteLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Value("${app.analytics.cache.ttl-24h:30s}")
+    private Duration ttl24h;
+
+    @Value("${app.analytics.cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${app.analytics.cache.max-entries:256}")
+    private int maxEntries;
+
+    public AnalyticsResponseDto get(String period, LocalDate startDate, LocalDate endDate) {
+        Key key = new Key(period, startDate, endDate);
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired(System.nanoTime())) {
+            if (entry != null) {
+                entries.remove(key, entry);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.response;
+    }
+
+    /**
+     * Génération courante, à lire avant de lancer le calcul d'une réponse à mettre en cache
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Met la réponse en cache sauf si une invalidation a eu lieu depuis computedAtGeneration
+     */
+    public void put(String period, LocalDate startDate, LocalDate endDate, AnalyticsResponseDto response, long computedAtGeneration) {
+        // Les réponses en erreur ne sont jamais mises en cache
+        if (response == null || !Boolean.TRUE.equals(response.getSuccess())) {
+            return;
+        }
+        Duration entryTtl = "24h".equals(period) ? ttl24h : ttl;
+        generationLock.readLock().lock();
+        try {
+            if (generation.get() != computedAtGeneration) {
+                return;
+            }
+            entries.put(new Key(period, startDate, endDate), new Entry(response, System.nanoTime() + entryTtl.toNanos()));
+        } finally {
+            generationLock.readLock().unlock();
+        }
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * Invalide les entrées dont la période couvre ce jour, après commit si une transaction est active
+     */
+    public void invalidate(LocalDate day) {
+        invalidate(day, day);
+    }
+
+    public void invalidate(LocalDate startDate, LocalDate endDate) {
+        TransactionUtils.afterCommit(() -> removeOverlapping(startDate, endDate));
+    }
+
+    public void clear() {
+        generationLock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            entries.clear();
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        stats.put("invalidations", invalidations.sum());
+        stats.put("size", entries.size());
+        stats.put("ttl24h", ttl24h.toString());
+        stats.put("ttl", ttl.toString());
+        return stats;
+    }
+
+    private void removeOverlapping(LocalDate startDate, LocalDate endDate) {
+        generationLock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            entries.keySet().removeIf(key -> {
+                boolean overlaps = !key.startDate.isAfter(endDate) && !key.endDate.isBefore(startDate);
+                if (overlaps) {
+                    invalidations.increment();
+                }
+                return overlaps;
+            });
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(e -> e.getValue().isExpired(now));
+        while (entries.size() > maxEntries) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().expiresAt))
+                    .ifPresent(e -> entries.remove(e.getKey(), e.getValue()));
+        }
+        log.debug("Cache analytique purgé, {} entrées restantes", entries.size());
+    }
+
+    private record Key(String period, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record Entry(AnalyticsResponseDto response, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
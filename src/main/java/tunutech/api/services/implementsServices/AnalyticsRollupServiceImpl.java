@@ -0,0 +1,159 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tunutech.api.Utils.DateComparisonUtils;
+import tunutech.api.Utils.HyperLogLog;
+import tunutech.api.model.Client;
+import tunutech.api.model.Project;
+import tunutech.api.model.RoleUser;
+import tunutech.api.repositories.AnalyticsDailyLangueRepository;
+import tunutech.api.repositories.AnalyticsDailyRepository;
+import tunutech.api.services.AnalyticsRollupService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AnalyticsRollupServiceImpl implements AnalyticsRollupService {
+
+    private final AnalyticsDailyRepository analyticsDailyRepository;
+    private final AnalyticsDailyLangueRepository analyticsDailyLangueRepository;
+    private final ActiveUsersSketchStore activeUsersSketchStore;
+    private final AnalyticsResponseCache analyticsResponseCache;
+    private final AnalyticsLivePublisher analyticsLivePublisher;
+
+    @Override
+    public void recordProjectCreated(Project project) {
+        LocalDate day = dayOf(project);
+        analyticsDailyRepository.increment(day, 1, 0, 0L, 0, 0);
+        analyticsResponseCache.invalidate(day);
+        analyticsLivePublisher.recordCounters(day, 1, 0, 0L, 0, 0);
+    }
+
+    @Override
+    public void recordProjectCompleted(Project project) {
+        LocalDate day = project.getEnd_At() != null ? project.getEnd_At().toLocalDate() : LocalDate.now();
+        long words = project.getWordscount() != null ? Math.round(project.getWordscount()) : 0L;
+        analyticsDailyRepository.increment(day, 0, 1, words, 0, 0);
+        analyticsResponseCache.invalidate(day);
+        analyticsLivePublisher.recordCounters(day, 0, 1, words, 0, 0);
+    }
+
+    @Override
+    public void recordClientCreated(Client client) {
+        LocalDate day = client.getCreated_At() != null ? DateComparisonUtils.toLocalDate(client.getCreated_At()) : LocalDate.now();
+        analyticsDailyRepository.increment(day, 0, 0, 0L, 1, 0);
+        analyticsResponseCache.invalidate(day);
+        analyticsLivePublisher.recordCounters(day, 0, 0, 0L, 1, 0);
+    }
+
+    @Override
+    public void recordActivity(Long userId, RoleUser userRole, LocalDateTime createdAt) {
+        if (userId == null || userRole != RoleUser.CLIENT) {
+            return;
+        }
+        // Pas d'écriture par activité : le sketch du jour est fusionné en base périodiquement
+        LocalDate day = createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+        activeUsersSketchStore.record(day, userId);
+    }
+
+    @Override
+    public void recordLangueUsage(Project project, Long idlangue, int delta) {
+        LocalDate day = dayOf(project);
+        analyticsDailyLangueRepository.increment(day, idlangue, delta);
+        analyticsResponseCache.invalidate(day);
+        analyticsLivePublisher.recordLangue(day, idlangue, delta);
+    }
+
+    @Override
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate;
+        if (start == null) {
+            LocalDate firstDay = DateComparisonUtils.toLocalDateFromSql(analyticsDailyRepository.findFirstHistoryDate());
+            start = firstDay != null ? firstDay : end;
+        }
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("La date de début doit être avant la date de fin");
+        }
+
+        LocalDateTime from = start.atStartOfDay();
+        LocalDateTime to = end.plusDays(1).atStartOfDay();
+
+        analyticsDailyRepository.deleteByJourBetween(start, end);
+        analyticsDailyLangueRepository.deleteByJourBetween(start, end);
+
+        analyticsDailyRepository.rebuildBetween(from, to);
+        analyticsDailyLangueRepository.rebuildBetween(from, to);
+        rebuildSketches(from, to);
+
+        analyticsResponseCache.invalidate(start, end);
+        analyticsLivePublisher.recordResync(start, end);
+
+        int days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+        log.info("Rollup analytique recalculé du {} au {} ({} jours)", start, end, days);
+        return days;
+    }
+
+    /**
+     * Au premier démarrage (table vide), initialise le rollup depuis l'historique existant ;
+     * complète aussi les sketches des jours comptés avant leur introduction
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        if (analyticsDailyRepository.count() == 0) {
+            log.info("Rollup analytique vide : reconstruction depuis l'historique");
+            rebuild(null, null);
+            return;
+        }
+        LocalDate firstDayWithoutSketch = analyticsDailyRepository.findFirstDayWithoutSketch();
+        if (firstDayWithoutSketch != null) {
+            log.info("Sketches des utilisateurs actifs manquants depuis le {} : reconstruction", firstDayWithoutSketch);
+            rebuildSketches(firstDayWithoutSketch.atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay());
+        }
+    }
+
+    /**
+     * Reconstruit un sketch par jour depuis les activités (un seul parcours trié par jour)
+     */
+    private void rebuildSketches(LocalDateTime from, LocalDateTime to) {
+        try (Stream<Object[]> rows = analyticsDailyRepository.streamActiveClientsBetween(from, to)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            LocalDate currentDay = null;
+            HyperLogLog sketch = null;
+            int distinct = 0;
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                LocalDate day = DateComparisonUtils.toLocalDateFromSql(row[0]);
+                if (!day.equals(currentDay)) {
+                    if (currentDay != null) {
+                        analyticsDailyRepository.updateSketch(currentDay, sketch.toBytes(), distinct);
+                    }
+                    currentDay = day;
+                    sketch = new HyperLogLog();
+                    distinct = 0;
+                }
+                sketch.add(((Number) row[1]).longValue());
+                distinct++;
+            }
+            if (currentDay != null) {
+                analyticsDailyRepository.updateSketch(currentDay, sketch.toBytes(), distinct);
+            }
+        }
+    }
+
+    private LocalDate dayOf(Project project) {
+        return project.getCreatedAt() != null ? DateComparisonUtils.toLocalDate(project.getCreatedAt()) : LocalDate.now();
+    }
+}
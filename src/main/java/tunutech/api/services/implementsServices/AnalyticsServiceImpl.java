@@ -2,37 +2,69 @@ package tunutech.api.services.implementsServices;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import tunutech.api.Utils.DateComparisonUtils;
 import tunutech.api.dtos.*;
 import tunutech.api.model.*;
+import tunutech.api.repositories.AnalyticsDailyLangueRepository;
+import tunutech.api.repositories.AnalyticsDailyRepository;
 import tunutech.api.services.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Random;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AnalyticsServiceImpl implements AnalyticsService {
 
+    private static final int MAX_LANGUES_PAR_JOUR = 3;
+
     @Autowired
-    private ProjetService projetService;
+    private LangueService langueService;
 
     @Autowired
-    private ClientService clientService;
+    private AnalyticsDailyRepository analyticsDailyRepository;
 
     @Autowired
-    private ActivityService activityService;
+    private AnalyticsDailyLangueRepository analyticsDailyLangueRepository;
 
     @Autowired
-    private LangueService langueService;
+    private ActiveUsersSketchStore activeUsersSketchStore;
+
+    @Autowired
+    private AnalyticsResponseCache analyticsResponseCache;
+
+    @Autowired
+    private HourlyActivityRing hourlyActivityRing;
+
+    @Autowired
+    @Qualifier("analyticsExecutor")
+    private AsyncTaskExecutor analyticsExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.analytics.deadline-ms:5000}")
+    private long deadlineMs;
 
 
     /**
@@ -40,6 +72,13 @@ public class AnalyticsServiceImpl implements AnalyticsService {
      */
     @Override
     public AnalyticsResponseDto getAnalyticsData(AnalyticsRequestDto request) {
+        return getAnalyticsData(request, false);
+    }
+
+    /**
+     * Sert la réponse depuis le cache (période, début, fin) sauf si bypassCache est demandé
+     */
+    private AnalyticsResponseDto getAnalyticsData(AnalyticsRequestDto request, boolean bypassCache) {
         log.info("Calcul des données analytiques pour la période: {}", request.getPeriod());
         String period = request.getPeriod();
 
@@ -56,19 +95,44 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
             log.info("📅 Période calculée: {} -> {}", bounds.getStartDate(), bounds.getEndDate());
 
-            // ✅ CORRECTION: Utiliser les dates calculées pour récupérer les données
-            List<Client> listclients = clientService.allClientCreatedAtPeriode(
-                    bounds.getStartDate(), bounds.getEndDate(), clientService.allclient());
-            List<Project> listprojets = projetService.listofPeriode(bounds.getStartDate(), bounds.getEndDate());
-            List<Activity> activityList = activityService.getActivitiesInPeriod(bounds.getStartDate(), bounds.getEndDate());
+            if (!bypassCache) {
+                AnalyticsResponseDto cached = analyticsResponseCache.get(period, bounds.getStartDate(), bounds.getEndDate());
+                if (cached != null) {
+                    return withLiveSections(cached, bounds);
+                }
+            }
+            long cacheGeneration = analyticsResponseCache.generation();
+
+            long startNanos = System.nanoTime();
+            long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+            // Sections indépendantes lancées en parallèle ; le rollup (buckets) est chargé une seule fois
+            // et partagé par les métriques et les données détaillées, calculées ensuite sur ce thread
+            Future<AnalyticsDayBuckets> bucketsFuture = submit(deadlineNanos, () -> loadDayBuckets(bounds));
+            Future<Integer> activeUsersFuture = submit(deadlineNanos, () -> calculateActiveUsers(bounds));
+            Future<ChartDataDto> chartsFuture = submit(deadlineNanos, () -> calculateChartsData(request, bounds));
+
+            List<String> missingSections = new ArrayList<>();
+            AnalyticsDayBuckets buckets = await(bucketsFuture, deadlineNanos, "rollup journalier", missingSections, () -> null);
+            Integer activeUsers = await(activeUsersFuture, deadlineNanos, "utilisateurs actifs", missingSections, () -> null);
+            ChartDataDto charts = await(chartsFuture, deadlineNanos, "graphiques", missingSections, ChartDataDto::new);
+
+            AnalyticsMetricsDto metrics = new AnalyticsMetricsDto();
+            List<AnalyticsDetailedDataDto> detailedData = new ArrayList<>();
+            if (buckets != null) {
+                metrics = calculateMetrics(request, bounds, buckets, activeUsers);
+                detailedData = calculateDetailedData(buckets);
+            }
 
-            // Calcul des métriques basées sur la période
-            AnalyticsMetricsDto metrics = calculateMetrics(request, bounds, listclients, listprojets, activityList);
-            List<AnalyticsDetailedDataDto> detailedData = calculateDetailedData(bounds, listprojets, listclients, activityList);
-            ChartDataDto charts = calculateChartsData(request, listprojets);
-            AnalyticsSummaryDto summary = generateSummary(request, bounds, detailedData.size());
+            long generationTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            AnalyticsSummaryDto summary = generateSummary(request, bounds, detailedData.size(), generationTimeMs, missingSections);
 
-            return AnalyticsResponseDto.success(metrics, detailedData, charts, summary);
+            AnalyticsResponseDto response = AnalyticsResponseDto.success(metrics, detailedData, charts, summary);
+            // Une réponse partielle n'est pas mise en cache
+            if (missingSections.isEmpty()) {
+                analyticsResponseCache.put(period, bounds.getStartDate(), bounds.getEndDate(), response, cacheGeneration);
+            }
+            return response;
 
         } catch (Exception e) {
             log.error("Erreur lors du calcul des données analytiques", e);
@@ -76,6 +140,51 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         }
     }
 
+    /**
+     * Les utilisateurs actifs et l'activité horaire suivent chaque écriture d'activité sans invalider
+     * le cache : ils sont recalculés (sketches et anneau horaire) sur une copie de la réponse en cache
+     */
+    private AnalyticsResponseDto withLiveSections(AnalyticsResponseDto cached, PeriodBounds bounds) {
+        AnalyticsMetricsDto metrics = new AnalyticsMetricsDto();
+        BeanUtils.copyProperties(cached.getMetrics(), metrics);
+        metrics.setUtilisateursActifs(calculateActiveUsers(bounds));
+        ChartDataDto charts = new ChartDataDto();
+        BeanUtils.copyProperties(cached.getCharts(), charts);
+        charts.setActiviteHoraire(calculateHourlyActivity(bounds));
+        return AnalyticsResponseDto.success(metrics, cached.getDetailedData(), charts, cached.getSummary());
+    }
+
+    /**
+     * Lance une section sur l'exécuteur analytique, dans une transaction en lecture seule dont les requêtes
+     * sont bornées par le temps restant avant l'échéance : une section abandonnée est interrompue
+     * (Future.cancel) et ses requêtes annulées côté base, ce qui libère sa place sur l'exécuteur
+     */
+    private <T> Future<T> submit(long deadlineNanos, Supplier<T> section) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return analyticsExecutor.submit(() -> transactionTemplate.execute(status -> {
+            long remainingMs = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+            jdbcTemplate.execute("SET LOCAL statement_timeout = " + remainingMs);
+            return section.get();
+        }));
+    }
+
+    /**
+     * Attend une section jusqu'à l'échéance de la requête ; au-delà, la section est interrompue
+     * et remplacée par une valeur vide
+     */
+    private <T> T await(Future<T> future, long deadlineNanos, String section,
+                        List<String> missingSections, Supplier<T> fallback) throws ExecutionException, InterruptedException {
+        try {
+            return future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("⏱️ Section analytique '{}' non terminée avant l'échéance de {} ms", section, deadlineMs);
+            missingSections.add(section);
+            return fallback.get();
+        }
+    }
+
     /**
      * MÉTHODE DE CALCUL DE PÉRIODE : Détermine les dates de début/fin selon la période demandée
      */
@@ -131,26 +240,49 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return new PeriodBounds(startDate, endDate);
     }
 
+    /**
+     * MÉTHODE DE CHARGEMENT DES AGRÉGATS : Range en une passe le rollup journalier de la période
+     * dans des tableaux indexés par jour
+     */
+    private AnalyticsDayBuckets loadDayBuckets(PeriodBounds bounds) {
+        AnalyticsDayBuckets buckets = new AnalyticsDayBuckets(bounds.getStartDate(), bounds.getEndDate(), MAX_LANGUES_PAR_JOUR);
+
+        for (AnalyticsDaily daily : analyticsDailyRepository.findByJourBetweenOrderByJour(bounds.getStartDate(), bounds.getEndDate())) {
+            buckets.add(daily.getJour(), daily.getProjetsCrees(), daily.getProjetsTermines(), daily.getMotsTraduits(),
+                    daily.getNouveauxClients(), daily.getUtilisateursActifs());
+        }
+        // Lignes triées par jour puis par utilisation décroissante : on garde les langues principales du jour
+        for (Object[] row : analyticsDailyLangueRepository.findUsagesBetween(bounds.getStartDate(), bounds.getEndDate())) {
+            buckets.addLangue(DateComparisonUtils.toLocalDateFromSql(row[0]), (String) row[1]);
+        }
+        return buckets;
+    }
+
     /**
      * MÉTHODE DE CALCUL DES MÉTRIQUES : Agrège tous les indicateurs de performance
      */
-    private AnalyticsMetricsDto calculateMetrics(AnalyticsRequestDto request, PeriodBounds bounds,List<Client> listclient,List<Project> listprojectPeriod, List<Activity> activityList) {
+    private AnalyticsMetricsDto calculateMetrics(AnalyticsRequestDto request, PeriodBounds bounds, AnalyticsDayBuckets buckets, Integer activeUsers) {
         AnalyticsMetricsDto metrics = new AnalyticsMetricsDto();
 
+        int totalProjets = buckets.totalProjetsCrees();
+        int projetsTermines = buckets.totalProjetsTermines();
+        int motsTraduits = Math.toIntExact(buckets.totalMotsTraduits());
+        int nouveauxClients = buckets.totalNouveauxClients();
+
         // Calculer les données basées sur la période réelle
         int days = calculateTotalDays(bounds);
-        PeriodData periodData = calculatePeriodData(request.getPeriod(), days,listprojectPeriod);
+        PeriodData periodData = calculatePeriodData(request.getPeriod(), days, motsTraduits);
 
         metrics.setTotalTraductions(periodData.getTotalTranslations());
         metrics.setMotsParJour(periodData.getWordsPerDay());
-        metrics.setNouveauxClients(listclient.size());
+        metrics.setNouveauxClients(nouveauxClients);
         metrics.setPrecisionMoyenne(calculateAveragePrecision(request));
         metrics.setLanguesActives(calculateActiveLanguages(request));
         metrics.setCroissance(calculateGrowthRate(request));
-        metrics.setTotalProjets(listprojectPeriod.size());
-        metrics.setProjetsTermines(calculateCompletedProjects(request, bounds));
-        metrics.setTauxCompletion(calculateCompletionRate(request, bounds));
-        metrics.setUtilisateursActifs(calculateActiveUsers(request,activityList));
+        metrics.setTotalProjets(totalProjets);
+        metrics.setProjetsTermines(projetsTermines);
+        metrics.setTauxCompletion(calculateCompletionRate(projetsTermines));
+        metrics.setUtilisateursActifs(activeUsers);
         metrics.setErreursTotal(calculateTotalErrors(request));
         metrics.setRevenus(calculateRevenue(request, bounds));
         metrics.setTempsMoyenTraitement(calculateAverageProcessingTime(request));
@@ -158,23 +290,11 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return metrics;
     }
 
-    private Integer calculateNewClients(AnalyticsRequestDto request,List<Client> list) {
-            return clientService.allClientCreatedAtPeriode(request.getStartDate(),request.getEndDate(),list).size();
-    }
-
     /**
      * MÉTHODE DE DONNÉES DE PÉRIODE : Fournit les données de base selon la période demandée
      */
-    private PeriodData calculatePeriodData(String period, int days,List<Project>projectListPeriode) {
+    private PeriodData calculatePeriodData(String period, int days, Integer nbmotstraduits) {
         // Données proportionnelles à la durée réelle de la période
-       Integer nbmotstraduits =0;
-        for(Project project:projectListPeriode)
-        {
-            if(project.getIsEnd())
-            {
-                nbmotstraduits+=Math.round(project.getWordscount());
-            }
-        }
         switch (period) {
             case "24h":
                 return new PeriodData(1850L, nbmotstraduits, 8);
@@ -196,53 +316,17 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     /**
      * MÉTHODE DE DONNÉES DÉTAILLÉES : Génère les données temporelles pour la période calculée
      */
-    private List<AnalyticsDetailedDataDto> calculateDetailedData(PeriodBounds bounds,List<Project>projectList,List<Client>clientList,List<Activity> activityList) {
-        List<AnalyticsDetailedDataDto> detailedData = new ArrayList<>();
-            List<Activity> listactivity=new ArrayList<>();
-        // Générer une entrée pour chaque jour de la période
-        LocalDate currentDate = bounds.getStartDate();
-        while (!currentDate.isAfter(bounds.getEndDate())) {
-            listactivity.clear();
+    private List<AnalyticsDetailedDataDto> calculateDetailedData(AnalyticsDayBuckets buckets) {
+        List<AnalyticsDetailedDataDto> detailedData = new ArrayList<>(buckets.size());
+        // Générer une entrée pour chaque jour de la période : simple lecture des tableaux par index
+        for (int index = 0; index < buckets.size(); index++) {
             AnalyticsMetricsDto analyticsMetricsDto=new AnalyticsMetricsDto();
-            Integer nbproject=0;
-            Integer nbprojectend=0;
-            Integer nbclient=0;
-            Integer nbmot = 0;
-            for(Project project:projectList)
-            {
-                if((DateComparisonUtils.isEqual(project.getCreatedAt(),currentDate)))
-                {
-                    nbproject++;
-                    if(project.getIsEnd())
-                    {
-                        nbprojectend++;
-                        Integer nmot=Math.round(project.getWordscount()) ;
-                        nbmot+=nmot;
-                    }
-                }
-            }   for(Client client:clientList)
-            {
-                if((DateComparisonUtils.isEqual(client.getCreated_At(),currentDate)))
-                {
-                    nbclient++;
-                }
-            }
-            for(Activity activity:activityList)
-            {
-                    if(DateComparisonUtils.isEqualLocalDateTime(activity.getCreatedAt(),currentDate))
-                    {
-                        listactivity.add(activity);
-                    }
-            }
-            System.out.println("mot");
-            System.out.println(nbmot);
-            analyticsMetricsDto.setTotalProjets(nbproject);
-            analyticsMetricsDto.setProjetsTermines(nbprojectend);
-            analyticsMetricsDto.setMotsParJour((nbmot));
-            analyticsMetricsDto.setNouveauxClients(nbclient);
-            analyticsMetricsDto.setUtilisateursActifs(clientService.getClientsActivityofPeriode(listactivity).size());
-            detailedData.add(createDailyDataPoint(currentDate,analyticsMetricsDto));
-            currentDate = currentDate.plusDays(1);
+            analyticsMetricsDto.setTotalProjets(buckets.projetsCrees(index));
+            analyticsMetricsDto.setProjetsTermines(buckets.projetsTermines(index));
+            analyticsMetricsDto.setMotsParJour(Math.toIntExact(buckets.motsTraduits(index)));
+            analyticsMetricsDto.setNouveauxClients(buckets.nouveauxClients(index));
+            analyticsMetricsDto.setUtilisateursActifs(buckets.utilisateursActifs(index));
+            detailedData.add(createDailyDataPoint(buckets.dayAt(index),analyticsMetricsDto,buckets.languesUtilisees(index)));
         }
 
         return detailedData;
@@ -251,7 +335,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     /**
      * MÉTHODE DE CRÉATION POINT QUOTIDIEN : Génère des données réalistes pour une date
      */
-    private AnalyticsDetailedDataDto createDailyDataPoint(LocalDate date,AnalyticsMetricsDto metricsDto) {
+    private AnalyticsDetailedDataDto createDailyDataPoint(LocalDate date,AnalyticsMetricsDto metricsDto,String languesUtilisees) {
         // Simulation de données réalistes avec un seed basé sur la date
         Random random = new Random(date.hashCode());
 
@@ -259,7 +343,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 date.atTime(12, 0).toString(), // 2024-01-01T12:00:00
                 random.nextInt(200) + 100,     // traductions: 100-300
                 metricsDto.getMotsParJour(),
-                getRandomLanguagePair(),
+                languesUtilisees,
                 random.nextDouble() * 10 + 90, // precision: 90-100%
                 random.nextInt(5),             // erreurs: 0-4
                 metricsDto.getUtilisateursActifs(),     // utilisateursActifs: 50-150
@@ -286,33 +370,9 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return new BigDecimal("15.3");
     }
 
-    private Integer calculateTotalProjects(AnalyticsRequestDto request, PeriodBounds bounds,List<Project> projectList) {
-        // Utiliser les dates calculées pour récupérer les projets
-        return this.listOfProject(bounds).size();
-    }
-
-    private List<Project> listOfProject(PeriodBounds bounds)
-    {
-        return projetService.listofPeriode(bounds.startDate,bounds.endDate);
-    }
-
-    private Integer calculateCompletedProjects(AnalyticsRequestDto request, PeriodBounds bounds) {
-        // Logique de calcul des projets terminés sur la période
-        Integer nb=0;
-        for(Project project:this.listOfProject(bounds))
-        {
-            if(project.getIsEnd())
-            {
-                nb++;
-            }
-        }
-        return nb;
-    }
-
-    private BigDecimal calculateCompletionRate(AnalyticsRequestDto request, PeriodBounds bounds) {
+    private BigDecimal calculateCompletionRate(Integer completedProjects) {
         // Calcul basé sur les projets réels
         Integer totalProjects = 100;
-        Integer completedProjects = calculateCompletedProjects(request, bounds);
         if (totalProjects > 0) {
             return new BigDecimal(completedProjects * 100.0 / totalProjects)
                     .setScale(1, BigDecimal.ROUND_HALF_UP);
@@ -320,8 +380,9 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return BigDecimal.ZERO;
     }
 
-    private Integer calculateActiveUsers(AnalyticsRequestDto request, List<Activity> activityList) {
-       return clientService.getClientsActivityofPeriode(activityList).size();
+    private Integer calculateActiveUsers(PeriodBounds bounds) {
+        // Union des sketches HyperLogLog journaliers (approximation ~1,6 %)
+        return (int) activeUsersSketchStore.estimateDistinct(bounds.getStartDate(), bounds.getEndDate());
     }
 
 
@@ -344,71 +405,65 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     // MÉTHODES DE DONNÉES GRAPHIQUES
     // ==========================================================================
 
-    private ChartDataDto calculateChartsData(AnalyticsRequestDto request,List<Project>projectList) {
+    private ChartDataDto calculateChartsData(AnalyticsRequestDto request, PeriodBounds bounds) {
         ChartDataDto charts = new ChartDataDto();
 
-        charts.setLanguesRepartition(calculateLanguageDistribution(request,projectList));
+        charts.setLanguesRepartition(calculateLanguageDistribution(bounds));
         charts.setTopProjets(calculateTopProjects(request));
         charts.setTypesDocuments(calculateDocumentTypes(request));
-        charts.setActiviteHoraire(calculateHourlyActivity(request));
+        charts.setActiviteHoraire(calculateHourlyActivity(bounds));
 
         return charts;
     }
 
-    private List<ChartDataDto.ChartItem> calculateLanguageDistribution(AnalyticsRequestDto request,List<Project> projectList) {
-            List<Langue>tablangues=new ArrayList<>();
-            List<LanguesResponseAnalyticDto>tabResponse=new ArrayList<>();
+    /**
+     * Répartition des langues : une seule requête groupée par langue sur les projets de la période
+     */
+    private List<ChartDataDto.ChartItem> calculateLanguageDistribution(PeriodBounds bounds) {
+        List<LanguesResponseAnalyticDto> repartition =
+                langueService.repartitionProjets(bounds.getStartDateTime(), bounds.getEndDateTimeExclusive());
 
-            Integer nbtot = 0;
-            tablangues=langueService.listallpresent(true);
-            for(Langue langue:tablangues)
-            {
-                LanguesResponseAnalyticDto languesResponseAnalyticDto=new LanguesResponseAnalyticDto();
-                languesResponseAnalyticDto.setId(langue.getId());
-                languesResponseAnalyticDto.setName(langue.getName());
-                languesResponseAnalyticDto.setValue(0);
-                tabResponse.add(languesResponseAnalyticDto);
-            }
-            for(Project project:projectList)
-            {
-                for(LanguesResponseAnalyticDto languesResponseAnalyticDto1:tabResponse)
-                {
-                    Boolean ok=false;
-                    for(Langue languesource:projetService.getLanguesSourcesLangues(project))
-                    {
-                        nbtot++;
-                        if(languesource.getId()==languesResponseAnalyticDto1.getId())
-                        {
-                                ok=true;
-                        }
-                    }
-                    for(Langue languecible:projetService.getLanguesCiblesLangues(project))
-                    {
-                        nbtot++;
-                        if(languecible.getId()==languesResponseAnalyticDto1.getId())
-                        {
-                                ok=true;
-                        }
-                    }
-                    if(ok)
-                    {
-                        languesResponseAnalyticDto1.setValue(languesResponseAnalyticDto1.getValue()+1);
-                    }
-                }
-            }
+        long nbtot = 0;
+        for (LanguesResponseAnalyticDto langue : repartition) {
+            nbtot += langue.getValue();
+        }
+        double[] percents = percentagesOneDecimal(repartition.stream().mapToLong(LanguesResponseAnalyticDto::getValue).toArray(), nbtot);
         List<ChartDataDto.ChartItem> chartItems = new ArrayList<>();
-        for(LanguesResponseAnalyticDto languesResponseAnalyticDto2 : tabResponse)
-        {
-            Double percent=0.0;
-            if(nbtot>0)
-            {
-                percent= (double) (languesResponseAnalyticDto2.getValue()*100/nbtot);
-            }
-            chartItems.add(createChartItem(languesResponseAnalyticDto2.getName(), percent));
+        for (int i = 0; i < repartition.size(); i++) {
+            chartItems.add(createChartItem(repartition.get(i).getName(), percents[i]));
         }
-        System.out.println("sasa");
-        System.out.println(chartItems);
-            return chartItems;
+        return chartItems;
+    }
+
+    /**
+     * Pourcentages arrondis au dixième dont la somme fait exactement 100 (méthode du plus fort reste)
+     */
+    static double[] percentagesOneDecimal(long[] values, long total) {
+        double[] percents = new double[values.length];
+        if (total <= 0) {
+            return percents;
+        }
+        long[] tenths = new long[values.length];
+        double[] remainders = new double[values.length];
+        long distributed = 0;
+        for (int i = 0; i < values.length; i++) {
+            double exact = values[i] * 1000.0 / total;
+            tenths[i] = (long) Math.floor(exact);
+            remainders[i] = exact - tenths[i];
+            distributed += tenths[i];
+        }
+        Integer[] order = new Integer[values.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(remainders[b], remainders[a]));
+        for (int k = 0; k < 1000 - distributed; k++) {
+            tenths[order[k]]++;
+        }
+        for (int i = 0; i < values.length; i++) {
+            percents[i] = tenths[i] / 10.0;
+        }
+        return percents;
     }
 
     private List<ChartDataDto.ChartItem> calculateTopProjects(AnalyticsRequestDto request) {
@@ -430,15 +485,19 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         );
     }
 
-    private List<ChartDataDto.ChartItem> calculateHourlyActivity(AnalyticsRequestDto request) {
-        return Arrays.asList(
-                createChartItem("08:00", 45),
-                createChartItem("10:00", 78),
-                createChartItem("12:00", 65),
-                createChartItem("14:00", 82),
-                createChartItem("16:00", 91),
-                createChartItem("18:00", 58)
-        );
+    /**
+     * Activité par heure de la journée, lue dans l'histogramme en mémoire (7 derniers jours au plus)
+     */
+    private List<ChartDataDto.ChartItem> calculateHourlyActivity(PeriodBounds bounds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime to = bounds.getEndDateTimeExclusive().minusNanos(1);
+        long[] histogram = hourlyActivityRing.histogramByHourOfDay(bounds.getStartDateTime(), to.isAfter(now) ? now : to);
+
+        List<ChartDataDto.ChartItem> chartItems = new ArrayList<>(histogram.length);
+        for (int hour = 0; hour < histogram.length; hour++) {
+            chartItems.add(createChartItem(String.format("%02d:00", hour), histogram[hour]));
+        }
+        return chartItems;
     }
 
     // ==========================================================================
@@ -492,11 +551,6 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return item;
     }
 
-    private String getRandomLanguagePair() {
-        String[] languages = {"FR-EN", "EN-FR", "FR-ES", "ES-FR", "EN-DE", "DE-EN", "FR-DE", "EN-IT"};
-        return languages[new Random().nextInt(languages.length)];
-    }
-
     private int calculateTotalDays(PeriodBounds bounds) {
         return (int) bounds.getStartDate().until(bounds.getEndDate()).getDays() + 1;
     }
@@ -504,17 +558,24 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     /**
      * MÉTHODE DE GÉNÉRATION RÉSUMÉ : Crée les métadonnées avec période calculée
      */
-    private AnalyticsSummaryDto generateSummary(AnalyticsRequestDto request, PeriodBounds bounds, int dataPoints) {
+    private AnalyticsSummaryDto generateSummary(AnalyticsRequestDto request, PeriodBounds bounds, int dataPoints,
+                                                long generationTimeMs, List<String> missingSections) {
         AnalyticsSummaryDto summary = new AnalyticsSummaryDto();
         summary.setPeriode(request.getPeriod());
         summary.setDateDebut(bounds.getStartDate().atStartOfDay());
         summary.setDateFin(bounds.getEndDate().atTime(23, 59, 59));
         summary.setDernierRefresh(LocalDateTime.now());
         summary.setTotalPoints(dataPoints);
-        summary.setStatut(AnalyticsSummaryDto.DataStatus.COMPLET);
-        summary.setMessage(String.format("Données du %s au %s (%d jours)",
-                bounds.getStartDate(), bounds.getEndDate(), calculateTotalDays(bounds)));
-        summary.setGenerationTimeMs(120L);
+        String message = String.format("Données du %s au %s (%d jours)",
+                bounds.getStartDate(), bounds.getEndDate(), calculateTotalDays(bounds));
+        if (missingSections.isEmpty()) {
+            summary.setStatut(AnalyticsSummaryDto.DataStatus.COMPLET);
+        } else {
+            summary.setStatut(AnalyticsSummaryDto.DataStatus.PARTIEL);
+            message += " - sections non calculées à temps : " + String.join(", ", missingSections);
+        }
+        summary.setMessage(message);
+        summary.setGenerationTimeMs(generationTimeMs);
         return summary;
     }
 
@@ -541,7 +602,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     @Override
     public AnalyticsResponseDto refreshAnalyticsData(AnalyticsRequestDto request) {
         log.info("Recalcul des données analytiques en temps réel");
-        return getAnalyticsData(request);
+        return getAnalyticsData(request, true);
     }
 
     @Override
@@ -572,6 +633,8 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
         public LocalDate getStartDate() { return startDate; }
         public LocalDate getEndDate() { return endDate; }
+        public LocalDateTime getStartDateTime() { return startDate.atStartOfDay(); }
+        public LocalDateTime getEndDateTimeExclusive() { return endDate.plusDays(1).atStartOfDay(); }
     }
 
     /**
@@ -4,6 +4,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import tunutech.api.Utils.DateComparisonUtils;
 import tunutech.api.dtos.ClientDto;
 import tunutech.api.dtos.PaysResponsDTO;
@@ -11,12 +12,11 @@ import tunutech.api.model.*;
 import tunutech.api.repositories.ClientRepository;
 import tunutech.api.repositories.UserRepository;
 import tunutech.api.services.ActivityService;
+import tunutech.api.services.AnalyticsRollupService;
 import tunutech.api.services.ClientService;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class ClientImpl implements ClientService {
@@ -29,6 +29,9 @@ public class ClientImpl implements ClientService {
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
     @PersistenceContext
     private EntityManager entityManager;
     @Override
@@ -106,6 +109,7 @@ public class ClientImpl implements ClientService {
 
 
     @Override
+    @Transactional
     public Client saveClient(ClientDto clientDto) {
         Client client=new Client();
         client.setEmail(clientDto.getEmail());
@@ -120,6 +124,7 @@ public class ClientImpl implements ClientService {
         client.setPresent(true);
         Client leclient=clientRepository.save(client);
         clientRepository.flush();
+        analyticsRollupService.recordClientCreated(leclient);
         return leclient;
     }
 
@@ -155,46 +160,30 @@ public class ClientImpl implements ClientService {
         return clientRepository.count();
     }
 
-    private Client getClientofUser(Long idUser)
+    @Override
+    public List<Client> getClientsActivityofPeriode( List<Activity> activityList)
     {
-        Optional<User> user=userRepository.findById(Integer.valueOf(Math.toIntExact(idUser)));
-        if(user.isPresent())
+        // Utilisateurs clients distincts, dans l'ordre des activités, puis un seul chargement groupé
+        Set<Long> userIds=new LinkedHashSet<>();
+        for(Activity activity:activityList)
         {
-            if(user.get().getClient()!=null)
+            if(RoleUser.CLIENT.equals(activity.getUserRole()) && activity.getUserId()!=null)
             {
-                return user.get().getClient();
+                userIds.add(activity.getUserId());
             }
         }
-        return null;
-    }
-    @Override
-    public List<Client> getClientsActivityofPeriode( List<Activity> activityList)
-    {
+        Map<Long, User> users=new HashMap<>();
+        for(User user:userRepository.findWithClientByIdIn(userIds))
+        {
+            users.put(user.getId(), user);
+        }
         List<Client> clientList=new ArrayList<>();
-        for(Activity activity:activityList)
+        for(Long userId:userIds)
         {
-            if(activity.getUserRole().equals(RoleUser.CLIENT))
+            User user=users.get(userId);
+            if(user!=null && user.getClient()!=null)
             {
-                Boolean deja=false;
-                for(Client client:clientList)
-                {
-                    Optional<User> user=userRepository.findByClientId(client.getId());
-                    if(user.isPresent())
-                    {
-                        if(user.get().getId()==activity.getUserId())
-                        {
-                            deja=true;
-                        }
-                    }
-                }
-                if(!deja)
-                {
-                    if(getClientofUser(activity.getUserId())!=null)
-                    {
-                        clientList.add(getClientofUser(activity.getUserId()));
-                    }
-
-                }
+                clientList.add(user.getClient());
             }
         }
         return  clientList;
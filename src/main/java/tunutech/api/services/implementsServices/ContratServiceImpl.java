@@ -22,7 +22,7 @@ public class ContratServiceImpl implements ContratService {
     private ContratRepository contratRepository;
 
     @Autowired
-    private ActivityService activityService;
+    private OutboxService outboxService;
 
     @Autowired
     private ProjetService projetService;
@@ -40,6 +40,7 @@ public class ContratServiceImpl implements ContratService {
     private UserService userService;
 
     @Override
+    @Transactional
     public Contrat createContrat(Long projetId, User user,String complexity,String type,Integer nbjours) {
         Project projet = projectRepository.findById(projetId)
                 .orElseThrow(() -> new RuntimeException("Projet non trouvé"));
@@ -60,12 +61,7 @@ public class ContratServiceImpl implements ContratService {
         // Génération du contenu
         genererContenuContrat(contrat,projet);
         Contrat contratcreated=contratRepository.save(contrat);
-        try {
-            activityService.logProjectActivity(user,ActivityType.CONTRACT_GENERATED,projet.getTitle(),projet.getClient().getFullName(), projet.getId(), projet.getDescription());
-        }catch (Exception e)
-        {
-            throw  new RuntimeException(e.getMessage());
-        }
+        outboxService.publishProjectActivity(projet,user,ActivityType.CONTRACT_GENERATED,projet.getClient().getFullName(),projet.getDescription());
         return  contratcreated;
     }
 
@@ -128,17 +124,13 @@ public class ContratServiceImpl implements ContratService {
     }
 
     @Override
+    @Transactional
     public Contrat update(ContratDTO contratDTO) {
         Contrat contrat=contratRepository.findById(contratDTO.getId()).orElseThrow(()->new RuntimeException("Contract not found"));
        contrat.setContratStatut(contratDTO.getContratStatut());
        contrat.setApproved_At(LocalDateTime.now());
        User user= userService.getByClient(contrat.getProject().getClient().getId());
-        try {
-            activityService.logProjectActivity(user,ActivityType.CONTRACT_ACCEPTED,contrat.getProject().getTitle(),contrat.getProject().getClient().getFullName(), contrat.getProject().getId(), contrat.getProject().getDescription());
-        }catch (Exception e)
-        {
-            throw  new RuntimeException(e.getMessage());
-        }
+        outboxService.publishProjectActivity(contrat.getProject(),user,ActivityType.CONTRACT_ACCEPTED,contrat.getProject().getClient().getFullName(),contrat.getProject().getDescription());
         return contratRepository.save(contrat);
     }
 
@@ -0,0 +1,117 @@
+package tunutech.api.services.implementsServices;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tunutech.api.Utils.DateComparisonUtils;
+import tunutech.api.repositories.ActivityRepository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'activités par heure sur une fenêtre glissante de 7 jours (7 x 24 emplacements).
+ * Chaque emplacement est un couple immuable (heure epoch, LongAdder) remplacé par CAS au changement d'heure :
+ * écriture sans verrou, aucun incrément de l'heure courante perdu, lecture en O(168) sans requête en base.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HourlyActivityRing {
+
+    public static final int WINDOW_HOURS = 7 * 24;
+
+    private final ActivityRepository activityRepository;
+
+    // Emplacement vide : aucune heure epoch réelle n'est négative
+    private static final Slot EMPTY = new Slot(-1L, new LongAdder());
+
+    private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(WINDOW_HOURS);
+
+    {
+        for (int i = 0; i < WINDOW_HOURS; i++) {
+            slots.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * Charge la fenêtre depuis la table activity (une requête groupée par heure) avant tout enregistrement
+     */
+    @PostConstruct
+    public void seed() {
+        try {
+            long currentHour = currentEpochHour();
+            LocalDateTime since = toLocalDateTime(currentHour - WINDOW_HOURS + 1);
+            for (Object[] row : activityRepository.countByHourSince(since)) {
+                long epochHour = toEpochHour(DateComparisonUtils.toLocalDateTimeFromSql(row[0]));
+                add(epochHour, ((Number) row[1]).longValue(), currentHour);
+            }
+            log.info("Histogramme horaire des activités initialisé depuis {}", since);
+        } catch (Exception e) {
+            log.warn("Initialisation de l'histogramme horaire impossible: {}", e.getMessage());
+        }
+    }
+
+    public void record(LocalDateTime createdAt) {
+        add(toEpochHour(createdAt != null ? createdAt : LocalDateTime.now()), 1L, currentEpochHour());
+    }
+
+    /**
+     * Répartition par heure de la journée (0-23) des activités entre from et to (inclus),
+     * limitée à la fenêtre des 7 derniers jours
+     */
+    public long[] histogramByHourOfDay(LocalDateTime from, LocalDateTime to) {
+        long fromHour = toEpochHour(from);
+        long toHour = toEpochHour(to);
+        long[] histogram = new long[24];
+        for (int i = 0; i < WINDOW_HOURS; i++) {
+            Slot slot = slots.get(i);
+            if (slot.hourStamp >= 0 && slot.hourStamp >= fromHour && slot.hourStamp <= toHour) {
+                histogram[toLocalDateTime(slot.hourStamp).getHour()] += slot.count.sum();
+            }
+        }
+        return histogram;
+    }
+
+    void add(long epochHour, long amount, long currentHour) {
+        // Hors fenêtre (trop ancien) : ignoré
+        if (epochHour <= currentHour - WINDOW_HOURS) {
+            return;
+        }
+        int index = (int) Math.floorMod(epochHour, (long) WINDOW_HOURS);
+        Slot slot = slots.get(index);
+        while (slot.hourStamp != epochHour) {
+            if (slot.hourStamp > epochHour) {
+                return;
+            }
+            // Heure expirée : un nouveau couple remplace l'ancien, le perdant du CAS relit le gagnant
+            Slot fresh = new Slot(epochHour, new LongAdder());
+            if (slots.compareAndSet(index, slot, fresh)) {
+                slot = fresh;
+                break;
+            }
+            slot = slots.get(index);
+        }
+        slot.count.add(amount);
+    }
+
+    private record Slot(long hourStamp, LongAdder count) {
+    }
+
+    private static long currentEpochHour() {
+        return TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+    }
+
+    static long toEpochHour(LocalDateTime dateTime) {
+        return TimeUnit.SECONDS.toHours(dateTime.atZone(ZoneId.systemDefault()).toEpochSecond());
+    }
+
+    static LocalDateTime toLocalDateTime(long epochHour) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(TimeUnit.HOURS.toSeconds(epochHour)), ZoneId.systemDefault());
+    }
+}
@@ -4,9 +4,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import tunutech.api.dtos.LangueDto;
 import tunutech.api.model.Langue;
+import tunutech.api.model.LanguesResponseAnalyticDto;
 import tunutech.api.repositories.LangueRepository;
 import tunutech.api.services.LangueService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -116,4 +119,16 @@ public class LangueImpl implements LangueService {
         return langueRepository.save(langue);
     }
 
+    @Override
+    public List<LanguesResponseAnalyticDto> repartitionProjets(LocalDateTime startDate, LocalDateTime endDate) {
+        List<LanguesResponseAnalyticDto> repartition = new ArrayList<>();
+        for (Object[] row : langueRepository.countProjetsParLangueBetween(startDate, endDate)) {
+            LanguesResponseAnalyticDto dto = new LanguesResponseAnalyticDto();
+            dto.setId(((Number) row[0]).longValue());
+            dto.setName((String) row[1]);
+            dto.setValue(((Number) row[2]).intValue());
+            repartition.add(dto);
+        }
+        return repartition;
+    }
 }
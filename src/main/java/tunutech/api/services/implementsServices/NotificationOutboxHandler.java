@@ -0,0 +1,35 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import tunutech.api.model.OutboxEvent;
+import tunutech.api.model.OutboxEventType;
+import tunutech.api.services.ChatNotification;
+import tunutech.api.services.OutboxEventHandler;
+
+import java.util.Map;
+
+/**
+ * Notifications WebSocket utilisateur (/topic/user/{id})
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxHandler implements OutboxEventHandler {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public boolean supports(OutboxEvent event) {
+        return event.getEventType() == OutboxEventType.USER_NOTIFICATION;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        Map<String, Object> payload = event.getPayload();
+        Object chatRoomId = payload.get("chatRoomId");
+        messagingTemplate.convertAndSend("/topic/user/" + event.getAggregateId(),
+                new ChatNotification((String) payload.get("title"), (String) payload.get("message"),
+                        chatRoomId != null ? ((Number) chatRoomId).longValue() : null));
+    }
+}
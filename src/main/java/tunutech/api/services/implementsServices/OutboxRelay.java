@@ -0,0 +1,165 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tunutech.api.model.OutboxEvent;
+import tunutech.api.model.OutboxStatus;
+import tunutech.api.repositories.OutboxEventRepository;
+import tunutech.api.services.OutboxEventHandler;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Relais outbox en processus : lit les événements PENDING par id croissant et les distribue aux
+ * consommateurs. Chaque événement est traité dans sa propre transaction, marquée PROCESSED dans
+ * cette même transaction (au moins une fois). Un échec reporte l'événement (next_attempt_at, délai
+ * exponentiel) ; tant qu'il est en tête de son agrégat, en attente de reprise ou FAILED, les événements
+ * suivants du même agrégat ne sont pas distribués. Un événement FAILED bloque donc son agrégat
+ * jusqu'à sa remise manuelle en PENDING.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int retentionDays;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxEventHandler> handlers,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.outbox.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.retention-days:7}") int retentionDays,
+                       @Value("${app.outbox.backoff-ms:1000}") long backoffMs,
+                       @Value("${app.outbox.max-backoff-ms:300000}") long maxBackoffMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retentionDays = retentionDays;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-ms:250}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.findDueByStatusOrderByIdAsc(OutboxStatus.PENDING, now,
+                PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return;
+        }
+        // Premier id retenu par agrégat : les événements suivants attendent
+        Map<String, Long> heldHeads = new HashMap<>();
+        for (Object[] row : outboxEventRepository.findHeldAggregateHeads(OutboxStatus.FAILED, OutboxStatus.PENDING, now)) {
+            heldHeads.put(row[0] + ":" + row[1], ((Number) row[2]).longValue());
+        }
+        for (OutboxEvent event : events) {
+            Long head = heldHeads.get(event.aggregateKey());
+            if (head != null && head < event.getId()) {
+                continue;
+            }
+            if (!dispatch(event)) {
+                heldHeads.put(event.aggregateKey(), event.getId());
+            }
+        }
+    }
+
+    private boolean dispatch(OutboxEvent event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (OutboxEventHandler handler : handlers) {
+                    if (handler.supports(event)) {
+                        handler.handle(event);
+                    }
+                }
+                event.setStatus(OutboxStatus.PROCESSED);
+                event.setProcessedAt(LocalDateTime.now());
+                outboxEventRepository.save(event);
+            });
+            dispatched.increment();
+            return true;
+        } catch (Exception e) {
+            markFailedAttempt(event, e);
+            return false;
+        }
+    }
+
+    private void markFailedAttempt(OutboxEvent event, Exception error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(event.getId()).ifPresent(stored -> {
+                stored.setAttempts(stored.getAttempts() + 1);
+                stored.setLastError(error.getMessage());
+                if (stored.getAttempts() >= maxAttempts) {
+                    stored.setStatus(OutboxStatus.FAILED);
+                    failed.increment();
+                    log.error("Événement outbox {} ({}) abandonné après {} tentatives: {}",
+                            stored.getId(), stored.getEventType(), stored.getAttempts(), error.getMessage());
+                } else {
+                    stored.setNextAttemptAt(LocalDateTime.now().plus(backoff(stored.getAttempts()), ChronoUnit.MILLIS));
+                    retried.increment();
+                    log.warn("Événement outbox {} ({}) en échec, tentative {}: {}",
+                            stored.getId(), stored.getEventType(), stored.getAttempts(), error.getMessage());
+                }
+                outboxEventRepository.save(stored);
+            }));
+        } catch (Exception e) {
+            log.error("Impossible d'enregistrer l'échec de l'événement outbox {}: {}", event.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Délai avant la tentative suivante : backoffMs doublé à chaque échec, plafonné à maxBackoffMs
+     */
+    long backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(maxBackoffMs, backoffMs << doublings);
+    }
+
+    /**
+     * Purge des événements traités au-delà de la rétention
+     */
+    @Scheduled(cron = "${app.outbox.purge-cron:0 15 3 * * *}")
+    public void purge() {
+        int deleted = outboxEventRepository.deleteProcessedBefore(OutboxStatus.PROCESSED, LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Outbox : {} événements traités purgés", deleted);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("dispatched", dispatched.sum());
+        stats.put("retried", retried.sum());
+        stats.put("failed", failed.sum());
+        // Compteurs par statut à part : "failed" désigne déjà les abandons de ce relais
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (OutboxStatus status : OutboxStatus.values()) {
+            byStatus.put(status.name().toLowerCase(), outboxEventRepository.countByStatus(status));
+        }
+        stats.put("byStatus", byStatus);
+        return stats;
+    }
+}
@@ -0,0 +1,58 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tunutech.api.model.*;
+import tunutech.api.repositories.OutboxEventRepository;
+import tunutech.api.services.ChatNotification;
+import tunutech.api.services.OutboxService;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    public static final String AGGREGATE_PROJECT = "PROJECT";
+    public static final String AGGREGATE_USER = "USER";
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Override
+    @Transactional
+    public void publish(String aggregateType, Long aggregateId, OutboxEventType eventType, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setPayload(payload != null ? payload : new HashMap<>());
+        event.setStatus(OutboxStatus.PENDING);
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+
+    @Override
+    @Transactional
+    public void publishProjectActivity(Project project, User user, ActivityType type, String beneficiaire, String description) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("activityType", type.name());
+        payload.put("userId", user != null ? user.getId() : null);
+        payload.put("projectName", project.getTitle());
+        payload.put("beneficiaire", beneficiaire);
+        payload.put("description", description);
+        publish(AGGREGATE_PROJECT, project.getId(), OutboxEventType.PROJECT_ACTIVITY, payload);
+    }
+
+    @Override
+    @Transactional
+    public void publishUserNotification(Long userId, ChatNotification notification) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("title", notification.getTitle());
+        payload.put("message", notification.getMessage());
+        payload.put("chatRoomId", notification.getChatRoomId());
+        publish(AGGREGATE_USER, userId, OutboxEventType.USER_NOTIFICATION, payload);
+    }
+}
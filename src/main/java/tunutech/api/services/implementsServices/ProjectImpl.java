@@ -2,10 +2,17 @@ package tunutech.api.services.implementsServices;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import tunutech.api.Utils.DateComparisonUtils;
-import tunutech.api.dtos.ActivityDTO;
+import tunutech.api.Utils.FieldSelection;
+import tunutech.api.Utils.KeysetCursor;
+import tunutech.api.Utils.RankCursor;
+import tunutech.api.dtos.CursorPageDto;
 import tunutech.api.dtos.ProjectDto;
+import tunutech.api.dtos.ProjectFilterDto;
 import tunutech.api.dtos.ProjectResponseDto;
 import tunutech.api.dtos.TranslationProjectsDto;
 import tunutech.api.exception.CalculMontantException;
@@ -16,18 +23,21 @@ import tunutech.api.services.*;
 import tunutech.api.Utils.Functions;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ProjectImpl implements ProjetService {
 
-    @Autowired
-    private ProjectRepository projectRepository;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
-    private ContratRepository contratRepository;
+    private ProjectRepository projectRepository;
 
     @Autowired
     private ProjetTraducteurRepository projetTraducteurRepository;
@@ -35,9 +45,6 @@ public class ProjectImpl implements ProjetService {
     @Autowired
     private ClientService clientService;
 
-    @Autowired
-    private DocumentService documentService;
-
     @Autowired
     private ProjetLangueCibleService projetLangueCibleService;
 
@@ -45,7 +52,13 @@ public class ProjectImpl implements ProjetService {
     private ProjetLangueSourceService projetLangueSourceService;
 
     @Autowired
-    private ActivityService activityService;
+    private ProjectResponseAssembler projectResponseAssembler;
+
+    @Autowired
+    private ProjectSearchIndex projectSearchIndex;
+
+    @Autowired
+    private OutboxService outboxService;
 
     @Autowired
     private UserRepository userRepository;
@@ -64,15 +77,7 @@ public class ProjectImpl implements ProjetService {
 
     @Override
     public List<Project> listallofClientPresent() {
-        List <Project>projectlist=new ArrayList<>();
-        for(Project project:this.listall())
-        {
-            if(project.getClient().getPresent())
-            {
-                projectlist.add(project);
-            }
-        }
-        return projectlist;
+        return projectRepository.findByClientPresentTrue();
     }
 
     @Override
@@ -114,15 +119,9 @@ public class ProjectImpl implements ProjetService {
 
     @Override
     public List<Project> listofPeriode(LocalDate d1, LocalDate d2) {
-        List<Project>projectList=new ArrayList<>();
-        for(Project project:this.listall())
-        {
-           if(DateComparisonUtils.isBetweenDate(project.getCreatedAt(),d1,d2))
-           {
-               projectList.add(project);
-           }
-        }
-        return projectList;
+        // Filtrage côté base : [d1 00:00, d2 + 1 jour 00:00[
+        return projectRepository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(
+                DateComparisonUtils.toDate(d1), DateComparisonUtils.toDate(d2.plusDays(1)));
     }
 
     @Override
@@ -185,12 +184,7 @@ public class ProjectImpl implements ProjetService {
 
     @Override
     public List<Project> ListofTraducteur(Long idtranslator) {
-        List<Project> resultats=new ArrayList<>();
-        for(ProjetTraducteur projetTraducteur:projetTraducteurRepository.findByTraducteurId(idtranslator))
-        {
-            resultats.add(projetTraducteur.getProject());
-        }
-        return resultats;
+        return projectRepository.findByTraducteurId(idtranslator);
     }
 
 
@@ -205,6 +199,7 @@ public class ProjectImpl implements ProjetService {
     }
 
     @Override
+    @Transactional
     public Project saveproject(ProjectDto projectDto) {
         Project project=new Project();
         Client client=clientService.getUnique(projectDto.getIdclient());
@@ -220,16 +215,9 @@ public class ProjectImpl implements ProjetService {
         project.setProjectStatus(ProjectStatus.PENDING);
         project.setClient(client);
         Project savedProject=projectRepository.save(project);
+        // Journal d'activités et agrégats analytiques alimentés par le relais outbox après commit
         Optional<User> user=userRepository.findByClientId(client.getId());
-        if(user.isPresent())
-        {
-            try {
-                activityService.logProjectActivity(user.get(),ActivityType.PROJECT_CREATED,project.getTitle(),user.get().getFullName(), project.getId(), project.getDescription());
-            }catch (Exception e)
-            {
-                throw  new RuntimeException(e.getMessage());
-            }
-        }
+        outboxService.publishProjectActivity(savedProject,user.orElse(null),ActivityType.PROJECT_CREATED,user.map(User::getFullName).orElse(null),project.getDescription());
         return  savedProject;
     }
 
@@ -258,87 +246,71 @@ public class ProjectImpl implements ProjetService {
 
     @Override
     public ProjectResponseDto mapProject(Project project) {
-        Float nbmots= 0.00F;
-       Optional<Traducteur> traducteur=this.getTraducteorofProject(project);
-       Optional<Contrat> contrat=contratRepository.findByProjectId(project.getId());
-       ProjectResponseDto projectResponseDto=new ProjectResponseDto();
-            List<Document> documentlist=documentService.ListbyIdProject(project.getId());
-            for(Document document:documentlist)
-            {
-                nbmots+=document.getWordsCount();
-            }
-            projectResponseDto.setCode(project.getCode());
-            projectResponseDto.setDescription(project.getDescription());
-            projectResponseDto.setTitle(project.getTitle());
-            projectResponseDto.setPriority(project.getPriorityType());
-            projectResponseDto.setClient(project.getClient());
-            projectResponseDto.setIdentiteclient(project.getClient().getFullName());
-            projectResponseDto.setLanguesources(projetLangueSourceService.Listofproject(project.getId()));
-            projectResponseDto.setLanguetarget(projetLangueCibleService.Listofproject(project.getId()));
-            projectResponseDto.setId(project.getId());
-            projectResponseDto.setStartDate(project.getCreatedAt());
-            projectResponseDto.setDeadline(project.getDatevoulue());
-            projectResponseDto.setProgress(20.00);
-            projectResponseDto.setTypeDocument(project.getTypeDocument());
-            projectResponseDto.setProjectStatus(project.getProjectStatus());
-            projectResponseDto.setWordsCount(nbmots);
-            projectResponseDto.setEstimatedPrice(project.getEstimatedPrice());
-            projectResponseDto.setPricePerWord(project.getPriceperWord());
-            projectResponseDto.setAnnuler(project.getAnnuler());
-            projectResponseDto.setEndAt(project.getEnd_At());
-            projectResponseDto.setEnd(project.getIsEnd());
-            projectResponseDto.setDocumentlist(documentlist);
-
-            if(traducteur!=null && traducteur.isPresent())
-            {
-                projectResponseDto.setTranslator(traducteur);
-                Optional<ProjetTraducteur> projetTraducteur=projetTraducteurRepository.findByTraducteurIdAndProjectId(traducteur.get().getId(), project.getId());
-                if(projetTraducteur.isPresent())
-                {
-                    projectResponseDto.setAssignedDate(projetTraducteur.get().getCreatedAt());
-                }
-            }
+        return projectResponseAssembler.assemble(List.of(project)).get(0);
+    }
 
-            if(contrat!=null && contrat.isPresent())
-            {
-                    projectResponseDto.setBudget(functions.formatMontant(contrat.get().getMontantContrat(),Devise.USD));
-            }
-            String languesosurces="";
-            Integer intr=0;
-            Integer nbsources=projectResponseDto.getLanguesources().size();
-            for(Langue langue:projectResponseDto.getLanguesources())
-            {
-                languesosurces+=langue.getName();
-                intr++;
-                if(intr<nbsources)
-                {
-                    languesosurces+=";";
-                }
-            }
-            projectResponseDto.setSourceslangues(languesosurces);
-            String languestarget="";
-            Integer intrr=0;
-            Integer nbsourcesr=projectResponseDto.getLanguetarget().size();
+    @Override
+    public List<ProjectResponseDto> mapProjects(List<Project> projects) {
+        return projectResponseAssembler.assemble(projects);
+    }
 
-            for(Langue langue:projectResponseDto.getLanguetarget())
-            {
-                languestarget+=langue.getName();
-                intrr++;
-                if(intr<nbsourcesr)
-                {
-                    languestarget+=";";
-                }
-            }
-            projectResponseDto.setTargetlangues(languestarget);
-            List<ActivityDTO> activityList=activityService.getRecentActivitiesOfProject(1, project.getId());
-            if(!activityList.isEmpty())
-            {
-                for(ActivityDTO activityDTO:activityList)
-                {
-                    projectResponseDto.setLastActivity(activityDTO.getCreatedAt());
-                }
-            }
-            return  projectResponseDto;
+    @Override
+    public List<ProjectResponseDto> mapProjects(List<Project> projects, FieldSelection selection) {
+        return projectResponseAssembler.assemble(projects, selection);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProjectResponseDto> listPage(ProjectFilterDto filter, String cursor, int size, FieldSelection selection) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Specification<Project> spec = ProjectSpecifications.matching(filter);
+        if (position != null) {
+            spec = spec.and(ProjectSpecifications.after(position));
+        }
+        List<Project> rows = projectRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .limit(limit + 1)
+                .all());
+        boolean hasMore = rows.size() > limit;
+        List<Project> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Project last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(DateComparisonUtils.toLocalDateTimeFromSql(last.getCreatedAt()), last.getId()).encode();
+        }
+        List<ProjectResponseDto> items = this.mapProjects(page, selection);
+        return new CursorPageDto<>(items, nextCursor, hasMore, items.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProjectResponseDto> search(String text, String cursor, int size, FieldSelection selection) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Le texte recherché est obligatoire");
+        }
+        RankCursor position = RankCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String config = projectSearchIndex.getTextSearchConfig();
+        List<Object[]> rows = position == null
+                ? projectRepository.searchFirst(config, text, limit + 1)
+                : projectRepository.searchAfter(config, text, position.rank(), position.id(), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Object[]> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = page.get(page.size() - 1);
+            nextCursor = new RankCursor(((Number) last[1]).floatValue(), ((Number) last[0]).longValue()).encode();
+        }
+        // Chargement groupé puis remise dans l'ordre du classement
+        List<Long> ids = page.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        Map<Long, Project> projects = new HashMap<>();
+        for (Project project : projectRepository.findByIdIn(ids)) {
+            projects.put(project.getId(), project);
+        }
+        List<Project> ordered = ids.stream().map(projects::get).filter(Objects::nonNull).toList();
+        List<ProjectResponseDto> items = this.mapProjects(ordered, selection);
+        return new CursorPageDto<>(items, nextCursor, hasMore, items.size());
     }
 
     @Override
@@ -363,6 +335,7 @@ public class ProjectImpl implements ProjetService {
 
 
     @Override
+    @Transactional
     public Project update(ProjectDto projectDto) {
         Project project=projectRepository.findByCode(projectDto.getCode());
         project.setDescription(projectDto.getDescription());
@@ -374,17 +347,28 @@ public class ProjectImpl implements ProjetService {
         project.setTypeDocument(projectDto.getTypeDocument());
         project.setDatevoulue(projectDto.getDatevoulue());
         Project savedProject=projectRepository.save(project);
+        // Journal d'activités et agrégats analytiques alimentés par le relais outbox après commit
         Optional<User> user=userRepository.findByClientId(project.getClient().getId());
-        if(user.isPresent())
+        outboxService.publishProjectActivity(savedProject,user.orElse(null),ActivityType.PROJECT_UPDATED,user.map(User::getFullName).orElse(null),project.getDescription());
+        return  savedProject;
+    }
+
+    @Override
+    @Transactional
+    public Project terminer(Long idproject) {
+        Project project=this.getUniquebyId(idproject);
+        if(project.getIsEnd())
         {
-            try {
-                activityService.logProjectActivity(user.get(),ActivityType.PROJECT_UPDATED,project.getTitle(),user.get().getFullName(), project.getId(), project.getDescription());
-            }catch (Exception e)
-            {
-                throw  new RuntimeException(e.getMessage());
-            }
+            return project;
         }
-        return  savedProject;
+        project.setIsEnd(true);
+        project.setEnd_At(LocalDateTime.now());
+        project.setProjectStatus(ProjectStatus.COMPLETED);
+        Project savedProject=projectRepository.save(project);
+        // Journal d'activités et agrégats analytiques alimentés par le relais outbox après commit
+        Optional<User> user=userRepository.findByClientId(project.getClient().getId());
+        outboxService.publishProjectActivity(savedProject,user.orElse(null),ActivityType.PROJECT_COMPLETED,user.map(User::getFullName).orElse(null),project.getDescription());
+        return savedProject;
     }
 
     @Override
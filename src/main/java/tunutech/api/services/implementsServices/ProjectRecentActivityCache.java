@@ -0,0 +1,96 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tunutech.api.model.Activity;
+import tunutech.api.repositories.ActivityRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dernières activités de chaque projet (au plus N, plus récente en tête), dans un LRU borné.
+ * Mis à jour à chaque écriture effective d'une activité de projet ; chargé depuis la base au premier accès.
+ */
+@Slf4j
+@Component
+public class ProjectRecentActivityCache {
+
+    private final ActivityRepository activityRepository;
+    private final int perProject;
+
+    // Listes immuables remplacées à chaque écriture ; ordre d'accès pour l'éviction LRU
+    private final Map<Long, List<Activity>> entries;
+
+    // Incrémenté quand un projet absent du cache reçoit une activité : un chargement concurrent est alors écarté
+    private final AtomicLong missedWrites = new AtomicLong();
+
+    public ProjectRecentActivityCache(ActivityRepository activityRepository,
+                                      @Value("${app.activity.project-recent.size:5}") int perProject,
+                                      @Value("${app.activity.project-recent.max-projects:10000}") int maxProjects) {
+        this.activityRepository = activityRepository;
+        this.perProject = perProject;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<Activity>> eldest) {
+                return size() > maxProjects;
+            }
+        });
+    }
+
+    /**
+     * Les limit dernières activités du projet ; au-delà de la taille conservée, lecture directe en base
+     */
+    public List<Activity> recent(Long projectId, int limit) {
+        if (limit > perProject) {
+            return activityRepository.findRecentActivitiesofProject(projectId, limit);
+        }
+        List<Activity> cached = entries.get(projectId);
+        if (cached == null) {
+            long before = missedWrites.get();
+            cached = List.copyOf(activityRepository.findRecentActivitiesofProject(projectId, perProject));
+            if (missedWrites.get() == before) {
+                entries.putIfAbsent(projectId, cached);
+            }
+        }
+        return cached.size() > limit ? cached.subList(0, limit) : cached;
+    }
+
+    /**
+     * Activité écrite : insérée en tête de la liste du projet si celui-ci est en cache
+     */
+    public void record(Activity activity) {
+        if (activity.getProjectId() == null) {
+            return;
+        }
+        List<Activity> updated = entries.computeIfPresent(activity.getProjectId(), (projectId, current) -> {
+            List<Activity> next = new ArrayList<>(current.size() + 1);
+            next.addAll(current);
+            next.add(activity);
+            // Les lots peuvent arriver dans le désordre : tri par (created_at, id) décroissant puis troncature
+            next.sort((a, b) -> {
+                int byDate = b.getCreatedAt().compareTo(a.getCreatedAt());
+                return byDate != 0 ? byDate : Long.compare(b.getId(), a.getId());
+            });
+            return List.copyOf(next.size() > perProject ? next.subList(0, perProject) : next);
+        });
+        if (updated == null) {
+            missedWrites.incrementAndGet();
+        }
+    }
+
+    public void evict(Long projectId) {
+        if (projectId != null) {
+            entries.remove(projectId);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
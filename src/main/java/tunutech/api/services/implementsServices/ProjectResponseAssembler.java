@@ -0,0 +1,130 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tunutech.api.Utils.DateComparisonUtils;
+import tunutech.api.Utils.FieldSelection;
+import tunutech.api.Utils.Functions;
+import tunutech.api.dtos.ProjectResponseDto;
+import tunutech.api.model.*;
+import tunutech.api.repositories.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Construit les ProjectResponseDto d'une liste de projets en chargeant chaque association
+ * (affectation, contrat, documents, langues, dernière activité) par une seule requête IN :
+ * le nombre de requêtes ne dépend plus du nombre de projets. Les associations dont aucun champ
+ * n'est sélectionné (fields=) ne sont pas chargées.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectResponseAssembler {
+
+    private final ProjetTraducteurRepository projetTraducteurRepository;
+    private final ContratRepository contratRepository;
+    private final DocumentRepository documentRepository;
+    private final ProjetLangueSourceRepository projetLangueSourceRepository;
+    private final ProjetLangueCibleRepository projetLangueCibleRepository;
+    private final ActivityRepository activityRepository;
+    private final Functions functions;
+
+    public List<ProjectResponseDto> assemble(List<Project> projects) {
+        return assemble(projects, FieldSelection.all());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProjectResponseDto> assemble(List<Project> projects, FieldSelection selection) {
+        if (projects.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> ids = projects.stream().map(Project::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, ProjetTraducteur> affectations = new HashMap<>();
+        if (selection.includesAny("translator", "assignedDate")) {
+            for (ProjetTraducteur projetTraducteur : projetTraducteurRepository.findWithTraducteurByProjectIdIn(ids)) {
+                affectations.putIfAbsent(projetTraducteur.getProject().getId(), projetTraducteur);
+            }
+        }
+        Map<Long, Double> montants = new HashMap<>();
+        if (selection.includes("budget")) {
+            for (Object[] row : contratRepository.findMontantsByProjectIdIn(ids)) {
+                montants.put((Long) row[0], (Double) row[1]);
+            }
+        }
+        Map<Long, List<Document>> documents = selection.includesAny("documentlist", "wordsCount")
+                ? documentRepository.findByProjectIdInOrderByIdAsc(ids).stream()
+                        .collect(Collectors.groupingBy(document -> document.getProject().getId()))
+                : Map.of();
+        Map<Long, List<Langue>> sources = selection.includesAny("languesources", "sourceslangues")
+                ? projetLangueSourceRepository.findWithLangueByProjectIdIn(ids).stream()
+                        .collect(Collectors.groupingBy(pl -> pl.getProject().getId(),
+                                Collectors.mapping(ProjetLangueSource::getLangue, Collectors.toList())))
+                : Map.of();
+        Map<Long, List<Langue>> cibles = selection.includesAny("languetarget", "targetlangues")
+                ? projetLangueCibleRepository.findWithLangueByProjectIdIn(ids).stream()
+                        .collect(Collectors.groupingBy(pl -> pl.getProject().getId(),
+                                Collectors.mapping(ProjetLangueCible::getLangue, Collectors.toList())))
+                : Map.of();
+        Map<Long, Object> lastActivities = new HashMap<>();
+        if (selection.includes("lastActivity")) {
+            for (Object[] row : activityRepository.findLastActivityByProjectIdIn(ids)) {
+                lastActivities.put(((Number) row[0]).longValue(), row[1]);
+            }
+        }
+
+        List<ProjectResponseDto> resultats = new ArrayList<>(projects.size());
+        for (Project project : projects) {
+            Long id = project.getId();
+            ProjectResponseDto dto = new ProjectResponseDto();
+            List<Document> documentlist = documents.getOrDefault(id, new ArrayList<>());
+            Float nbmots = 0.00F;
+            for (Document document : documentlist) {
+                nbmots += document.getWordsCount();
+            }
+            dto.setCode(project.getCode());
+            dto.setDescription(project.getDescription());
+            dto.setTitle(project.getTitle());
+            dto.setPriority(project.getPriorityType());
+            dto.setClient(project.getClient());
+            dto.setIdentiteclient(project.getClient().getFullName());
+            dto.setLanguesources(sources.getOrDefault(id, new ArrayList<>()));
+            dto.setLanguetarget(cibles.getOrDefault(id, new ArrayList<>()));
+            dto.setId(id);
+            dto.setStartDate(project.getCreatedAt());
+            dto.setDeadline(project.getDatevoulue());
+            dto.setProgress(20.00);
+            dto.setTypeDocument(project.getTypeDocument());
+            dto.setProjectStatus(project.getProjectStatus());
+            dto.setWordsCount(nbmots);
+            dto.setEstimatedPrice(project.getEstimatedPrice());
+            dto.setPricePerWord(project.getPriceperWord());
+            dto.setAnnuler(project.getAnnuler());
+            dto.setEndAt(project.getEnd_At());
+            dto.setEnd(project.getIsEnd());
+            dto.setDocumentlist(documentlist);
+
+            ProjetTraducteur projetTraducteur = affectations.get(id);
+            if (projetTraducteur != null && projetTraducteur.getTraducteur() != null) {
+                dto.setTranslator(Optional.of(projetTraducteur.getTraducteur()));
+                dto.setAssignedDate(projetTraducteur.getCreatedAt());
+            }
+            if (montants.containsKey(id)) {
+                dto.setBudget(functions.formatMontant(montants.get(id), Devise.USD));
+            }
+            dto.setSourceslangues(joinNames(dto.getLanguesources()));
+            dto.setTargetlangues(joinNames(dto.getLanguetarget()));
+            if (lastActivities.containsKey(id)) {
+                dto.setLastActivity(DateComparisonUtils.toLocalDateTimeFromSql(lastActivities.get(id)));
+            }
+            resultats.add(dto);
+        }
+        return resultats;
+    }
+
+    private static String joinNames(List<Langue> langues) {
+        return langues.stream().map(Langue::getName).collect(Collectors.joining(";"));
+    }
+}
@@ -0,0 +1,52 @@
+package tunutech.api.services.implementsServices;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Index plein texte des projets. La colonne project.search_vector, son index GIN et les triggers
+ * qui la tiennent à jour sont créés par un script ponctuel (db/manual/project_search_index.sql) ;
+ * ce composant porte la configuration de recherche utilisée par les requêtes et vérifie au démarrage
+ * qu'elle correspond à celle de l'index.
+ */
+@Slf4j
+@Component
+public class ProjectSearchIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String textSearchConfig;
+
+    // EntityManagerFactory injectée pour passer après la mise à jour du schéma par Hibernate
+    public ProjectSearchIndex(JdbcTemplate jdbcTemplate,
+                              EntityManagerFactory entityManagerFactory,
+                              @Value("${app.search.text-config:french}") String textSearchConfig) {
+        if (!textSearchConfig.matches("[a-z_]+")) {
+            throw new IllegalArgumentException("Configuration de recherche plein texte invalide: " + textSearchConfig);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.textSearchConfig = textSearchConfig;
+    }
+
+    public String getTextSearchConfig() {
+        return textSearchConfig;
+    }
+
+    @PostConstruct
+    public void init() {
+        Boolean installed = jdbcTemplate.queryForObject(
+                "SELECT to_regprocedure('project_search_config()') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(installed)) {
+            log.warn("Index plein texte des projets absent : appliquer db/manual/project_search_index.sql");
+            return;
+        }
+        String indexConfig = jdbcTemplate.queryForObject("SELECT project_search_config()::text", String.class);
+        if (!textSearchConfig.equals(indexConfig)) {
+            log.warn("Index plein texte construit avec la configuration {} mais app.search.text-config={}",
+                    indexConfig, textSearchConfig);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package tunutech.api.services.implementsServices;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tunutech.api.Utils.DateComparisonUtils;
+import tunutech.api.Utils.KeysetCursor;
+import tunutech.api.dtos.CursorPageDto;
+import tunutech.api.dtos.TimelineItemDto;
+import tunutech.api.model.Activity;
+import tunutech.api.model.User;
+import tunutech.api.repositories.ActivityRepository;
+import tunutech.api.repositories.ChatMessageRepository;
+import tunutech.api.repositories.DocumentRepository;
+import tunutech.api.repositories.UserRepository;
+import tunutech.api.services.ProjectTimelineService;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Chronologie d'un projet par fusion k-voies (tas) de trois flux déjà triés par (date, id) décroissant.
+ * Chaque source est lue par petits lots après son propre curseur, et seulement quand la fusion
+ * a besoin de son élément suivant : une page de n éléments lit au plus n + quelques lignes par source.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProjectTimelineServiceImpl implements ProjectTimelineService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ActivityRepository activityRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+
+    // Ordre de la chronologie : date puis id décroissants, source en dernier critère pour un ordre total
+    private static final Comparator<TimelineItemDto> NEWEST_FIRST = Comparator
+            .comparing(TimelineItemDto::getAt, Comparator.reverseOrder())
+            .thenComparing(TimelineItemDto::getId, Comparator.reverseOrder())
+            .thenComparing(TimelineItemDto::getSource);
+
+    @Override
+    public CursorPageDto<TimelineItemDto> getTimeline(Long projectId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor[] positions = decodeCursor(cursor);
+        // Lots de lecture : une part de page par source, complétée à la demande
+        int chunk = limit / TimelineItemDto.Source.values().length + 2;
+
+        List<SourceStream> streams = List.of(
+                new SourceStream(TimelineItemDto.Source.ACTIVITY, positions[0], chunk,
+                        (position, n) -> activityItems(projectId, position, n)),
+                new SourceStream(TimelineItemDto.Source.CHAT_MESSAGE, positions[1], chunk,
+                        (position, n) -> chatItems(projectId, position, n)),
+                new SourceStream(TimelineItemDto.Source.DOCUMENT, positions[2], chunk,
+                        (position, n) -> documentItems(projectId, position, n)));
+
+        PriorityQueue<SourceStream> heap = new PriorityQueue<>((a, b) -> NEWEST_FIRST.compare(a.peek(), b.peek()));
+        for (SourceStream stream : streams) {
+            if (stream.peek() != null) {
+                heap.add(stream);
+            }
+        }
+
+        List<TimelineItemDto> items = new ArrayList<>(limit);
+        while (items.size() < limit && !heap.isEmpty()) {
+            SourceStream stream = heap.poll();
+            items.add(stream.next());
+            if (stream.peek() != null) {
+                heap.add(stream);
+            }
+        }
+
+        resolveChatAuthors(items);
+        boolean hasMore = !heap.isEmpty();
+        String nextCursor = hasMore ? encodeCursor(streams) : null;
+        return new CursorPageDto<>(items, nextCursor, hasMore, items.size());
+    }
+
+    private List<TimelineItemDto> activityItems(Long projectId, KeysetCursor position, int limit) {
+        List<Activity> rows = position == null
+                ? activityRepository.findProjectFeedFirst(projectId, limit)
+                : activityRepository.findProjectFeedAfter(projectId, position.createdAt(), position.id(), limit);
+        List<TimelineItemDto> items = new ArrayList<>(rows.size());
+        for (Activity activity : rows) {
+            TimelineItemDto item = new TimelineItemDto();
+            item.setSource(TimelineItemDto.Source.ACTIVITY);
+            item.setId(activity.getId());
+            item.setAt(activity.getCreatedAt());
+            item.setType(activity.getType().name());
+            item.setTitle(activity.getTitle());
+            item.setDescription(activity.getDescription());
+            item.setAuthorId(activity.getUserId());
+            item.setAuthorName(activity.getUserName());
+            item.getDetails().put("category", activity.getCategory().name());
+            items.add(item);
+        }
+        return items;
+    }
+
+    private List<TimelineItemDto> chatItems(Long projectId, KeysetCursor position, int limit) {
+        List<Object[]> rows = position == null
+                ? chatMessageRepository.findTimelineFirst(projectId, limit)
+                : chatMessageRepository.findTimelineAfter(projectId, position.createdAt(), position.id(), limit);
+        List<TimelineItemDto> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            TimelineItemDto item = new TimelineItemDto();
+            item.setSource(TimelineItemDto.Source.CHAT_MESSAGE);
+            item.setId(((Number) row[0]).longValue());
+            item.setAt(DateComparisonUtils.toLocalDateTimeFromSql(row[1]));
+            item.setDescription((String) row[2]);
+            item.setType((String) row[3]);
+            item.setTitle(row[6] != null ? (String) row[6] : "Message");
+            item.setAuthorId(row[5] != null ? ((Number) row[5]).longValue() : null);
+            item.getDetails().put("senderRole", row[4]);
+            item.getDetails().put("chatRoomId", row[7] != null ? ((Number) row[7]).longValue() : null);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private List<TimelineItemDto> documentItems(Long projectId, KeysetCursor position, int limit) {
+        List<Object[]> rows = position == null
+                ? documentRepository.findTimelineFirst(projectId, limit)
+                : documentRepository.findTimelineAfter(projectId, position.createdAt(), position.id(), limit);
+        List<TimelineItemDto> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            TimelineItemDto item = new TimelineItemDto();
+            item.setSource(TimelineItemDto.Source.DOCUMENT);
+            item.setId(((Number) row[0]).longValue());
+            item.setAt(DateComparisonUtils.toLocalDateTimeFromSql(row[1]));
+            item.setTitle((String) row[2]);
+            item.setType((String) row[3]);
+            item.setAuthorName((String) row[4]);
+            item.setDescription("Document déposé");
+            item.getDetails().put("typeDocument", row[5]);
+            item.getDetails().put("fileSize", row[6]);
+            items.add(item);
+        }
+        return items;
+    }
+
+    // Noms des auteurs de messages de la page : un seul chargement groupé
+    private void resolveChatAuthors(List<TimelineItemDto> items) {
+        Set<Long> userIds = items.stream()
+                .filter(item -> item.getSource() == TimelineItemDto.Source.CHAT_MESSAGE && item.getAuthorId() != null)
+                .map(TimelineItemDto::getAuthorId)
+                .collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (User user : userRepository.findWithClientByIdIn(userIds)) {
+            names.put(user.getId(), user.getFullName());
+        }
+        for (TimelineItemDto item : items) {
+            if (item.getSource() == TimelineItemDto.Source.CHAT_MESSAGE && item.getAuthorId() != null) {
+                item.setAuthorName(names.get(item.getAuthorId()));
+            }
+        }
+    }
+
+    // Curseur composite : position consommée de chaque source, dans l'ordre des sources ("" = pas encore lue)
+    private String encodeCursor(List<SourceStream> streams) {
+        return streams.stream()
+                .map(stream -> stream.consumed != null ? stream.consumed.encode() : "")
+                .collect(Collectors.joining("."));
+    }
+
+    private KeysetCursor[] decodeCursor(String cursor) {
+        KeysetCursor[] positions = new KeysetCursor[TimelineItemDto.Source.values().length];
+        if (cursor == null || cursor.isBlank()) {
+            return positions;
+        }
+        String[] parts = cursor.split("\\.", -1);
+        if (parts.length != positions.length) {
+            throw new IllegalArgumentException("Curseur de chronologie invalide");
+        }
+        for (int i = 0; i < parts.length; i++) {
+            positions[i] = KeysetCursor.decode(parts[i]);
+        }
+        return positions;
+    }
+
+    /**
+     * Flux d'une source : tampon rempli par lots après la dernière ligne lue, position consommée pour le curseur
+     */
+    private static class SourceStream {
+        private final TimelineItemDto.Source source;
+        private final int chunk;
+        private final BiFunction<KeysetCursor, Integer, List<TimelineItemDto>> fetch;
+        private final Deque<TimelineItemDto> buffer = new ArrayDeque<>();
+        private KeysetCursor fetched;
+        private KeysetCursor consumed;
+        private boolean exhausted;
+
+        SourceStream(TimelineItemDto.Source source, KeysetCursor start, int chunk,
+                     BiFunction<KeysetCursor, Integer, List<TimelineItemDto>> fetch) {
+            this.source = source;
+            this.fetched = start;
+            this.consumed = start;
+            this.chunk = chunk;
+            this.fetch = fetch;
+        }
+
+        TimelineItemDto peek() {
+            if (buffer.isEmpty() && !exhausted) {
+                List<TimelineItemDto> rows = fetch.apply(fetched, chunk);
+                buffer.addAll(rows);
+                exhausted = rows.size() < chunk;
+                if (!rows.isEmpty()) {
+                    TimelineItemDto last = rows.get(rows.size() - 1);
+                    fetched = new KeysetCursor(last.getAt(), last.getId());
+                }
+            }
+            return buffer.peekFirst();
+        }
+
+        TimelineItemDto next() {
+            TimelineItemDto item = buffer.pollFirst();
+            consumed = new KeysetCursor(item.getAt(), item.getId());
+            return item;
+        }
+    }
+}
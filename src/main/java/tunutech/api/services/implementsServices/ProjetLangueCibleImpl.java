@@ -11,6 +11,7 @@ import tunutech.api.model.ProjetLangueCible;
 import tunutech.api.model.ProjetLangueSource;
 import tunutech.api.repositories.ProjetLangueCibleRepository;
 import tunutech.api.repositories.ProjetLangueSourceRepository;
+import tunutech.api.services.AnalyticsRollupService;
 import tunutech.api.services.LangueService;
 import tunutech.api.services.ProjetLangueCibleService;
 import tunutech.api.services.ProjetService;
@@ -28,6 +29,8 @@ public class ProjetLangueCibleImpl implements ProjetLangueCibleService {
     private ProjetLangueCibleRepository projetLangueCibleRepository;
     @Autowired
     private LangueService langueService;
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
 
     @Override
     public List<Langue> Listofproject(Long idproject) {
@@ -49,7 +52,9 @@ public class ProjetLangueCibleImpl implements ProjetLangueCibleService {
                 ProjetLangueCible projetLangueSource=new ProjetLangueCible();
                 projetLangueSource.setLangue(langue);
                 projetLangueSource.setProject(projetLangueSourceDto.getProject());
-                return projetLangueCibleRepository.save(projetLangueSource);
+                ProjetLangueCible saved=projetLangueCibleRepository.save(projetLangueSource);
+                analyticsRollupService.recordLangueUsage(saved.getProject(), langue.getId(), 1);
+                return saved;
             } throw  new RuntimeException("language exist for this Project");
 
     }
@@ -62,6 +67,10 @@ public class ProjetLangueCibleImpl implements ProjetLangueCibleService {
     @Override
     @Transactional
     public void deleteallofProject(Project project) {
+        for(ProjetLangueCible projetLangueCible:projetLangueCibleRepository.findByProjectId(project.getId()))
+        {
+            analyticsRollupService.recordLangueUsage(project, projetLangueCible.getLangue().getId(), -1);
+        }
         projetLangueCibleRepository.deleteAllByProject(project);
     }
 
@@ -8,6 +8,7 @@ import tunutech.api.model.Langue;
 import tunutech.api.model.Project;
 import tunutech.api.model.ProjetLangueSource;
 import tunutech.api.repositories.ProjetLangueSourceRepository;
+import tunutech.api.services.AnalyticsRollupService;
 import tunutech.api.services.LangueService;
 import tunutech.api.services.ProjetLangueSourceService;
 
@@ -21,6 +22,8 @@ public class ProjetLangueSourceImpl implements ProjetLangueSourceService {
     private ProjetLangueSourceRepository projetLangueSourceRepository;
     @Autowired
     private LangueService langueService;
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
     @Override
     public List<Langue> Listofproject(Long idproject) {
         List<ProjetLangueSource> list=projetLangueSourceRepository.findByProjectId(idproject);
@@ -41,7 +44,9 @@ public class ProjetLangueSourceImpl implements ProjetLangueSourceService {
                 ProjetLangueSource projetLangueSource=new ProjetLangueSource();
                 projetLangueSource.setLangue(langue);
                 projetLangueSource.setProject(projetLangueSourceDto.getProject());
-                return projetLangueSourceRepository.save(projetLangueSource);
+                ProjetLangueSource saved=projetLangueSourceRepository.save(projetLangueSource);
+                analyticsRollupService.recordLangueUsage(saved.getProject(), langue.getId(), 1);
+                return saved;
             } throw  new RuntimeException("language exist for this Project");
 
     }
@@ -65,6 +70,10 @@ public class ProjetLangueSourceImpl implements ProjetLangueSourceService {
     @Override
     @Transactional
     public void deleteAllOfProject(Project project) {
+        for(ProjetLangueSource projetLangueSource:projetLangueSourceRepository.findByProjectId(project.getId()))
+        {
+            analyticsRollupService.recordLangueUsage(project, projetLangueSource.getLangue().getId(), -1);
+        }
         projetLangueSourceRepository.deleteAllByProject(project);
     }
 }
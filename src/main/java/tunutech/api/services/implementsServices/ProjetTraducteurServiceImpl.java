@@ -2,6 +2,7 @@ package tunutech.api.services.implementsServices;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import tunutech.api.dtos.ProjetTraducteurDto;
 import tunutech.api.model.*;
 import tunutech.api.repositories.ProjectRepository;
@@ -25,8 +26,9 @@ public class ProjetTraducteurServiceImpl implements ProjetTraducteurService {
     private ProjectRepository projectRepository;
 
     @Autowired
-    private ActivityService activityService;
+    private OutboxService outboxService;
     @Override
+    @Transactional
     public ProjetTraducteur create(ProjetTraducteurDto projetTraducteurDto) {
         Optional<Traducteur> traducteur=traducteurRepository.findById(projetTraducteurDto.getTraducteurId());
         Optional<Project> projet=projectRepository.findById(projetTraducteurDto.getProjectId());
@@ -45,7 +47,7 @@ public class ProjetTraducteurServiceImpl implements ProjetTraducteurService {
         projetTraducteur.setTraducteur(traducteur.get());
         projetTraducteur.setProject(projet.get());
         projetTraducteur.setUser(user);
-        activityService.logProjectActivity(user,ActivityType.PROJECT_ASSIGNED,projet.get().getTitle(),traducteur.get().getFullName(),projet.get().getId(),"Projet Attribué");
+        outboxService.publishProjectActivity(projet.get(),user,ActivityType.PROJECT_ASSIGNED,traducteur.get().getFullName(),"Projet Attribué");
         return projetTraducteurRepository.save(projetTraducteur);
     }
 
@@ -3,6 +3,7 @@ package tunutech.api.services.implementsServices;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import tunutech.api.Utils.FieldSelection;
 import tunutech.api.dtos.PaysResponsDTO;
 import tunutech.api.dtos.TraducteurDto;
 import tunutech.api.dtos.TraducteurResponseDto;
@@ -171,16 +172,29 @@ public class TraductionImpl implements TraducteurService {
 
     @Override
     public TraducteurResponseDto maptraducteur(Traducteur traducteur,Boolean end) {
+        return maptraducteur(traducteur, end, FieldSelection.all());
+    }
+
+    @Override
+    public TraducteurResponseDto maptraducteur(Traducteur traducteur, Boolean end, FieldSelection selection) {
 
-            List<Langue> langueList=traducteurLangueService.getOfTraducteursLanguages(traducteur.getId());
+            List<Langue> langueList=selection.includesAny("langues", "textlangues")
+                    ? traducteurLangueService.getOfTraducteursLanguages(traducteur.getId())
+                    : new ArrayList<>();
             TraducteurResponseDto traducteurResponseDto=new TraducteurResponseDto();
             traducteurResponseDto.setId(traducteur.getId());
-            Optional<User> user=userRepository.findByTraducteurId(traducteur.getId());
-            if(user.isPresent())
+            if(selection.includes("iduser"))
+            {
+                Optional<User> user=userRepository.findByTraducteurId(traducteur.getId());
+                if(user.isPresent())
+                {
+                    traducteurResponseDto.setIduser(user.get().getId());
+                }
+            }
+            if(selection.includes("nbproject"))
             {
-                traducteurResponseDto.setIduser(user.get().getId());
+                traducteurResponseDto.setNbproject(projetTraducteurService.NumberofTraducteur(traducteur,end));
             }
-            traducteurResponseDto.setNbproject(projetTraducteurService.NumberofTraducteur(traducteur,end));
             traducteurResponseDto.setIdentite(traducteur.getFirstname()+' '+traducteur.getLastname());
             String languestexte="";
             Integer intr=0;
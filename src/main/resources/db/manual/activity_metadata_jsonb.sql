@@ -0,0 +1,16 @@
+-- Script ponctuel : activity.metadata passe de json à jsonb et reçoit un index GIN (jsonb_path_ops)
+-- pour les filtres par contenance (@>). Réexécutable sans effet ; à lancer application arrêtée,
+-- la conversion de type réécrit la table sous verrou ACCESS EXCLUSIVE.
+BEGIN;
+
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = 'activity' AND column_name = 'metadata') = 'json' THEN
+        ALTER TABLE activity ALTER COLUMN metadata TYPE jsonb USING metadata::jsonb;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_activity_metadata_gin ON activity USING GIN (metadata jsonb_path_ops);
+
+COMMIT;
@@ -0,0 +1,47 @@
+-- Script ponctuel : conversion de activity en table partitionnée par mois (RANGE sur created_at).
+-- À exécuter une seule fois, application arrêtée (psql -v ON_ERROR_STOP=1 -f ...) : la recopie se fait
+-- sous verrou ACCESS EXCLUSIVE. Ensuite ActivityPartitionManager crée les partitions à venir,
+-- reclasse les lignes de la partition par défaut et applique la rétention.
+BEGIN;
+
+LOCK TABLE activity IN ACCESS EXCLUSIVE MODE;
+ALTER TABLE activity RENAME TO activity_legacy;
+UPDATE activity_legacy SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL;
+
+CREATE TABLE activity (LIKE activity_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+ALTER TABLE activity ALTER COLUMN created_at SET NOT NULL;
+-- Toute contrainte unique doit contenir la clé de partition
+ALTER TABLE activity ADD CONSTRAINT activity_part_pkey PRIMARY KEY (id, created_at);
+
+-- La colonne identity n'est pas recopiée : séquence dédiée, reprise après le plus grand id existant
+CREATE SEQUENCE IF NOT EXISTS activity_part_id_seq;
+ALTER TABLE activity ALTER COLUMN id SET DEFAULT nextval('activity_part_id_seq');
+ALTER SEQUENCE activity_part_id_seq OWNED BY activity.id;
+SELECT setval('activity_part_id_seq', COALESCE((SELECT max(id) FROM activity_legacy), 0) + 1, false);
+
+-- Partitions du plus ancien mois présent jusqu'à 3 mois à venir (app.activity.partitions.months-ahead)
+DO $$
+DECLARE
+    partition_month date := date_trunc('month', COALESCE((SELECT min(created_at) FROM activity_legacy), now()))::date;
+    last_month date := (date_trunc('month', now()) + interval '3 months')::date;
+BEGIN
+    WHILE partition_month <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF activity FOR VALUES FROM (%L) TO (%L)',
+                       'activity_p' || to_char(partition_month, 'YYYYMM'), partition_month,
+                       (partition_month + interval '1 month')::date);
+        partition_month := (partition_month + interval '1 month')::date;
+    END LOOP;
+END $$;
+CREATE TABLE IF NOT EXISTS activity_default PARTITION OF activity DEFAULT;
+
+INSERT INTO activity SELECT * FROM activity_legacy;
+DROP TABLE activity_legacy;
+
+-- Index déclarés sur la table mère : créés sur chaque partition
+CREATE INDEX IF NOT EXISTS idx_activity_created_at_id ON activity (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_activity_user_created_at_id ON activity (user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_activity_project_created_at_id ON activity (project_id, created_at, id);
+-- Unicité de uuid, avec la clé de partition imposée par PostgreSQL ; sert aussi les recherches par uuid
+CREATE UNIQUE INDEX IF NOT EXISTS uk_activity_uuid_created_at ON activity (uuid, created_at);
+
+COMMIT;
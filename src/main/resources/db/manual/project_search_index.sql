@@ -0,0 +1,70 @@
+-- Script ponctuel : index plein texte des projets. Colonne project.search_vector (tsvector) indexée
+-- en GIN et tenue à jour par des triggers. Pondération : code et titre (A), client - dénomination,
+-- prénom et nom (B), description (C), noms originaux des documents (D).
+-- Réexécutable sans effet ; la configuration de recherche doit correspondre à app.search.text-config.
+BEGIN;
+
+CREATE OR REPLACE FUNCTION project_search_config() RETURNS regconfig LANGUAGE sql IMMUTABLE AS $$
+    SELECT 'french'::regconfig
+$$;
+
+ALTER TABLE project ADD COLUMN IF NOT EXISTS search_vector tsvector;
+CREATE INDEX IF NOT EXISTS idx_project_search_vector ON project USING GIN (search_vector);
+
+-- Vecteur d'un projet à partir de ses colonnes, de son client et de ses documents
+CREATE OR REPLACE FUNCTION project_search_vector(p_id bigint, p_code text, p_title text,
+                                                 p_description text, p_idclient bigint) RETURNS tsvector LANGUAGE sql STABLE AS $$
+    SELECT setweight(to_tsvector(project_search_config(), coalesce(p_code, '')), 'A')
+        || setweight(to_tsvector(project_search_config(), coalesce(p_title, '')), 'A')
+        || setweight(to_tsvector(project_search_config(), coalesce((SELECT concat_ws(' ', c.denomination, c.firstname, c.lastname)
+                                                                    FROM client c WHERE c.id = p_idclient), '')), 'B')
+        || setweight(to_tsvector(project_search_config(), coalesce(p_description, '')), 'C')
+        || setweight(to_tsvector(project_search_config(), coalesce((SELECT string_agg(d.original_name, ' ')
+                                                                    FROM document d WHERE d.idprojet = p_id), '')), 'D')
+$$;
+
+CREATE OR REPLACE FUNCTION project_search_vector_trigger() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := project_search_vector(NEW.id, NEW.code, NEW.title, NEW.description, NEW.idclient);
+    RETURN NEW;
+END $$;
+DROP TRIGGER IF EXISTS trg_project_search_vector ON project;
+CREATE TRIGGER trg_project_search_vector BEFORE INSERT OR UPDATE OF code, title, description, idclient
+    ON project FOR EACH ROW EXECUTE FUNCTION project_search_vector_trigger();
+
+-- Documents et clients : recalcul des projets concernés
+CREATE OR REPLACE FUNCTION project_search_refresh(p_ids bigint[]) RETURNS void LANGUAGE sql AS $$
+    UPDATE project p SET search_vector = project_search_vector(p.id, p.code, p.title, p.description, p.idclient)
+    WHERE p.id = ANY(p_ids)
+$$;
+
+CREATE OR REPLACE FUNCTION document_search_trigger() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM project_search_refresh(ARRAY[OLD.idprojet]);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        PERFORM project_search_refresh(ARRAY[OLD.idprojet, NEW.idprojet]);
+    ELSE
+        PERFORM project_search_refresh(ARRAY[NEW.idprojet]);
+    END IF;
+    RETURN NEW;
+END $$;
+DROP TRIGGER IF EXISTS trg_document_search ON document;
+CREATE TRIGGER trg_document_search AFTER INSERT OR DELETE OR UPDATE OF original_name, idprojet
+    ON document FOR EACH ROW EXECUTE FUNCTION document_search_trigger();
+
+CREATE OR REPLACE FUNCTION client_search_trigger() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM project_search_refresh(ARRAY(SELECT p.id FROM project p WHERE p.idclient = NEW.id));
+    RETURN NEW;
+END $$;
+DROP TRIGGER IF EXISTS trg_client_search ON client;
+CREATE TRIGGER trg_client_search AFTER UPDATE OF denomination, firstname, lastname ON client
+    FOR EACH ROW EXECUTE FUNCTION client_search_trigger();
+
+-- Projets existants (et réindexation complète si la pondération a changé)
+UPDATE project p SET search_vector = project_search_vector(p.id, p.code, p.title, p.description, p.idclient);
+
+COMMIT;
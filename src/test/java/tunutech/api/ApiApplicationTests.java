@@ -1,9 +1,15 @@
 package tunutech.api;
 
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
 
 @SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
 class ApiApplicationTests {
 
 	@Test
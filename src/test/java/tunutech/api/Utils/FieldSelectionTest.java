@@ -0,0 +1,145 @@
+package tunutech.api.Utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldSelectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void missingParameterSelectsEverything() {
+        FieldSelection selection = FieldSelection.parse(" ", ProjectDto.class);
+
+        assertThat(selection.isAll()).isTrue();
+        assertThat(selection.includes("anything")).isTrue();
+        assertThat(selection.apply(project(), objectMapper)).isInstanceOf(ProjectDto.class);
+    }
+
+    @Test
+    void unknownFieldsAreRejected() {
+        for (String fields : new String[]{"title,nope", "client.nope", "title.length", "client.", "status.name"}) {
+            assertThatThrownBy(() -> FieldSelection.parse(fields, ProjectDto.class))
+                    .as(fields)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageStartingWith("Champ inconnu: ");
+        }
+    }
+
+    @Test
+    void topLevelSelectionAlwaysKeepsId() {
+        FieldSelection selection = FieldSelection.parse("title, status,", ProjectDto.class);
+
+        JsonNode json = (JsonNode) selection.apply(project(), objectMapper);
+
+        assertThat(fieldNames(json)).containsExactlyInAnyOrder("id", "title", "status");
+        assertThat(selection.includes("client")).isFalse();
+        assertThat(selection.includesAny("client", "title")).isTrue();
+    }
+
+    @Test
+    void nestedPathsTrimObjectsListElementsAndOptionals() {
+        FieldSelection selection = FieldSelection.parse("client.email,documents.name,translator.name", ProjectDto.class);
+
+        JsonNode json = (JsonNode) selection.apply(project(), objectMapper);
+
+        assertThat(fieldNames(json)).containsExactlyInAnyOrder("id", "client", "documents", "translator");
+        assertThat(fieldNames(json.get("client"))).containsExactly("email");
+        assertThat(json.get("documents")).hasSize(2);
+        json.get("documents").forEach(document -> assertThat(fieldNames(document)).containsExactly("name"));
+        assertThat(fieldNames(json.get("translator"))).containsExactly("name");
+        // Le champ parent est considéré comme demandé pour le chargement
+        assertThat(selection.includes("client")).isTrue();
+        assertThat(selection.includes("documents")).isTrue();
+    }
+
+    @Test
+    void wholeFieldWinsOverNestedPath() {
+        FieldSelection selection = FieldSelection.parse("client.email,client", ProjectDto.class);
+
+        JsonNode json = (JsonNode) selection.apply(project(), objectMapper);
+
+        assertThat(fieldNames(json.get("client"))).containsExactlyInAnyOrder("id", "email", "denomination");
+    }
+
+    @Test
+    void nullNestedValuesAreKept() {
+        ProjectDto project = project();
+        project.client = null;
+
+        JsonNode json = (JsonNode) FieldSelection.parse("client.email", ProjectDto.class).apply(project, objectMapper);
+
+        assertThat(json.get("client").isNull()).isTrue();
+    }
+
+    @Test
+    void listApplyTrimsEachElement() {
+        List<Object> trimmed = FieldSelection.parse("title", ProjectDto.class).apply(List.of(project(), project()), objectMapper);
+
+        assertThat(trimmed).hasSize(2).allSatisfy(json -> assertThat(fieldNames((JsonNode) json)).containsExactlyInAnyOrder("id", "title"));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static ProjectDto project() {
+        ProjectDto project = new ProjectDto();
+        project.id = 1L;
+        project.title = "Traduction contrat";
+        project.status = Status.ACTIVE;
+        project.client = new ClientDto();
+        project.client.id = 2L;
+        project.client.email = "contact@acme.test";
+        project.client.denomination = "Acme";
+        DocumentDto first = new DocumentDto();
+        first.id = 3L;
+        first.name = "contrat.pdf";
+        DocumentDto second = new DocumentDto();
+        second.id = 4L;
+        second.name = "annexe.pdf";
+        project.documents = List.of(first, second);
+        TranslatorDto translator = new TranslatorDto();
+        translator.id = 5L;
+        translator.name = "Marie";
+        project.translator = Optional.of(translator);
+        return project;
+    }
+
+    enum Status { ACTIVE }
+
+    static class ProjectDto {
+        public Long id;
+        public String title;
+        public Status status;
+        public ClientDto client;
+        public List<DocumentDto> documents;
+        public Optional<TranslatorDto> translator;
+    }
+
+    static class ClientDto {
+        public Long id;
+        public String email;
+        public String denomination;
+    }
+
+    static class DocumentDto {
+        public Long id;
+        public String name;
+    }
+
+    static class TranslatorDto {
+        public Long id;
+        public String name;
+    }
+}
@@ -0,0 +1,84 @@
+package tunutech.api.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimateStaysWithinThreeStandardErrors() {
+        // Erreur type ~1,6 % en précision 12 : 5 % couvre plus de trois écarts types
+        for (int cardinality : new int[]{1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (long id = 1; id <= cardinality; id++) {
+                sketch.add(id);
+            }
+            assertThat((double) sketch.estimate()).isCloseTo(cardinality, within(cardinality * 0.05));
+        }
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertThat(sketch.estimate()).isZero();
+        for (long id = 1; id <= 50; id++) {
+            sketch.add(id);
+        }
+        assertThat(sketch.estimate()).isBetween(49L, 51L);
+    }
+
+    @Test
+    void duplicatesDoNotChangeEstimate() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 5_000; id++) {
+            sketch.add(id);
+        }
+        long estimate = sketch.estimate();
+        for (long id = 1; id <= 5_000; id++) {
+            assertThat(sketch.add(id)).isFalse();
+        }
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void mergeIsCommutativeAndEstimatesUnion() {
+        HyperLogLog left = sketchOf(1, 30_000);
+        HyperLogLog right = sketchOf(20_001, 50_000);
+
+        byte[] leftThenRight = sketchOf(1, 30_000).merge(right).toBytes();
+        byte[] rightThenLeft = sketchOf(20_001, 50_000).merge(left).toBytes();
+
+        assertThat(leftThenRight).isEqualTo(rightThenLeft);
+        assertThat(leftThenRight).isEqualTo(sketchOf(1, 50_000).toBytes());
+        assertThat((double) HyperLogLog.fromBytes(leftThenRight).estimate()).isCloseTo(50_000, within(2_500.0));
+    }
+
+    @Test
+    void bytesRoundTripPreservesRegisters() {
+        HyperLogLog sketch = sketchOf(1, 12_345);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored.toBytes()).isEqualTo(sketch.toBytes());
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        assertThat(HyperLogLog.fromBytes(null).isEmpty()).isTrue();
+        assertThat(HyperLogLog.fromBytes(new byte[0]).isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsForeignPayload() {
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{12, 0, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HyperLogLog sketchOf(long from, long to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = from; id <= to; id++) {
+            sketch.add(id);
+        }
+        return sketch;
+    }
+}
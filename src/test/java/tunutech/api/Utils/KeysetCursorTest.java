@@ -0,0 +1,55 @@
+package tunutech.api.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripKeepsMicrosecondsAndId() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 10, 17, 9, 30, 15, 123_456_000), 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripKeepsWholeSecondsAndMinutes() {
+        // LocalDateTime.toString omet les secondes nulles : le décodage doit les accepter
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 1, 1, 0, 0), Long.MAX_VALUE);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(LocalDateTime.of(2026, 10, 17, 23, 59, 59, 999_999_000), 9_999_999L).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2026-10-17T09:30".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2026-10-17T09:30|abc".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[]{"%%%", noSeparator, badId}) {
+            assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Curseur de pagination invalide");
+        }
+    }
+}
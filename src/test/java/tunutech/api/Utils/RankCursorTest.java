@@ -0,0 +1,47 @@
+package tunutech.api.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RankCursorTest {
+
+    @Test
+    void roundTripKeepsEveryBitOfTheRank() {
+        float[] ranks = {0.0607927106f, 1f / 3f, Math.nextUp(0.1f), Float.MIN_VALUE, 0f, 12345.678f};
+
+        for (float rank : ranks) {
+            RankCursor decoded = RankCursor.decode(new RankCursor(rank, 7L).encode());
+
+            assertThat(Float.floatToRawIntBits(decoded.rank())).isEqualTo(Float.floatToRawIntBits(rank));
+            assertThat(decoded.id()).isEqualTo(7L);
+        }
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        assertThat(new RankCursor(0.0607927106f, Long.MAX_VALUE).encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertThat(RankCursor.decode(null)).isNull();
+        assertThat(RankCursor.decode("")).isNull();
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String decimalRank = Base64.getUrlEncoder().encodeToString("0.5|3".getBytes(StandardCharsets.UTF_8));
+        String noSeparator = Base64.getUrlEncoder().encodeToString("3d800000".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[]{"%%%", decimalRank, noSeparator}) {
+            assertThatThrownBy(() -> RankCursor.decode(cursor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Curseur de pagination invalide");
+        }
+    }
+}
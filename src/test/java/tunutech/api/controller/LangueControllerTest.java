@@ -0,0 +1,70 @@
+package tunutech.api.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tunutech.api.model.AggregateType;
+import tunutech.api.services.LangueService;
+import tunutech.api.services.implementsServices.AggregateVersions;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Réponses conditionnelles sur les ETags versionnés : 304 sans lecture tant que LANGUE ne change pas
+ */
+class LangueControllerTest {
+
+    private final LangueService langueService = mock(LangueService.class);
+    private final AggregateVersions aggregateVersions = new AggregateVersions();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        LangueController controller = new LangueController();
+        ReflectionTestUtils.setField(controller, "langueService", langueService);
+        ReflectionTestUtils.setField(controller, "aggregateVersions", aggregateVersions);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        when(langueService.listall()).thenReturn(List.of());
+    }
+
+    @Test
+    void matchingEtagGetsNotModifiedWithoutQuery() throws Exception {
+        MvcResult first = mockMvc.perform(get("/language/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/language/all").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(langueService, times(1)).listall();
+    }
+
+    @Test
+    void writeToAggregateInvalidatesEtag() throws Exception {
+        String etag = mockMvc.perform(get("/language/all")).andReturn().getResponse().getHeader("ETag");
+
+        aggregateVersions.bump(AggregateType.LANGUE);
+
+        mockMvc.perform(get("/language/all").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+        verify(langueService, times(2)).listall();
+    }
+}
@@ -0,0 +1,102 @@
+package tunutech.api.repositories;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import tunutech.api.Utils.KeysetCursor;
+import tunutech.api.model.Activity;
+import tunutech.api.model.ActivityGroup;
+import tunutech.api.model.ActivityType;
+import tunutech.api.model.RoleUser;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
+import tunutech.api.services.implementsServices.AggregateVersions;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pagination par curseur (created_at, id) du fil d'activités sur un PostgreSQL embarqué,
+ * avec des dates identiques à cheval sur plusieurs pages
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import({AggregateVersions.class, AggregateVersionListener.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class ActivityFeedRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 17, 9, 30, 15, 123_456_000);
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void feedPagesThroughEqualTimestampsWithoutGapsOrDuplicates() {
+        List<Long> expected = new ArrayList<>();
+        // Trois activités par instant : les égalités de created_at sont départagées par l'id
+        for (int second = 0; second < 4; second++) {
+            for (int i = 0; i < 3; i++) {
+                expected.add(0, save(1L, BASE.plusSeconds(second)).getId());
+            }
+        }
+
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        List<Activity> page = activityRepository.findFeedFirst(5);
+        while (!page.isEmpty() && seen.size() <= expected.size()) {
+            page.forEach(activity -> seen.add(activity.getId()));
+            Activity last = page.get(page.size() - 1);
+            // Même aller-retour que le curseur renvoyé au client
+            KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+            page = activityRepository.findFeedAfter(cursor.createdAt(), cursor.id(), 5);
+        }
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void userFeedOnlyReturnsThatUsersRows() {
+        Long mine = save(1L, BASE).getId();
+        save(2L, BASE);
+        Long older = save(1L, BASE.minusMinutes(1)).getId();
+        entityManager.clear();
+
+        List<Activity> first = activityRepository.findUserFeedFirst(1L, 1);
+        List<Activity> next = activityRepository.findUserFeedAfter(1L, first.get(0).getCreatedAt(), first.get(0).getId(), 10);
+
+        assertThat(first).extracting(Activity::getId).containsExactly(mine);
+        assertThat(next).extracting(Activity::getId).containsExactly(older);
+    }
+
+    private Activity save(Long userId, LocalDateTime createdAt) {
+        Activity activity = new Activity();
+        activity.setUuid(UUID.randomUUID().toString());
+        activity.setType(ActivityType.USER_UPDATED);
+        activity.setCategory(ActivityGroup.USER);
+        activity.setUserId(userId);
+        activity.setUserName("Test");
+        activity.setUserRole(RoleUser.CLIENT);
+        activity.setTitle("Profil mis à jour");
+        activityRepository.saveAndFlush(activity);
+        // created_at est posé par @CreationTimestamp : on impose la date voulue
+        jdbcTemplate.update("UPDATE activity SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), activity.getId());
+        return activity;
+    }
+}
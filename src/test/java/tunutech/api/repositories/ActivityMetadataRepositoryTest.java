@@ -0,0 +1,75 @@
+package tunutech.api.repositories;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tunutech.api.model.Activity;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
+import tunutech.api.services.implementsServices.AggregateVersions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Script de conversion json -> jsonb de activity.metadata puis filtres par contenance, sur un PostgreSQL embarqué
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import({AggregateVersions.class, AggregateVersionListener.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ActivityMetadataRepositoryTest {
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Hors transaction de test : les lignes à id explicite gêneraient les autres tests du même contexte
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM activity");
+    }
+
+    @Test
+    void scriptConvertsJsonColumnAndIsRerunnable() throws IOException {
+        // Schéma antérieur : metadata en json
+        jdbcTemplate.execute("ALTER TABLE activity ALTER COLUMN metadata TYPE json USING metadata::json");
+        insert(1L, "{\"documentId\": 12, \"format\": \"pdf\"}");
+        insert(2L, "{\"documentId\": \"12\"}");
+        insert(3L, "{\"documentId\": 13}");
+
+        runScript();
+        runScript();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT data_type FROM information_schema.columns " +
+                "WHERE table_name = 'activity' AND column_name = 'metadata'", String.class)).isEqualTo("jsonb");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM pg_indexes WHERE indexname = 'idx_activity_metadata_gin'",
+                Long.class)).isEqualTo(1);
+        assertThat(activityRepository.findByMetadataFirst("{\"documentId\": 12}", "{\"documentId\": \"12\"}", 10))
+                .extracting(Activity::getId).containsExactly(2L, 1L);
+    }
+
+    private void runScript() throws IOException {
+        jdbcTemplate.execute(new String(new ClassPathResource("db/manual/activity_metadata_jsonb.sql")
+                .getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private void insert(Long id, String metadata) {
+        jdbcTemplate.update("INSERT INTO activity (id, uuid, type, category, user_id, user_name, user_role, title, created_at, metadata) " +
+                "VALUES (?, ?, 'USER_UPDATED', 'USER', 1, 'Test', 'CLIENT', 'Profil mis à jour', now() + ? * interval '1 second', " +
+                "CAST(? AS json))", id, "uuid-" + id, id.intValue(), metadata);
+    }
+}
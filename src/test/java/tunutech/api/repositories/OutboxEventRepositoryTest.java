@@ -0,0 +1,96 @@
+package tunutech.api.repositories;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import tunutech.api.model.OutboxEvent;
+import tunutech.api.model.OutboxEventType;
+import tunutech.api.model.OutboxStatus;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
+import tunutech.api.services.implementsServices.AggregateVersions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Requêtes du relais outbox sur un PostgreSQL embarqué : événements échus, têtes d'agrégat retenues, purge
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import({AggregateVersions.class, AggregateVersionListener.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void dueEventsSkipPendingRetriesAndKeepIdOrder() {
+        OutboxEvent first = save(10L, OutboxStatus.PENDING, null);
+        OutboxEvent waiting = save(20L, OutboxStatus.PENDING, now.plusMinutes(5));
+        OutboxEvent due = save(30L, OutboxStatus.PENDING, now.minusSeconds(1));
+        save(40L, OutboxStatus.PROCESSED, null);
+
+        List<OutboxEvent> events = outboxEventRepository.findDueByStatusOrderByIdAsc(OutboxStatus.PENDING, now,
+                PageRequest.of(0, 10));
+
+        assertThat(events).extracting(OutboxEvent::getId).containsExactly(first.getId(), due.getId());
+        assertThat(events).extracting(OutboxEvent::getId).doesNotContain(waiting.getId());
+    }
+
+    @Test
+    void heldHeadsReportFirstFailedOrWaitingEventPerAggregate() {
+        OutboxEvent failedHead = save(10L, OutboxStatus.FAILED, null);
+        save(10L, OutboxStatus.PENDING, null);
+        OutboxEvent waitingHead = save(20L, OutboxStatus.PENDING, now.plusMinutes(1));
+        save(30L, OutboxStatus.PENDING, now.minusMinutes(1));
+
+        List<Object[]> heads = outboxEventRepository.findHeldAggregateHeads(OutboxStatus.FAILED, OutboxStatus.PENDING, now);
+
+        assertThat(heads).hasSize(2);
+        assertThat(heads).anySatisfy(row -> {
+            assertThat(row[1]).isEqualTo(10L);
+            assertThat(((Number) row[2]).longValue()).isEqualTo(failedHead.getId());
+        });
+        assertThat(heads).anySatisfy(row -> {
+            assertThat(row[1]).isEqualTo(20L);
+            assertThat(((Number) row[2]).longValue()).isEqualTo(waitingHead.getId());
+        });
+    }
+
+    @Test
+    void purgeDeletesOnlyOldProcessedEvents() {
+        OutboxEvent old = save(10L, OutboxStatus.PROCESSED, null);
+        old.setProcessedAt(now.minusDays(8));
+        OutboxEvent recent = save(20L, OutboxStatus.PROCESSED, null);
+        recent.setProcessedAt(now.minusDays(1));
+        OutboxEvent failed = save(30L, OutboxStatus.FAILED, null);
+        outboxEventRepository.flush();
+
+        int deleted = outboxEventRepository.deleteProcessedBefore(OutboxStatus.PROCESSED, now.minusDays(7));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getId)
+                .containsExactlyInAnyOrder(recent.getId(), failed.getId());
+    }
+
+    private OutboxEvent save(Long aggregateId, OutboxStatus status, LocalDateTime nextAttemptAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType("PROJECT");
+        event.setAggregateId(aggregateId);
+        event.setEventType(OutboxEventType.PROJECT_ACTIVITY);
+        event.setStatus(status);
+        event.setNextAttemptAt(nextAttemptAt);
+        event.setCreatedAt(now);
+        return outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,198 @@
+package tunutech.api.repositories;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import tunutech.api.Utils.RankCursor;
+import tunutech.api.model.*;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
+import tunutech.api.services.implementsServices.AggregateVersions;
+import tunutech.api.services.implementsServices.ProjectSearchIndex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recherche plein texte des projets sur un PostgreSQL embarqué : triggers du script db/manual/project_search_index.sql,
+ * classement et pagination (rang, id) de ProjectRepository.searchFirst / searchAfter
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import({ProjectSearchIndex.class, AggregateVersions.class, AggregateVersionListener.class})
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.search.text-config=simple"
+})
+class ProjectSearchRepositoryTest {
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private ProjectSearchIndex projectSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Client client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        runScript();
+        client = new Client();
+        client.setFirstname("Jean");
+        client.setLastname("Dupont");
+        client.setDenomination("Acme Traductions");
+        client.setEmail("contact@acme.test");
+        client.setTelephone("0600000000");
+        client.setSexe("M");
+        client.setPays("France");
+        client.setAdresse("1 rue de la Paix");
+        client.setSecteur("Juridique");
+        client = clientRepository.saveAndFlush(client);
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        Project inDescription = save("PJ-1-AAA", "Rapport annuel", "Traduction du contrat de bail commercial");
+        Project inTitle = save("PJ-1-BBB", "Contrat de bail", "Version anglaise");
+        save("PJ-1-CCC", "Notice technique", "Manuel utilisateur");
+
+        List<Object[]> rows = projectRepository.searchFirst(config(), "bail", 10);
+
+        assertThat(rows).extracting(row -> ((Number) row[0]).longValue())
+                .containsExactly(inTitle.getId(), inDescription.getId());
+    }
+
+    @Test
+    void matchesCodeClientAndDocumentNames() {
+        Project project = save("PJ-7-XYZ", "Brochure", "Plaquette commerciale");
+        Document document = new Document();
+        document.setOriginalName("statuts_societe.pdf");
+        document.setWordsCount(100F);
+        document.setProject(project);
+        document.setStoredName("stored.pdf");
+        document.setFilePath("/tmp/stored.pdf");
+        document.setFileSize(10L);
+        document.setTypeDocument(TypeDocument.values()[0]);
+        documentRepository.saveAndFlush(document);
+
+        assertThat(ids("acme")).containsExactly(project.getId());
+        assertThat(ids("brochure")).containsExactly(project.getId());
+        assertThat(ids("statuts_societe.pdf")).containsExactly(project.getId());
+
+        assertThat(ids("dupont")).containsExactly(project.getId());
+
+        jdbcTemplate.update("UPDATE client SET denomination = 'Globex' WHERE id = ?", client.getId());
+        assertThat(ids("acme")).isEmpty();
+        assertThat(ids("globex")).containsExactly(project.getId());
+
+        jdbcTemplate.update("UPDATE client SET lastname = 'Martin' WHERE id = ?", client.getId());
+        assertThat(ids("dupont")).isEmpty();
+        assertThat(ids("martin")).containsExactly(project.getId());
+    }
+
+    @Test
+    void scriptIsRerunnableAndIndexesExistingProjects() throws IOException {
+        Project project = save("PJ-3-AAA", "Catalogue", "Fiches produit");
+        jdbcTemplate.update("UPDATE project SET search_vector = NULL WHERE id = ?", project.getId());
+        assertThat(ids("catalogue")).isEmpty();
+
+        runScript();
+
+        assertThat(ids("catalogue")).containsExactly(project.getId());
+    }
+
+    @Test
+    void cursorRankResumesExactlyAfterUnevenRanks() {
+        // Rangs à nombreuses décimales : le curseur doit reprendre strictement après le dernier lu
+        save("PJ-4-A", "Audit audit", "Audit des comptes de l'exercice et de la filiale");
+        save("PJ-4-B", "Audit", "Rapport d'audit interne du groupe industriel");
+        save("PJ-4-C", "Synthese", "Conclusions de l'audit");
+        List<Object[]> all = projectRepository.searchFirst(config(), "audit", 10);
+        assertThat(all).hasSize(3);
+
+        for (int i = 0; i < all.size() - 1; i++) {
+            Object[] row = all.get(i);
+            RankCursor cursor = RankCursor.decode(new RankCursor(((Number) row[1]).floatValue(),
+                    ((Number) row[0]).longValue()).encode());
+            List<Object[]> after = projectRepository.searchAfter(config(), "audit", cursor.rank(), cursor.id(), 10);
+
+            assertThat(after).extracting(r -> ((Number) r[0]).longValue())
+                    .containsExactlyElementsOf(all.subList(i + 1, all.size()).stream()
+                            .map(r -> ((Number) r[0]).longValue()).toList());
+        }
+    }
+
+    @Test
+    void pagesThroughEqualRanksWithoutGapsOrDuplicates() {
+        for (int i = 0; i < 5; i++) {
+            save("PJ-2-" + i, "Glossaire juridique " + i, "Lexique");
+        }
+
+        List<Object[]> first = projectRepository.searchFirst(config(), "glossaire", 2);
+        Object[] last = first.get(first.size() - 1);
+        List<Object[]> second = projectRepository.searchAfter(config(), "glossaire",
+                ((Number) last[1]).floatValue(), ((Number) last[0]).longValue(), 10);
+
+        assertThat(first).hasSize(2);
+        assertThat(second).hasSize(3);
+        assertThat(second).extracting(row -> ((Number) row[0]).longValue())
+                .doesNotContainAnyElementsOf(first.stream().map(row -> ((Number) row[0]).longValue()).toList())
+                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+
+    private void runScript() throws IOException {
+        // Le script fixe la configuration french ; les tests tournent avec simple et dans la transaction
+        // du test (annulée à la fin) plutôt que dans celle du script
+        String script = new String(new ClassPathResource("db/manual/project_search_index.sql")
+                .getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        jdbcTemplate.execute(script
+                .replace("'french'::regconfig", "'" + config() + "'::regconfig")
+                .replace("BEGIN;\n", "")
+                .replace("COMMIT;\n", ""));
+    }
+
+    private List<Long> ids(String text) {
+        return projectRepository.searchFirst(config(), text, 10).stream()
+                .map(row -> ((Number) row[0]).longValue())
+                .toList();
+    }
+
+    private String config() {
+        return projectSearchIndex.getTextSearchConfig();
+    }
+
+    private Project save(String code, String title, String description) {
+        Project project = new Project();
+        project.setCode(code);
+        project.setTitle(title);
+        project.setDescription(description);
+        project.setClient(client);
+        project.setProjectStatus(ProjectStatus.PENDING);
+        project.setTypeDocument(TypeDocument.values()[0]);
+        project.setPriorityType(PriorityType.values()[0]);
+        project.setWordscount(100F);
+        project.setPriceperWord(0.1F);
+        project.setEstimatedPrice(10F);
+        project.setDatevoulue(new Date());
+        return projectRepository.saveAndFlush(project);
+    }
+}
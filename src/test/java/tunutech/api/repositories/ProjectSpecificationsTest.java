@@ -0,0 +1,232 @@
+package tunutech.api.repositories;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import tunutech.api.Utils.DateComparisonUtils;
+import tunutech.api.Utils.KeysetCursor;
+import tunutech.api.dtos.ProjectFilterDto;
+import tunutech.api.model.*;
+import tunutech.api.services.implementsServices.AggregateVersionListener;
+import tunutech.api.services.implementsServices.AggregateVersions;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Liste paginée des projets sur un PostgreSQL embarqué : chaque filtre de ProjectSpecifications.matching,
+ * combiné à la reprise (created_at, id) de ProjectSpecifications.after et au curseur encodé, comme ProjectImpl.listPage
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import({AggregateVersions.class, AggregateVersionListener.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class ProjectSpecificationsTest {
+
+    // Trois instants partagés par plusieurs projets, avec microsecondes, et des bornes de jour exactes
+    private static final LocalDateTime DAY_START = LocalDate.of(2026, 3, 10).atStartOfDay();
+    private static final LocalDateTime SHARED = LocalDateTime.of(2026, 3, 11, 9, 15, 30, 123_456_000);
+    private static final LocalDateTime DAY_END = LocalDate.of(2026, 3, 12).atTime(23, 59, 59, 999_999_000);
+    private static final LocalDateTime NEXT_DAY = LocalDate.of(2026, 3, 13).atStartOfDay();
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Row> rows = new ArrayList<>();
+    private Client client;
+    private Client otherClient;
+    private Traducteur traducteur;
+    private Langue francais;
+    private Langue anglais;
+
+    /**
+     * Projet tel que vu par le test : clé de tri et associations servant aux filtres
+     */
+    private record Row(Long id, LocalDateTime createdAt, LocalDate deadline, ProjectStatus status, Long clientId,
+                       boolean assigned, boolean frenchSource, boolean englishTarget) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        client = client("a@acme.test");
+        otherClient = client("b@acme.test");
+        traducteur = new Traducteur();
+        traducteur.setFirstname("Marie");
+        traducteur.setLastname("Curie");
+        traducteur.setEmail("marie@acme.test");
+        traducteur.setTelephone("0611111111");
+        traducteur.setSexe("F");
+        traducteur.setPays("France");
+        traducteur.setAdresse("2 rue de Rivoli");
+        entityManager.persist(traducteur);
+        francais = langue("Français", "fr");
+        anglais = langue("Anglais", "en");
+
+        LocalDateTime[] instants = {DAY_START, SHARED, SHARED, SHARED, SHARED, DAY_END, DAY_END, NEXT_DAY, SHARED, DAY_START};
+        for (int i = 0; i < instants.length; i++) {
+            save(instants[i], LocalDate.of(2026, 4, 1 + i % 4), i % 3 == 0 ? ProjectStatus.IN_PROGRESS : ProjectStatus.PENDING,
+                    i % 4 == 0 ? otherClient : client, i % 2 == 0, i % 3 != 1, i % 2 == 1);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesThroughEqualTimestampsWithoutFilters() {
+        assertPagesMatch(filter -> { }, row -> true);
+    }
+
+    @Test
+    void pagesWithinTranslatorAndLanguageSubqueries() {
+        assertPagesMatch(filter -> filter.setTraducteurId(traducteur.getId()), Row::assigned);
+        assertPagesMatch(filter -> filter.setSourceLangueId(francais.getId()), Row::frenchSource);
+        assertPagesMatch(filter -> filter.setTargetLangueId(anglais.getId()), Row::englishTarget);
+        assertPagesMatch(filter -> {
+            filter.setTraducteurId(traducteur.getId());
+            filter.setSourceLangueId(francais.getId());
+        }, row -> row.assigned() && row.frenchSource());
+    }
+
+    @Test
+    void pagesWithinStatusAndClient() {
+        assertPagesMatch(filter -> filter.setStatus(ProjectStatus.IN_PROGRESS), row -> row.status() == ProjectStatus.IN_PROGRESS);
+        assertPagesMatch(filter -> filter.setClientId(client.getId()), row -> row.clientId().equals(client.getId()));
+    }
+
+    @Test
+    void dateBoundsIncludeWholeDays() {
+        // [10 mars 00:00, 12 mars 23:59:59.999999] inclus ; 13 mars 00:00 exclu
+        assertPagesMatch(filter -> {
+            filter.setCreatedFrom(LocalDate.of(2026, 3, 10));
+            filter.setCreatedTo(LocalDate.of(2026, 3, 12));
+        }, row -> row.createdAt().isBefore(NEXT_DAY));
+        assertPagesMatch(filter -> filter.setCreatedFrom(LocalDate.of(2026, 3, 11)), row -> !row.createdAt().isBefore(SHARED));
+        assertPagesMatch(filter -> filter.setCreatedTo(LocalDate.of(2026, 3, 11)), row -> !row.createdAt().isAfter(SHARED));
+        assertPagesMatch(filter -> {
+            filter.setDeadlineFrom(LocalDate.of(2026, 4, 2));
+            filter.setDeadlineTo(LocalDate.of(2026, 4, 3));
+        }, row -> !row.deadline().isBefore(LocalDate.of(2026, 4, 2)) && !row.deadline().isAfter(LocalDate.of(2026, 4, 3)));
+
+        ProjectFilterDto filter = new ProjectFilterDto();
+        filter.setCreatedFrom(LocalDate.of(2026, 3, 13));
+        assertThat(pageAll(filter, 100)).hasSize(1);
+    }
+
+    /**
+     * Pour plusieurs tailles de page : ni trou ni doublon, ordre (created_at, id) décroissant, mêmes lignes qu'en une page
+     */
+    private void assertPagesMatch(Consumer<ProjectFilterDto> filterSetup, Predicate<Row> expected) {
+        ProjectFilterDto filter = new ProjectFilterDto();
+        filterSetup.accept(filter);
+        List<Long> expectedIds = rows.stream()
+                .filter(expected)
+                .sorted(Comparator.comparing(Row::createdAt).thenComparing(Row::id).reversed())
+                .map(Row::id)
+                .toList();
+        assertThat(expectedIds).isNotEmpty();
+
+        for (int size : new int[]{1, 2, 3, 100}) {
+            assertThat(pageAll(filter, size)).as("taille de page %d", size).containsExactlyElementsOf(expectedIds);
+        }
+    }
+
+    // Même enchaînement que ProjectImpl.listPage, curseur encodé puis décodé entre deux pages
+    private List<Long> pageAll(ProjectFilterDto filter, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            Specification<Project> spec = ProjectSpecifications.matching(filter);
+            if (position != null) {
+                spec = spec.and(ProjectSpecifications.after(position));
+            }
+            List<Project> page = projectRepository.findBy(spec, query -> query
+                    .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                    .limit(size + 1)
+                    .all());
+            boolean hasMore = page.size() > size;
+            page = hasMore ? page.subList(0, size) : page;
+            page.forEach(project -> ids.add(project.getId()));
+            cursor = null;
+            if (hasMore) {
+                Project last = page.get(page.size() - 1);
+                cursor = new KeysetCursor(DateComparisonUtils.toLocalDateTimeFromSql(last.getCreatedAt()), last.getId()).encode();
+            }
+            assertThat(ids.size()).as("pagination sans fin").isLessThanOrEqualTo(rows.size());
+        } while (cursor != null);
+        return ids;
+    }
+
+    private void save(LocalDateTime createdAt, LocalDate deadline, ProjectStatus status, Client owner,
+                      boolean assigned, boolean frenchSource, boolean englishTarget) {
+        Project project = new Project();
+        project.setCode("PJ-" + rows.size());
+        project.setTitle("Projet " + rows.size());
+        project.setDescription("Description");
+        project.setClient(owner);
+        project.setProjectStatus(status);
+        project.setTypeDocument(TypeDocument.values()[0]);
+        project.setPriorityType(PriorityType.values()[0]);
+        project.setWordscount(100F);
+        project.setPriceperWord(0.1F);
+        project.setEstimatedPrice(10F);
+        project.setDatevoulue(DateComparisonUtils.toDate(deadline));
+        entityManager.persistAndFlush(project);
+        jdbcTemplate.update("UPDATE project SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), project.getId());
+        if (assigned) {
+            ProjetTraducteur projetTraducteur = new ProjetTraducteur();
+            projetTraducteur.setProject(project);
+            projetTraducteur.setTraducteur(traducteur);
+            entityManager.persist(projetTraducteur);
+        }
+        ProjetLangueSource source = new ProjetLangueSource();
+        source.setProject(project);
+        source.setLangue(frenchSource ? francais : anglais);
+        entityManager.persist(source);
+        ProjetLangueCible cible = new ProjetLangueCible();
+        cible.setProject(project);
+        cible.setLangue(englishTarget ? anglais : francais);
+        entityManager.persist(cible);
+        rows.add(new Row(project.getId(), createdAt, deadline, status, owner.getId(), assigned, frenchSource, englishTarget));
+    }
+
+    private Client client(String email) {
+        Client owner = new Client();
+        owner.setFirstname("Jean");
+        owner.setLastname("Dupont");
+        owner.setEmail(email);
+        owner.setTelephone("0600000000");
+        owner.setPays("France");
+        owner.setAdresse("1 rue de la Paix");
+        owner.setSecteur("Juridique");
+        return entityManager.persist(owner);
+    }
+
+    private Langue langue(String name, String code) {
+        Langue langue = new Langue();
+        langue.setName(name);
+        langue.setCode(code);
+        return entityManager.persist(langue);
+    }
+}
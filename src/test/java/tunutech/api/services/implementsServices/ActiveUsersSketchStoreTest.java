@@ -0,0 +1,68 @@
+package tunutech.api.services.implementsServices;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import tunutech.api.Utils.HyperLogLog;
+import tunutech.api.repositories.AnalyticsDailyRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActiveUsersSketchStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 17);
+
+    private final AnalyticsDailyRepository repository = mock(AnalyticsDailyRepository.class);
+    private final AnalyticsResponseCache cache = mock(AnalyticsResponseCache.class);
+    private final ActiveUsersSketchStore store = new ActiveUsersSketchStore(repository, cache,
+            mock(AnalyticsLivePublisher.class), mock(PlatformTransactionManager.class));
+
+    @Test
+    void shutdownFlushPersistsPendingSketches() {
+        when(repository.findSketchForUpdate(DAY)).thenReturn(null);
+        // Hors transaction, record alimente directement le sketch en attente
+        store.record(DAY, 1L);
+        store.record(DAY, 2L);
+        store.record(DAY, 2L);
+
+        store.flushOnShutdown();
+
+        ArgumentCaptor<byte[]> sketch = ArgumentCaptor.forClass(byte[].class);
+        verify(repository).updateSketch(eq(DAY), sketch.capture(), eq(2));
+        assertThat(HyperLogLog.fromBytes(sketch.getValue()).estimate()).isEqualTo(2);
+        verify(cache).invalidate(DAY);
+    }
+
+    @Test
+    void estimateMergesStoredAndPendingSketches() {
+        HyperLogLog stored = new HyperLogLog();
+        stored.add(1L);
+        stored.add(2L);
+        when(repository.findSketchesBetween(DAY, DAY)).thenReturn(List.<Object[]>of(new Object[]{DAY, stored.toBytes()}));
+        store.record(DAY, 2L);
+        store.record(DAY, 3L);
+
+        assertThat(store.estimateDistinct(DAY, DAY)).isEqualTo(3);
+    }
+
+    @Test
+    void failedFlushKeepsSketchPending() {
+        when(repository.findSketchForUpdate(DAY)).thenThrow(new IllegalStateException("base indisponible"));
+        store.record(DAY, 1L);
+
+        store.flush();
+
+        verify(repository, never()).updateSketch(any(), any(), anyInt());
+        assertThat(store.estimateDistinct(DAY, DAY)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,151 @@
+package tunutech.api.services.implementsServices;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import tunutech.api.model.Activity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Archivage d'une partition en segment de blocs gzip + index creux, puis relecture par utilisateur et période,
+ * sur un PostgreSQL embarqué et un répertoire temporaire
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({AggregateVersions.class, AggregateVersionListener.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class ActivityArchiverTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 3);
+    private static final String PARTITION = "activity_archive_source";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path root;
+
+    private ActivityArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        archiver = newArchiver();
+        jdbcTemplate.execute("CREATE TABLE " + PARTITION + " (LIKE activity INCLUDING DEFAULTS)");
+        // Blocs de 2 lignes : [1, 2] [3, 4] [5]
+        insert(1L, 1L, 10L, null, MONTH.atDay(1).atTime(8, 0));
+        insert(2L, 1L, null, "Sans projet", MONTH.atDay(2).atTime(8, 0));
+        insert(3L, 2L, 20L, "Projet et description", MONTH.atDay(10).atTime(8, 0));
+        insert(4L, 2L, null, null, MONTH.atDay(11).atTime(8, 0));
+        insert(5L, 1L, 30L, "Fin de mois", MONTH.atDay(25).atTime(8, 0));
+    }
+
+    @Test
+    void segmentAndIndexDescribeEachBlock() throws IOException {
+        ActivityArchiver.SegmentIndex index = archiver.archivePartition(PARTITION, MONTH);
+
+        assertThat(archiver.listSegments()).containsExactly("activity-202403.seg");
+        assertThat(Files.exists(root.resolve("activity-202403.idx"))).isTrue();
+        assertThat(Files.list(root).map(path -> path.getFileName().toString())).noneMatch(name -> name.endsWith(".tmp"));
+        assertThat(index.month()).isEqualTo("2024-03");
+        assertThat(index.activities()).isEqualTo(5);
+        assertThat(index.blocks()).extracting(ActivityArchiver.BlockEntry::count,
+                        ActivityArchiver.BlockEntry::minCreatedAt, ActivityArchiver.BlockEntry::maxCreatedAt)
+                .containsExactly(
+                        tuple(2, MONTH.atDay(1).atTime(8, 0), MONTH.atDay(2).atTime(8, 0)),
+                        tuple(2, MONTH.atDay(10).atTime(8, 0), MONTH.atDay(11).atTime(8, 0)),
+                        tuple(1, MONTH.atDay(25).atTime(8, 0), MONTH.atDay(25).atTime(8, 0)));
+        assertThat(index.blocks()).extracting(block -> Arrays.toString(block.userIds()))
+                .containsExactly("[1]", "[2]", "[1]");
+        // Blocs contigus couvrant tout le segment
+        ActivityArchiver.BlockEntry last = index.blocks().get(2);
+        assertThat(index.blocks().get(1).offset()).isEqualTo(index.blocks().get(0).length());
+        assertThat(Files.size(root.resolve("activity-202403.seg"))).isEqualTo(last.offset() + last.length());
+    }
+
+    @Test
+    void archivedRowsReadBackWithNullableProjectIds() throws IOException {
+        archiver.archivePartition(PARTITION, MONTH);
+
+        // Nouvelle instance : l'index est relu depuis le disque
+        List<Activity> user1 = newArchiver().findUserActivities(1L, MONTH.atDay(1).atStartOfDay(),
+                MONTH.plusMonths(1).atDay(1).atStartOfDay(), 10);
+        List<Activity> user2 = newArchiver().findUserActivities(2L, MONTH.atDay(1).atStartOfDay(),
+                MONTH.plusMonths(1).atDay(1).atStartOfDay(), 10);
+
+        assertThat(user1).extracting(Activity::getId, Activity::getProjectId, Activity::getDescription)
+                .containsExactly(tuple(1L, 10L, null), tuple(2L, null, "Sans projet"), tuple(5L, 30L, "Fin de mois"));
+        assertThat(user2).extracting(Activity::getId, Activity::getProjectId, Activity::getDescription)
+                .containsExactly(tuple(3L, 20L, "Projet et description"), tuple(4L, null, null));
+        Activity first = user1.get(0);
+        assertThat(first.getUuid()).isEqualTo("uuid-1");
+        assertThat(first.getMetadata()).containsEntry("documentId", 1);
+        assertThat(first.getCreatedAt()).isEqualTo(MONTH.atDay(1).atTime(8, 0));
+    }
+
+    @Test
+    void readsSkipBlocksExcludedByUserOrDate() throws IOException {
+        ActivityArchiver.SegmentIndex index = archiver.archivePartition(PARTITION, MONTH);
+        // Bloc [3, 4] (utilisateur 2, 10-11 mars) rendu illisible : toute lecture qui l'ouvrirait échouerait
+        corrupt(index.blocks().get(1));
+        ActivityArchiver reader = newArchiver();
+
+        assertThat(reader.findUserActivities(1L, MONTH.atDay(1).atStartOfDay(), MONTH.atEndOfMonth().atStartOfDay(), 10))
+                .extracting(Activity::getId).containsExactly(1L, 2L, 5L);
+        assertThat(reader.findUserActivities(2L, MONTH.atDay(20).atStartOfDay(), MONTH.atEndOfMonth().atStartOfDay(), 10))
+                .isEmpty();
+        assertThat(reader.findUserActivities(1L, MONTH.atDay(2).atStartOfDay(), MONTH.atDay(25).atTime(8, 0), 10))
+                .extracting(Activity::getId).containsExactly(2L);
+        assertThat(reader.findUserActivities(1L, MONTH.atDay(1).atStartOfDay(), MONTH.atEndOfMonth().atStartOfDay(), 2))
+                .extracting(Activity::getId).containsExactly(1L, 2L);
+    }
+
+    private ActivityArchiver newArchiver() {
+        return new ActivityArchiver(jdbcTemplate, objectMapper, transactionManager, root.toString(), 2, true);
+    }
+
+    private void corrupt(ActivityArchiver.BlockEntry block) throws IOException {
+        try (FileChannel channel = FileChannel.open(root.resolve("activity-202403.seg"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[block.length()]), block.offset());
+        }
+    }
+
+    private void insert(Long id, Long userId, Long projectId, String description, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO " + PARTITION + " (id, uuid, type, category, user_id, user_name, user_role, title, " +
+                        "description, project_id, priority, is_read, created_at, metadata) " +
+                        "VALUES (?, ?, 'USER_UPDATED', 'USER', ?, 'Test', 'CLIENT', 'Profil mis à jour', ?, ?, 'HIGH', false, ?, " +
+                        "CAST(? AS jsonb))",
+                id, "uuid-" + id, userId, description, projectId, Timestamp.valueOf(createdAt), "{\"documentId\": " + id + "}");
+    }
+}
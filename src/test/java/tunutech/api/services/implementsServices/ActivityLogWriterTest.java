@@ -0,0 +1,197 @@
+package tunutech.api.services.implementsServices;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import tunutech.api.model.Activity;
+import tunutech.api.model.ActivityGroup;
+import tunutech.api.model.ActivityType;
+import tunutech.api.model.RoleUser;
+import tunutech.api.services.AnalyticsRollupService;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActivityLogWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final HourlyActivityRing hourlyActivityRing = mock(HourlyActivityRing.class);
+    private final AtomicLong sequence = new AtomicLong();
+    // Activités effectivement insérées (lot ou ligne à ligne), par uuid
+    private final List<String> inserted = new CopyOnWriteArrayList<>();
+
+    @Test
+    void dropPolicyDiscardsWhenQueueIsFull() {
+        ActivityLogWriter writer = writer(ActivityLogWriter.OverflowPolicy.DROP, 1);
+        markRunning(writer);
+
+        writer.submit(activity("a1"));
+        writer.submit(activity("a2"));
+
+        assertThat(writer.stats()).containsEntry("enqueued", 1L).containsEntry("dropped", 1L);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void callerRunsPolicyWritesInCallingThreadWhenQueueIsFull() {
+        stubInserts();
+        ActivityLogWriter writer = writer(ActivityLogWriter.OverflowPolicy.CALLER_RUNS, 1);
+        markRunning(writer);
+
+        writer.submit(activity("a1"));
+        writer.submit(activity("a2"));
+
+        assertThat(inserted).containsExactly("a2");
+        assertThat(writer.stats()).containsEntry("enqueued", 1L).containsEntry("callerRuns", 1L);
+    }
+
+    @Test
+    void blockPolicyWaitsThenFallsBackToCallerWrite() {
+        stubInserts();
+        ActivityLogWriter writer = writer(ActivityLogWriter.OverflowPolicy.BLOCK, 1);
+        markRunning(writer);
+
+        writer.submit(activity("a1"));
+        long start = System.nanoTime();
+        writer.submit(activity("a2"));
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(20_000_000L);
+        assertThat(inserted).containsExactly("a2");
+        assertThat(writer.stats()).containsEntry("callerRuns", 1L).containsEntry("dropped", 0L);
+    }
+
+    @Test
+    void shutdownDrainsQueuedActivities() throws Exception {
+        stubInserts();
+        ActivityLogWriter writer = writer(ActivityLogWriter.OverflowPolicy.BLOCK, 1_000);
+        writer.start();
+        for (int i = 0; i < 500; i++) {
+            writer.submit(activity("a" + i));
+        }
+
+        writer.stop();
+
+        assertThat(inserted).hasSize(500);
+        assertThat(writer.stats()).containsEntry("written", 500L).containsEntry("queueDepth", 0);
+        verify(hourlyActivityRing, times(500)).record(any());
+    }
+
+    @Test
+    void transientBatchFailureIsRetried() {
+        stubInserts();
+        doAnswer(invocation -> {
+            throw new IllegalStateException("connexion perdue");
+        }).doAnswer(this::insertBatch).when(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        ActivityLogWriter writer = writer(ActivityLogWriter.OverflowPolicy.CALLER_RUNS, 1);
+
+        writer.submit(activity("a1"));
+
+        assertThat(inserted).containsExactly("a1");
+        assertThat(writer.stats()).containsEntry("retries", 1L).containsEntry("rowFallbacks", 0L)
+                .containsEntry("failed", 0L);
+    }
+
+    @Test
+    void persistentFailureFallsBackToRowsAndDeadLettersBadRows() throws Exception {
+        stubInserts();
+        doAnswer(invocation -> {
+            throw new IllegalStateException("lot refusé");
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        ActivityLogWriter writer = writer(ActivityLogWriter.OverflowPolicy.BLOCK, 100);
+        writer.start();
+        Activity bad = activity("bad");
+        // user_id obligatoire : la ligne est refusée à l'insertion
+        bad.setUserId(null);
+
+        writer.submit(activity("ok1"));
+        writer.submit(bad);
+        writer.submit(activity("ok2"));
+        writer.stop();
+
+        assertThat(inserted).containsExactlyInAnyOrder("ok1", "ok2");
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO activity_dead_letter"), eq("bad"), anyString(), any(), any());
+        verify(hourlyActivityRing, times(2)).record(any());
+        assertThat(writer.stats()).containsEntry("written", 2L).containsEntry("failed", 1L)
+                .containsEntry("deadLettered", 1L).containsEntry("retries", 2L);
+    }
+
+    private ActivityLogWriter writer(ActivityLogWriter.OverflowPolicy policy, int queueCapacity) {
+        return new ActivityLogWriter(jdbcTemplate, new ObjectMapper().findAndRegisterModules(),
+                mock(AnalyticsRollupService.class), hourlyActivityRing, mock(ActivityStatsCounters.class),
+                mock(ProjectRecentActivityCache.class), mock(ActivityStreamPublisher.class), mock(AggregateVersions.class),
+                queueCapacity, 50, 20, policy, 20, 5_000, 3, 1);
+    }
+
+    // Writer considéré démarré sans thread de vidange : la file se remplit
+    private static void markRunning(ActivityLogWriter writer) {
+        ReflectionTestUtils.setField(writer, "running", true);
+    }
+
+    private void stubInserts() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(2);
+            return LongStream.range(0, count).mapToObj(i -> sequence.incrementAndGet()).toList();
+        });
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any())).thenAnswer(invocation -> sequence.incrementAndGet());
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(this::insertBatch);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            invocation.<PreparedStatementSetter>getArgument(1).setValues(ps);
+            recordInserted(ps);
+            return 1;
+        });
+    }
+
+    private int[] insertBatch(InvocationOnMock invocation) throws Exception {
+        BatchPreparedStatementSetter setter = invocation.getArgument(1);
+        int[] counts = new int[setter.getBatchSize()];
+        for (int i = 0; i < counts.length; i++) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            setter.setValues(ps, i);
+            recordInserted(ps);
+            counts[i] = 1;
+        }
+        return counts;
+    }
+
+    private void recordInserted(PreparedStatement ps) throws Exception {
+        ArgumentCaptor<String> uuid = ArgumentCaptor.forClass(String.class);
+        verify(ps).setString(eq(2), uuid.capture());
+        inserted.add(uuid.getValue());
+    }
+
+    private static Activity activity(String uuid) {
+        Activity activity = new Activity();
+        activity.setUuid(uuid);
+        activity.setType(ActivityType.USER_UPDATED);
+        activity.setCategory(ActivityGroup.USER);
+        activity.setUserId(1L);
+        activity.setUserName("Test");
+        activity.setUserRole(RoleUser.ADMIN);
+        activity.setTitle("Profil mis à jour");
+        activity.setCreatedAt(LocalDateTime.now());
+        return activity;
+    }
+}
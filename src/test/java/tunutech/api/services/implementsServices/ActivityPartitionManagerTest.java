@@ -0,0 +1,132 @@
+package tunutech.api.services.implementsServices;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import tunutech.api.exception.ActivityPartitioningRequiredException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Script de partitionnement puis entretien courant (partition par défaut, rétention) sur un PostgreSQL embarqué
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import({ActivityPartitionManager.class, AggregateVersions.class, AggregateVersionListener.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ActivityPartitionManagerTest {
+
+    @Autowired
+    private ActivityPartitionManager activityPartitionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ActivityArchiver activityArchiver;
+
+    @MockitoBean
+    private ActivityStatsCounters activityStatsCounters;
+
+    @MockitoBean
+    private ProjectRecentActivityCache projectRecentActivityCache;
+
+    @BeforeEach
+    void partition() throws Exception {
+        String relkind = jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = to_regclass('activity')", String.class);
+        if ("r".equals(relkind)) {
+            insert(1L, "legacy", LocalDateTime.now().minusMonths(2));
+            jdbcTemplate.execute(new String(new ClassPathResource("db/manual/partition_activity.sql")
+                    .getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        }
+        jdbcTemplate.update("DELETE FROM activity WHERE uuid <> 'legacy'");
+    }
+
+    @Test
+    void scriptCopiesRowsIntoMonthlyPartitions() {
+        YearMonth legacyMonth = YearMonth.now().minusMonths(2);
+
+        assertThat(activityPartitionManager.listPartitionMonths())
+                .contains(legacyMonth, YearMonth.now(), YearMonth.now().plusMonths(3));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + ActivityPartitionManager.partitionName(legacyMonth)
+                + " WHERE uuid = 'legacy'", Long.class)).isEqualTo(1);
+        // Les nouvelles lignes reprennent la séquence après le plus grand id recopié
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval(pg_get_serial_sequence('activity', 'id'))", Long.class))
+                .isGreaterThan(1L);
+    }
+
+    @Test
+    void uuidIsUniqueForSameCreationDate() {
+        LocalDateTime createdAt = LocalDateTime.now().withNano(0);
+        insert(100L, "dup", createdAt);
+
+        assertThatThrownBy(() -> insert(101L, "dup", createdAt)).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void defaultPartitionRowsAreRoutedThenRetained() {
+        YearMonth oldMonth = YearMonth.now().minusYears(3);
+        insert(200L, "old-1", oldMonth.atDay(5).atStartOfDay());
+        insert(201L, "old-2", oldMonth.atEndOfMonth().atTime(23, 0));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM activity_default", Long.class)).isEqualTo(2);
+
+        int moved = activityPartitionManager.routeDefaultPartition();
+
+        assertThat(moved).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM activity_default", Long.class)).isZero();
+        assertThat(activityPartitionManager.listPartitionMonths()).contains(oldMonth);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM activity WHERE uuid LIKE 'old-%'", Long.class)).isEqualTo(2);
+
+        // La rétention voit désormais ce mois
+        List<YearMonth> removed = activityPartitionManager.dropPartitionsBefore(oldMonth.plusMonths(1).atDay(1).atStartOfDay());
+
+        assertThat(removed).containsExactly(oldMonth);
+        assertThat(activityPartitionManager.listPartitionMonths()).doesNotContain(oldMonth);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM activity WHERE uuid LIKE 'old-%'", Long.class)).isZero();
+    }
+
+    @Test
+    void retentionRefusesTableNotYetPartitioned() {
+        JdbcTemplate plainTable = mock(JdbcTemplate.class);
+        when(plainTable.queryForObject(anyString(), eq(String.class))).thenReturn("r");
+        ActivityPartitionManager manager = new ActivityPartitionManager(plainTable, activityArchiver, activityStatsCounters,
+                projectRecentActivityCache, mock(PlatformTransactionManager.class), null, 3, 0,
+                ActivityPartitionManager.RetentionMode.DROP);
+
+        assertThatThrownBy(() -> manager.dropPartitionsBefore(LocalDateTime.now()))
+                .isInstanceOf(ActivityPartitioningRequiredException.class);
+        verify(plainTable, never()).execute(anyString());
+    }
+
+    private void insert(Long id, String uuid, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO activity (id, uuid, type, category, user_id, user_name, user_role, title, created_at) " +
+                "VALUES (?, ?, 'USER_UPDATED', 'USER', 1, 'Test', 'CLIENT', 'Profil mis à jour', ?)", id, uuid, Timestamp.valueOf(createdAt));
+    }
+}
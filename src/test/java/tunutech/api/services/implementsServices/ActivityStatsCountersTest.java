@@ -0,0 +1,94 @@
+package tunutech.api.services.implementsServices;
+
+import org.junit.jupiter.api.Test;
+import tunutech.api.model.ActivityGroup;
+import tunutech.api.model.ActivityType;
+import tunutech.api.repositories.ActivityRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityStatsCountersTest {
+
+    private final ActivityRepository repository = mock(ActivityRepository.class);
+    private final ActivityStatsCounters counters = new ActivityStatsCounters(repository);
+
+    @Test
+    void initLoadsCountsFromDatabase() {
+        stubDatabase(3, 2);
+
+        counters.init();
+
+        assertThat(counters.total()).isEqualTo(5);
+        assertThat(counters.countsByType()).containsExactly(
+                Map.entry("USER_UPDATED", 3L), Map.entry("PROJECT_CREATED", 2L));
+        assertThat(counters.countsByCategory()).containsEntry("USER", 3L).containsEntry("PROJECT", 2L);
+    }
+
+    @Test
+    void reconcileCorrectsDriftInBothDirections() {
+        stubDatabase(3, 2);
+        counters.init();
+        // Incréments perdus d'un côté, partition supprimée de l'autre
+        counters.increment(ActivityType.USER_UPDATED, ActivityGroup.USER);
+        stubDatabase(10, 0);
+
+        counters.reconcile();
+
+        assertThat(counters.countsByType()).containsEntry("USER_UPDATED", 10L).doesNotContainKey("PROJECT_CREATED");
+        assertThat(counters.countsByCategory()).containsEntry("USER", 10L).doesNotContainKey("PROJECT");
+        assertThat(counters.total()).isEqualTo(10);
+    }
+
+    @Test
+    void incrementsDuringQueryAreKeptWhenTheirRowsAreNotYetVisible() {
+        stubDatabase(3, 0);
+        counters.init();
+        when(repository.countActivitiesByType()).thenAnswer(invocation -> {
+            // Écriture validée après la lecture de la base, compteur incrémenté pendant la requête
+            counters.increment(ActivityType.USER_UPDATED, ActivityGroup.USER);
+            return List.<Object[]>of(new Object[]{ActivityType.USER_UPDATED, 3L});
+        });
+
+        counters.reconcile();
+
+        assertThat(counters.countsByType()).containsEntry("USER_UPDATED", 4L);
+        assertThat(counters.countsByCategory()).containsEntry("USER", 4L);
+    }
+
+    @Test
+    void failedReconcileKeepsCounters() {
+        stubDatabase(3, 0);
+        counters.init();
+        when(repository.countActivitiesByType()).thenThrow(new IllegalStateException("base indisponible"));
+
+        counters.reconcile();
+
+        assertThat(counters.total()).isEqualTo(3);
+    }
+
+    @Test
+    void decrementUndoesIncrement() {
+        stubDatabase(0, 0);
+        counters.init();
+
+        counters.increment(ActivityType.PROJECT_CREATED, ActivityGroup.PROJECT);
+        counters.decrement(ActivityType.PROJECT_CREATED, ActivityGroup.PROJECT);
+
+        assertThat(counters.total()).isZero();
+        assertThat(counters.countsByType()).isEmpty();
+    }
+
+    private void stubDatabase(long userUpdated, long projectCreated) {
+        when(repository.countActivitiesByType()).thenReturn(List.of(
+                new Object[]{ActivityType.USER_UPDATED, userUpdated},
+                new Object[]{ActivityType.PROJECT_CREATED, projectCreated}));
+        when(repository.countActivitiesByCategory()).thenReturn(List.of(
+                new Object[]{ActivityGroup.USER, userUpdated},
+                new Object[]{ActivityGroup.PROJECT, projectCreated}));
+    }
+}
@@ -0,0 +1,179 @@
+package tunutech.api.services.implementsServices;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import tunutech.api.dtos.ActivityDTO;
+import tunutech.api.dtos.ActivityStreamFrameDto;
+import tunutech.api.interceptor.WebSocketAuthInterceptor;
+import tunutech.api.model.Activity;
+import tunutech.api.model.ActivityGroup;
+import tunutech.api.model.ActivityType;
+import tunutech.api.repositories.UserRepository;
+import tunutech.api.services.JwtService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ActivityStreamPublisherTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+
+    @Test
+    void filtersCombineAcrossHeadersAndValuesWithinAHeader() {
+        ActivityStreamPublisher publisher = new ActivityStreamPublisher(messagingTemplate, 10);
+        publisher.onSubscribe(subscribe("s1", Map.of("types", "PROJECT_CREATED, PROJECT_COMPLETED", "projectIds", "7")));
+
+        publisher.publish(activity(1L, ActivityType.PROJECT_CREATED, 7L));
+        publisher.publish(activity(2L, ActivityType.PROJECT_CREATED, 8L));
+        publisher.publish(activity(3L, ActivityType.PROJECT_COMPLETED, 7L));
+        publisher.publish(activity(4L, ActivityType.USER_UPDATED, 7L));
+        publisher.publish(activity(5L, ActivityType.PROJECT_CREATED, null));
+        publisher.flush();
+
+        assertThat(frame("s1").getActivities()).extracting(ActivityDTO::getId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void subscriptionWithoutFiltersReceivesEverything() {
+        ActivityStreamPublisher publisher = new ActivityStreamPublisher(messagingTemplate, 10);
+        publisher.onSubscribe(subscribe("s1", Map.of()));
+
+        publisher.publish(activity(1L, ActivityType.USER_UPDATED, null));
+        publisher.publish(activity(2L, ActivityType.PROJECT_CREATED, 3L));
+        publisher.flush();
+
+        assertThat(frame("s1").getActivities()).extracting(ActivityDTO::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void invalidFilterValuesAreRejectedInsteadOfWideningTheSubscription() {
+        for (Map<String, String> headers : List.of(Map.of("types", "PROJCT_CREATED"),
+                Map.of("types", "PROJECT_CREATED,PROJCT_DELETED"), Map.of("userIds", "abc"), Map.of("categories", " , "))) {
+            assertThatThrownBy(() -> ActivityStreamPublisher.validateFilter(StompHeaderAccessor.wrap(subscribe("s1", headers).getMessage())))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageStartingWith("Filtre de flux d'activités");
+        }
+
+        // Abonnement parvenu malgré tout : la session ne reçoit rien
+        ActivityStreamPublisher publisher = new ActivityStreamPublisher(messagingTemplate, 10);
+        publisher.onSubscribe(subscribe("s1", Map.of("types", "PROJCT_CREATED")));
+        publisher.publish(activity(1L, ActivityType.PROJECT_CREATED, 1L));
+        publisher.flush();
+
+        assertThat(publisher.stats()).containsEntry("subscribers", 0);
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(), anyMap());
+    }
+
+    @Test
+    void interceptorAnswersInvalidFiltersWithAnError() {
+        WebSocketAuthInterceptor interceptor = new WebSocketAuthInterceptor(mock(JwtService.class), mock(UserRepository.class));
+        UsernamePasswordAuthenticationToken admin = new UsernamePasswordAuthenticationToken("admin@acme.test", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        Message<byte[]> valid = subscribeMessage("s1", Map.of("types", "PROJECT_CREATED"), admin);
+        Message<byte[]> invalid = subscribeMessage("s1", Map.of("types", "PROJCT_CREATED"), admin);
+
+        assertThat(interceptor.preSend(valid, null)).isSameAs(valid);
+        assertThatThrownBy(() -> interceptor.preSend(invalid, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Filtre de flux d'activités invalide : types=PROJCT_CREATED");
+    }
+
+    @Test
+    void fullBufferDropsOldestAndReportsTheCount() {
+        ActivityStreamPublisher publisher = new ActivityStreamPublisher(messagingTemplate, 2);
+        publisher.onSubscribe(subscribe("s1", Map.of()));
+
+        for (long id = 1; id <= 5; id++) {
+            publisher.publish(activity(id, ActivityType.PROJECT_CREATED, id));
+        }
+        assertThat(publisher.stats()).containsEntry("buffered", 2);
+        publisher.flush();
+
+        ActivityStreamFrameDto frame = frame("s1");
+        assertThat(frame.getActivities()).extracting(ActivityDTO::getId).containsExactly(4L, 5L);
+        assertThat(frame.getDropped()).isEqualTo(3);
+        assertThat(publisher.stats()).containsEntry("buffered", 0);
+    }
+
+    @Test
+    void eachSessionGetsItsOwnFramesAddressedToThatSession() {
+        ActivityStreamPublisher publisher = new ActivityStreamPublisher(messagingTemplate, 10);
+        publisher.onSubscribe(subscribe("s1", Map.of("categories", "USER")));
+        publisher.onSubscribe(subscribe("s2", Map.of("userIds", "42")));
+
+        publisher.publish(activity(1L, ActivityType.USER_UPDATED, null));
+        Activity fromUser42 = activity(2L, ActivityType.PROJECT_CREATED, 9L);
+        fromUser42.setUserId(42L);
+        publisher.publish(fromUser42);
+        publisher.flush();
+
+        assertThat(frame("s1").getActivities()).extracting(ActivityDTO::getId).containsExactly(1L);
+        assertThat(frame("s2").getActivities()).extracting(ActivityDTO::getId).containsExactly(2L);
+        assertThat(SimpMessageHeaderAccessor.getSessionId(headers("s1"))).isEqualTo("s1");
+        assertThat(SimpMessageHeaderAccessor.getSessionId(headers("s2"))).isEqualTo("s2");
+    }
+
+    private ActivityStreamFrameDto frame(String sessionId) {
+        ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq(sessionId), eq(ActivityStreamPublisher.DESTINATION),
+                frame.capture(), anyMap());
+        return (ActivityStreamFrameDto) frame.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private MessageHeaders headers(String sessionId) {
+        ArgumentCaptor<Map<String, Object>> headers = ArgumentCaptor.forClass(Map.class);
+        verify(messagingTemplate).convertAndSendToUser(eq(sessionId), eq(ActivityStreamPublisher.DESTINATION),
+                any(), headers.capture());
+        return new MessageHeaders(headers.getValue());
+    }
+
+    private static SessionSubscribeEvent subscribe(String sessionId, Map<String, String> filters) {
+        return new SessionSubscribeEvent(new Object(), subscribeMessage(sessionId, filters, null));
+    }
+
+    private static Message<byte[]> subscribeMessage(String sessionId, Map<String, String> filters,
+                                                    UsernamePasswordAuthenticationToken user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-" + sessionId);
+        accessor.setDestination(ActivityStreamPublisher.SUBSCRIBE_DESTINATION);
+        accessor.setUser(user);
+        filters.forEach(accessor::setNativeHeader);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Activity activity(Long id, ActivityType type, Long projectId) {
+        return Activity.builder()
+                .id(id)
+                .type(type)
+                .category(type.name().startsWith("USER") ? ActivityGroup.USER : ActivityGroup.PROJECT)
+                .userId(1L)
+                .projectId(projectId)
+                .metadata(new HashMap<>())
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package tunutech.api.services.implementsServices;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import tunutech.api.model.AggregateType;
+import tunutech.api.model.Client;
+import tunutech.api.model.Langue;
+import tunutech.api.model.OutboxEvent;
+import tunutech.api.model.Tarif;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AggregateVersionsTest {
+
+    private final AggregateVersions versions = new AggregateVersions();
+    private final AggregateVersionListener listener = new AggregateVersionListener(versions);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bumpOutsideTransactionIsImmediate() {
+        versions.bump(AggregateType.TARIF);
+
+        assertThat(versions.current(AggregateType.TARIF)).isEqualTo(1);
+        assertThat(versions.current(AggregateType.PROJECT)).isZero();
+    }
+
+    @Test
+    void bumpInsideTransactionWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        versions.bump(AggregateType.PROJECT);
+        assertThat(versions.current(AggregateType.PROJECT)).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(versions.current(AggregateType.PROJECT)).isEqualTo(1);
+    }
+
+    @Test
+    void etagChangesOnlyWithItsOwnAggregates() {
+        ServletWebRequest request = request(null);
+        String before = versions.etag(request, AggregateType.LANGUE);
+
+        versions.bump(AggregateType.TARIF);
+        assertThat(versions.etag(request, AggregateType.LANGUE)).isEqualTo(before);
+
+        versions.bump(AggregateType.LANGUE);
+        assertThat(versions.etag(request, AggregateType.LANGUE)).isNotEqualTo(before).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void etagVariesWithParametersAndUser() {
+        ServletWebRequest plain = request(null);
+        ServletWebRequest withFields = request(null);
+        ((MockHttpServletRequest) withFields.getRequest()).addParameter("fields", "title");
+        ServletWebRequest otherUser = request("marie@acme.test");
+
+        String etag = versions.etag(plain, AggregateType.PROJECT);
+
+        assertThat(versions.etag(request(null), AggregateType.PROJECT)).isEqualTo(etag);
+        assertThat(versions.etag(withFields, AggregateType.PROJECT)).isNotEqualTo(etag);
+        assertThat(versions.etag(otherUser, AggregateType.PROJECT)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void restartChangesEtag() throws InterruptedException {
+        String etag = versions.etag(request(null), AggregateType.LANGUE);
+        Thread.sleep(2);
+
+        assertThat(new AggregateVersions().etag(request(null), AggregateType.LANGUE)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void conditionalSkipsTheBodyWhileTheEtagStillMatches() {
+        AtomicInteger reads = new AtomicInteger();
+        ResponseEntity<List<String>> first = versions.conditional(request(null),
+                () -> List.of("fr#" + reads.incrementAndGet()), AggregateType.LANGUE);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).containsExactly("fr#1");
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isEqualTo(versions.etag(request(null), AggregateType.LANGUE));
+
+        ResponseEntity<List<String>> cached = versions.conditional(revalidate(etag),
+                () -> List.of("fr#" + reads.incrementAndGet()), AggregateType.LANGUE);
+        assertThat(cached.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(cached.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(cached.getBody()).isNull();
+        assertThat(reads).hasValue(1);
+
+        versions.bump(AggregateType.LANGUE);
+        ResponseEntity<List<String>> stale = versions.conditional(revalidate(etag),
+                () -> List.of("fr#" + reads.incrementAndGet()), AggregateType.LANGUE);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(stale.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(stale.getBody()).containsExactly("fr#2");
+    }
+
+    @Test
+    void listenerBumpsEveryAggregateShowingTheEntity() {
+        listener.onWrite(new Langue());
+
+        assertThat(versions.current(AggregateType.LANGUE)).isEqualTo(1);
+        assertThat(versions.current(AggregateType.PROJECT)).isEqualTo(1);
+        assertThat(versions.current(AggregateType.TRADUCTEUR)).isEqualTo(1);
+        assertThat(versions.current(AggregateType.TARIF)).isZero();
+
+        listener.onWrite(new Client());
+        listener.onWrite(new Tarif());
+        assertThat(versions.current(AggregateType.PROJECT)).isEqualTo(2);
+        assertThat(versions.current(AggregateType.TARIF)).isEqualTo(1);
+    }
+
+    @Test
+    void listenerIgnoresUnversionedEntities() {
+        listener.onWrite(new OutboxEvent());
+
+        for (AggregateType type : AggregateType.values()) {
+            assertThat(versions.current(type)).isZero();
+        }
+    }
+
+    private static ServletWebRequest request(String user) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/language/all");
+        if (user != null) {
+            request.setUserPrincipal(() -> user);
+        }
+        return new ServletWebRequest(request);
+    }
+
+    private static ServletWebRequest revalidate(String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/language/all");
+        request.addHeader("If-None-Match", etag);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,89 @@
+package tunutech.api.services.implementsServices;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le rangement en une passe (AnalyticsDayBuckets) à l'ancien parcours
+ * "pour chaque jour, scanner toutes les lignes" de calculateDetailedData.
+ * Le volume de lignes est fixe : seul le nombre de jours varie.
+ *
+ * Lancement : mvn test-compile puis exécuter main() avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsDayBucketsBenchmark {
+
+    @Param({"1", "7", "30", "90"})
+    private int days;
+
+    @Param({"10000"})
+    private int rows;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate[] createdAt;
+    private int[] words;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        endDate = LocalDate.of(2025, 9, 30);
+        startDate = endDate.minusDays(days - 1L);
+        createdAt = new LocalDate[rows];
+        words = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            createdAt[i] = startDate.plusDays(random.nextInt(days));
+            words[i] = random.nextInt(5000);
+        }
+    }
+
+    @Benchmark
+    public void singlePassBuckets(Blackhole blackhole) {
+        AnalyticsDayBuckets buckets = new AnalyticsDayBuckets(startDate, endDate, 3);
+        for (int i = 0; i < rows; i++) {
+            buckets.add(createdAt[i], 1, 0, words[i], 0, 0);
+        }
+        for (int index = 0; index < buckets.size(); index++) {
+            blackhole.consume(buckets.projetsCrees(index));
+            blackhole.consume(buckets.motsTraduits(index));
+        }
+    }
+
+    @Benchmark
+    public void nestedPerDayScan(Blackhole blackhole) {
+        LocalDate currentDate = startDate;
+        while (!currentDate.isAfter(endDate)) {
+            int projets = 0;
+            long mots = 0;
+            for (int i = 0; i < rows; i++) {
+                if (createdAt[i].isEqual(currentDate)) {
+                    projets++;
+                    mots += words[i];
+                }
+            }
+            blackhole.consume(projets);
+            blackhole.consume(mots);
+            currentDate = currentDate.plusDays(1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AnalyticsDayBucketsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,66 @@
+package tunutech.api.services.implementsServices;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tunutech.api.dtos.AnalyticsResponseDto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsResponseCacheTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 10, 1);
+    private static final LocalDate END = LocalDate.of(2026, 10, 31);
+
+    private AnalyticsResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AnalyticsResponseCache();
+        ReflectionTestUtils.setField(cache, "ttl24h", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(cache, "maxEntries", 16);
+    }
+
+    @Test
+    void putStoresResponseComputedAtCurrentGeneration() {
+        AnalyticsResponseDto response = AnalyticsResponseDto.success(null, null, null, null);
+
+        cache.put("30d", START, END, response, cache.generation());
+
+        assertThat(cache.get("30d", START, END)).isSameAs(response);
+    }
+
+    @Test
+    void putIsSkippedWhenInvalidatedDuringCompute() {
+        long generation = cache.generation();
+        // Écriture commitée pendant le calcul (hors transaction, l'invalidation est immédiate)
+        cache.invalidate(START.plusDays(3));
+
+        cache.put("30d", START, END, AnalyticsResponseDto.success(null, null, null, null), generation);
+
+        assertThat(cache.get("30d", START, END)).isNull();
+    }
+
+    @Test
+    void invalidationRemovesOnlyOverlappingEntries() {
+        LocalDate previousMonth = START.minusMonths(1);
+        cache.put("30d", START, END, AnalyticsResponseDto.success(null, null, null, null), cache.generation());
+        cache.put("30d", previousMonth, START.minusDays(1), AnalyticsResponseDto.success(null, null, null, null), cache.generation());
+
+        cache.invalidate(END);
+
+        assertThat(cache.get("30d", START, END)).isNull();
+        assertThat(cache.get("30d", previousMonth, START.minusDays(1))).isNotNull();
+    }
+
+    @Test
+    void errorResponsesAreNeverCached() {
+        cache.put("30d", START, END, AnalyticsResponseDto.error("boom"), cache.generation());
+
+        assertThat(cache.get("30d", START, END)).isNull();
+    }
+}
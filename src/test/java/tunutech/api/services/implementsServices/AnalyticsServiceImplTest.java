@@ -0,0 +1,120 @@
+package tunutech.api.services.implementsServices;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tunutech.api.dtos.AnalyticsResponseDto;
+import tunutech.api.dtos.AnalyticsSummaryDto;
+import tunutech.api.repositories.AnalyticsDailyLangueRepository;
+import tunutech.api.repositories.AnalyticsDailyRepository;
+import tunutech.api.services.LangueService;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceImplTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void languagePercentagesSumToHundredWithOneDecimal() {
+        double[] percents = AnalyticsServiceImpl.percentagesOneDecimal(new long[]{1, 1, 1}, 3);
+
+        assertThat(percents).containsExactly(33.4, 33.3, 33.3);
+        assertThat(Arrays.stream(percents).sum()).isCloseTo(100.0, within(1e-9));
+    }
+
+    @Test
+    void languagePercentagesKeepSmallSharesInsteadOfTruncatingToZero() {
+        double[] percents = AnalyticsServiceImpl.percentagesOneDecimal(new long[]{997, 2, 1}, 1000);
+
+        assertThat(percents).containsExactly(99.7, 0.2, 0.1);
+    }
+
+    @Test
+    void languagePercentagesAreZeroWithoutProjects() {
+        assertThat(AnalyticsServiceImpl.percentagesOneDecimal(new long[]{0, 0}, 0)).containsExactly(0.0, 0.0);
+    }
+
+    @Test
+    void sectionPastTheDeadlineIsInterruptedAndFreesItsExecutorSlot() throws Exception {
+        AnalyticsDailyRepository dailyRepository = mock(AnalyticsDailyRepository.class);
+        AnalyticsDailyLangueRepository langueRepository = mock(AnalyticsDailyLangueRepository.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch slowCall = new CountDownLatch(1);
+        when(dailyRepository.findByJourBetweenOrderByJour(any(), any())).thenAnswer(invocation -> {
+            if (slowCall.getCount() == 0) {
+                return List.of();
+            }
+            slowCall.countDown();
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+        // Un seul thread par section lancée : la section bloquée doit rendre sa place
+        AnalyticsServiceImpl service = service(dailyRepository, langueRepository, jdbcTemplate, 3, 200);
+
+        AnalyticsResponseDto first = service.getAnalyticsByPeriod("7j");
+
+        assertThat(first.getSummary().getStatut()).isEqualTo(AnalyticsSummaryDto.DataStatus.PARTIEL);
+        assertThat(first.getSummary().getMessage()).contains("rollup journalier").doesNotContain("graphiques");
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        verify(jdbcTemplate, atLeastOnce()).execute(startsWith("SET LOCAL statement_timeout = "));
+
+        AnalyticsResponseDto second = service.getAnalyticsByPeriod("7j");
+        assertThat(second.getSummary().getStatut()).isEqualTo(AnalyticsSummaryDto.DataStatus.COMPLET);
+    }
+
+    private AnalyticsServiceImpl service(AnalyticsDailyRepository dailyRepository, AnalyticsDailyLangueRepository langueRepository,
+                                         JdbcTemplate jdbcTemplate, int threads, long deadlineMs) {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+
+        AnalyticsResponseCache cache = mock(AnalyticsResponseCache.class);
+        HourlyActivityRing ring = mock(HourlyActivityRing.class);
+        when(ring.histogramByHourOfDay(any(), any())).thenReturn(new long[24]);
+        LangueService langueService = mock(LangueService.class);
+        when(langueService.repartitionProjets(any(), any())).thenReturn(List.of());
+
+        AnalyticsServiceImpl service = new AnalyticsServiceImpl();
+        ReflectionTestUtils.setField(service, "langueService", langueService);
+        ReflectionTestUtils.setField(service, "analyticsDailyRepository", dailyRepository);
+        ReflectionTestUtils.setField(service, "analyticsDailyLangueRepository", langueRepository);
+        ReflectionTestUtils.setField(service, "activeUsersSketchStore", mock(ActiveUsersSketchStore.class));
+        ReflectionTestUtils.setField(service, "analyticsResponseCache", cache);
+        ReflectionTestUtils.setField(service, "hourlyActivityRing", ring);
+        ReflectionTestUtils.setField(service, "analyticsExecutor", executor);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "deadlineMs", deadlineMs);
+        return service;
+    }
+}
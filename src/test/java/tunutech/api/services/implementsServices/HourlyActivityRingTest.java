@@ -0,0 +1,92 @@
+package tunutech.api.services.implementsServices;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HourlyActivityRingTest {
+
+    private static final int THREADS = 8;
+    private static final int ADDS_PER_THREAD = 20_000;
+
+    private final HourlyActivityRing ring = new HourlyActivityRing(null);
+
+    @Test
+    void concurrentAddsAcrossHourRolloverAreNotLost() throws Exception {
+        long expiredHour = HourlyActivityRing.toEpochHour(LocalDateTime.of(2026, 10, 1, 9, 0));
+        long currentHour = expiredHour + HourlyActivityRing.WINDOW_HOURS;
+        // Même emplacement que currentHour, occupé par une heure sortie de la fenêtre
+        ring.add(expiredHour, 5, expiredHour);
+
+        runConcurrently(() -> ring.add(currentHour, 1, currentHour));
+
+        LocalDateTime current = HourlyActivityRing.toLocalDateTime(currentHour);
+        long[] histogram = ring.histogramByHourOfDay(current, current);
+        assertThat(histogram[current.getHour()]).isEqualTo((long) THREADS * ADDS_PER_THREAD);
+    }
+
+    @Test
+    void lateAddsForExpiredHourDoNotResetNewerHour() throws Exception {
+        long expiredHour = HourlyActivityRing.toEpochHour(LocalDateTime.of(2026, 10, 1, 9, 0));
+        long currentHour = expiredHour + HourlyActivityRing.WINDOW_HOURS;
+
+        runConcurrently(() -> {
+            ring.add(currentHour, 1, currentHour);
+            // Retardataire de l'heure expirée : ignoré, ne doit jamais écraser l'heure courante
+            ring.add(expiredHour, 1, expiredHour);
+        });
+
+        LocalDateTime current = HourlyActivityRing.toLocalDateTime(currentHour);
+        assertThat(ring.histogramByHourOfDay(current, current)[current.getHour()])
+                .isEqualTo((long) THREADS * ADDS_PER_THREAD);
+    }
+
+    @Test
+    void histogramGroupsWindowByHourOfDay() {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 17, 14, 30);
+        long currentHour = HourlyActivityRing.toEpochHour(now);
+        ring.add(HourlyActivityRing.toEpochHour(now.minusDays(1)), 2, currentHour);
+        ring.add(currentHour, 3, currentHour);
+        ring.add(HourlyActivityRing.toEpochHour(now.minusHours(1)), 4, currentHour);
+        // Hors fenêtre de 7 jours : ignoré
+        ring.add(HourlyActivityRing.toEpochHour(now.minusDays(8)), 100, currentHour);
+
+        long[] histogram = ring.histogramByHourOfDay(now.minusDays(7), now);
+
+        assertThat(histogram[14]).isEqualTo(5);
+        assertThat(histogram[13]).isEqualTo(4);
+        assertThat(ring.histogramByHourOfDay(now.minusHours(2), now)[14]).isEqualTo(3);
+    }
+
+    private void runConcurrently(Runnable add) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        add.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package tunutech.api.services.implementsServices;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import tunutech.api.model.OutboxEvent;
+import tunutech.api.model.OutboxEventType;
+import tunutech.api.model.OutboxStatus;
+import tunutech.api.repositories.OutboxEventRepository;
+import tunutech.api.services.OutboxEventHandler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final List<Long> handled = new ArrayList<>();
+    private final List<Long> failing = new ArrayList<>();
+
+    private final OutboxEventHandler handler = new OutboxEventHandler() {
+        @Override
+        public boolean supports(OutboxEvent event) {
+            return true;
+        }
+
+        @Override
+        public void handle(OutboxEvent event) {
+            if (failing.contains(event.getId())) {
+                throw new IllegalStateException("consommateur indisponible");
+            }
+            handled.add(event.getId());
+        }
+    };
+
+    private final OutboxRelay relay = new OutboxRelay(repository, List.of(handler), mock(PlatformTransactionManager.class),
+            100, 3, 7, 1_000, 60_000);
+
+    @Test
+    void failureHoldsLaterEventsOfSameAggregateOnly() {
+        OutboxEvent a1 = event(1L, 10L);
+        OutboxEvent a2 = event(2L, 10L);
+        OutboxEvent b1 = event(3L, 20L);
+        dueEvents(a1, a2, b1);
+        failing.add(1L);
+
+        relay.poll();
+
+        assertThat(handled).containsExactly(3L);
+        assertThat(a1.getAttempts()).isEqualTo(1);
+        assertThat(a1.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(a2.getStatus()).isEqualTo(OutboxStatus.PENDING);
+    }
+
+    @Test
+    void heldHeadFromEarlierPassBlocksItsAggregate() {
+        OutboxEvent a2 = event(2L, 10L);
+        OutboxEvent b1 = event(3L, 20L);
+        dueEvents(a2, b1);
+        // Événement 1 de l'agrégat 10 FAILED ou en attente de reprise
+        when(repository.findHeldAggregateHeads(eq(OutboxStatus.FAILED), eq(OutboxStatus.PENDING), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{"PROJECT", 10L, 1L}));
+
+        relay.poll();
+
+        assertThat(handled).containsExactly(3L);
+        assertThat(a2.getStatus()).isEqualTo(OutboxStatus.PENDING);
+    }
+
+    @Test
+    void retriesAreScheduledWithExponentialBackoff() {
+        OutboxEvent a1 = event(1L, 10L);
+        a1.setAttempts(1);
+        dueEvents(a1);
+        failing.add(1L);
+
+        relay.poll();
+
+        assertThat(a1.getAttempts()).isEqualTo(2);
+        LocalDateTime expected = LocalDateTime.now().plusSeconds(2);
+        assertThat(a1.getNextAttemptAt()).isCloseTo(expected, within(500, ChronoUnit.MILLIS));
+        assertThat(relay.backoff(1)).isEqualTo(1_000);
+        assertThat(relay.backoff(4)).isEqualTo(8_000);
+        assertThat(relay.backoff(40)).isEqualTo(60_000);
+    }
+
+    @Test
+    void eventIsFailedAfterMaxAttempts() {
+        OutboxEvent a1 = event(1L, 10L);
+        a1.setAttempts(2);
+        dueEvents(a1);
+        failing.add(1L);
+
+        relay.poll();
+
+        assertThat(a1.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(a1.getLastError()).isEqualTo("consommateur indisponible");
+        assertThat(relay.stats()).containsEntry("failed", 1L);
+    }
+
+    @Test
+    void successfulDispatchMarksEventProcessed() {
+        OutboxEvent a1 = event(1L, 10L);
+        dueEvents(a1);
+
+        relay.poll();
+
+        assertThat(a1.getStatus()).isEqualTo(OutboxStatus.PROCESSED);
+        assertThat(a1.getProcessedAt()).isNotNull();
+        verify(repository).save(a1);
+    }
+
+    @Test
+    void purgeDeletesProcessedEventsOlderThanRetention() {
+        relay.purge();
+
+        verify(repository).deleteProcessedBefore(eq(OutboxStatus.PROCESSED),
+                argThat(before -> Math.abs(Duration.between(before, LocalDateTime.now().minusDays(7)).toSeconds()) < 5));
+    }
+
+    private void dueEvents(OutboxEvent... events) {
+        when(repository.findDueByStatusOrderByIdAsc(eq(OutboxStatus.PENDING), any(), any(Pageable.class)))
+                .thenReturn(List.of(events));
+        for (OutboxEvent event : events) {
+            when(repository.findById(event.getId())).thenReturn(Optional.of(event));
+        }
+    }
+
+    private static OutboxEvent event(Long id, Long aggregateId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAggregateType("PROJECT");
+        event.setAggregateId(aggregateId);
+        event.setEventType(OutboxEventType.values()[0]);
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,275 @@
+package tunutech.api.services.implementsServices;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import tunutech.api.Utils.FieldSelection;
+import tunutech.api.Utils.Functions;
+import tunutech.api.dtos.ProjectResponseDto;
+import tunutech.api.model.*;
+import tunutech.api.repositories.ProjectRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réponses projet assemblées en lot sur un PostgreSQL embarqué : mêmes champs que l'ancien mapping
+ * projet par projet (traducteur, date d'affectation, budget, mots, langues, dernière activité)
+ * et un nombre de requêtes indépendant du nombre de projets
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import({ProjectResponseAssembler.class, Functions.class, AggregateVersions.class, AggregateVersionListener.class})
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProjectResponseAssemblerTest {
+
+    @Autowired
+    private ProjectResponseAssembler assembler;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Client client;
+    private Langue francais;
+    private Langue anglais;
+    private Langue allemand;
+
+    @BeforeEach
+    void setUp() {
+        client = new Client();
+        client.setFirstname("Jean");
+        client.setLastname("Dupont");
+        client.setEmail("jean@acme.test");
+        client.setTelephone("0600000000");
+        client.setPays("France");
+        client.setAdresse("1 rue de la Paix");
+        client.setSecteur("Juridique");
+        entityManager.persist(client);
+        francais = langue("Français", "fr");
+        anglais = langue("Anglais", "en");
+        allemand = langue("Allemand", "de");
+    }
+
+    @Test
+    void fullyPopulatedProjectMapsEveryAssociation() {
+        Project project = project("PJ-1");
+        Traducteur traducteur = traducteur("marie@acme.test");
+        ProjetTraducteur affectation = assign(project, traducteur);
+        contrat(project, 1234.5);
+        document(project, "a.docx", 120F);
+        document(project, "b.pdf", 80.5F);
+        source(project, francais);
+        target(project, anglais);
+        target(project, allemand);
+        activity(9001L, project, LocalDateTime.of(2026, 3, 1, 10, 0));
+        activity(9002L, project, LocalDateTime.of(2026, 3, 4, 9, 30));
+
+        ProjectResponseDto dto = assembleAll(List.of(project.getId())).get(0);
+
+        assertThat(dto.getId()).isEqualTo(project.getId());
+        assertThat(dto.getCode()).isEqualTo("PJ-1");
+        assertThat(dto.getIdentiteclient()).isEqualTo("Jean Dupont");
+        assertThat(dto.getTranslator()).hasValueSatisfying(t -> assertThat(t.getId()).isEqualTo(traducteur.getId()));
+        assertThat(dto.getAssignedDate()).hasSameTimeAs(affectation.getCreatedAt());
+        assertThat(dto.getBudget()).isEqualTo(new Functions().formatMontant(1234.5, Devise.USD));
+        assertThat(dto.getWordsCount()).isEqualTo(200.5F);
+        assertThat(dto.getDocumentlist()).extracting(Document::getOriginalName).containsExactly("a.docx", "b.pdf");
+        assertThat(dto.getLanguesources()).extracting(Langue::getCode).containsExactly("fr");
+        assertThat(dto.getSourceslangues()).isEqualTo("Français");
+        assertThat(dto.getLanguetarget()).extracting(Langue::getCode).containsExactlyInAnyOrder("en", "de");
+        assertThat(dto.getTargetlangues().split(";")).containsExactlyInAnyOrder("Anglais", "Allemand");
+        assertThat(dto.getLastActivity()).isEqualTo(LocalDateTime.of(2026, 3, 4, 9, 30));
+        assertThat(dto.getProgress()).isEqualTo(20.00);
+    }
+
+    @Test
+    void missingAssociationsLeaveDefaults() {
+        Project bare = project("PJ-2");
+        Project translatorOnly = project("PJ-3");
+        assign(translatorOnly, traducteur("paul@acme.test"));
+
+        List<ProjectResponseDto> dtos = assembleAll(List.of(bare.getId(), translatorOnly.getId()));
+
+        ProjectResponseDto bareDto = dtos.get(0);
+        assertThat(bareDto.getTranslator()).isNull();
+        assertThat(bareDto.getAssignedDate()).isNull();
+        assertThat(bareDto.getBudget()).isNull();
+        assertThat(bareDto.getWordsCount()).isZero();
+        assertThat(bareDto.getDocumentlist()).isEmpty();
+        assertThat(bareDto.getLanguesources()).isEmpty();
+        assertThat(bareDto.getSourceslangues()).isEmpty();
+        assertThat(bareDto.getTargetlangues()).isEmpty();
+        assertThat(bareDto.getLastActivity()).isNull();
+        // Traducteur sans contrat
+        assertThat(dtos.get(1).getTranslator()).isPresent();
+        assertThat(dtos.get(1).getBudget()).isNull();
+    }
+
+    @Test
+    void queryCountDoesNotGrowWithProjects() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Project project = project("PJ-Q" + i);
+            assign(project, traducteur("t" + i + "@acme.test"));
+            contrat(project, 100.0 * i);
+            document(project, "doc" + i + ".pdf", 10F);
+            source(project, francais);
+            target(project, i % 2 == 0 ? anglais : allemand);
+            activity(9100L + i, project, LocalDateTime.of(2026, 2, 1, 8, i));
+            ids.add(project.getId());
+        }
+
+        long two = countQueries(ids.subList(0, 2));
+        long six = countQueries(ids);
+
+        assertThat(six).isEqualTo(two);
+        // Affectations, contrats, documents, langues sources, langues cibles, dernières activités
+        assertThat(six).isLessThanOrEqualTo(6);
+        assertThat(countQueries(ids, FieldSelection.parse("id,code,budget", ProjectResponseDto.class))).isEqualTo(1);
+    }
+
+    private long countQueries(List<Long> ids) {
+        return countQueries(ids, FieldSelection.all());
+    }
+
+    private long countQueries(List<Long> ids, FieldSelection selection) {
+        entityManager.clear();
+        List<Project> projects = projectRepository.findByIdIn(ids);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assembler.assemble(projects, selection);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<ProjectResponseDto> assembleAll(List<Long> ids) {
+        entityManager.flush();
+        entityManager.clear();
+        List<Project> projects = new ArrayList<>(projectRepository.findByIdIn(ids));
+        projects.sort((a, b) -> Long.compare(ids.indexOf(a.getId()), ids.indexOf(b.getId())));
+        return assembler.assemble(projects);
+    }
+
+    private Project project(String code) {
+        Project project = new Project();
+        project.setCode(code);
+        project.setTitle("Titre " + code);
+        project.setDescription("Description " + code);
+        project.setClient(client);
+        project.setProjectStatus(ProjectStatus.PENDING);
+        project.setTypeDocument(TypeDocument.values()[0]);
+        project.setPriorityType(PriorityType.values()[0]);
+        project.setWordscount(100F);
+        project.setPriceperWord(0.1F);
+        project.setEstimatedPrice(10F);
+        project.setDatevoulue(new Date());
+        return entityManager.persist(project);
+    }
+
+    private Langue langue(String name, String code) {
+        Langue langue = new Langue();
+        langue.setName(name);
+        langue.setCode(code);
+        return entityManager.persist(langue);
+    }
+
+    private Traducteur traducteur(String email) {
+        Traducteur traducteur = new Traducteur();
+        traducteur.setFirstname("Marie");
+        traducteur.setLastname("Curie");
+        traducteur.setEmail(email);
+        traducteur.setTelephone("0611111111");
+        traducteur.setSexe("F");
+        traducteur.setPays("France");
+        traducteur.setAdresse("2 rue de Rivoli");
+        return entityManager.persist(traducteur);
+    }
+
+    private ProjetTraducteur assign(Project project, Traducteur traducteur) {
+        ProjetTraducteur projetTraducteur = new ProjetTraducteur();
+        projetTraducteur.setProject(project);
+        projetTraducteur.setTraducteur(traducteur);
+        return entityManager.persistAndFlush(projetTraducteur);
+    }
+
+    private void contrat(Project project, double montant) {
+        Contrat contrat = new Contrat();
+        contrat.setProject(project);
+        contrat.setNombreMots(100F);
+        contrat.setCode("CT-" + project.getCode());
+        contrat.setClientName("Jean Dupont");
+        contrat.setClientEmail("jean@acme.test");
+        contrat.setClientAdresse("1 rue de la Paix");
+        contrat.setClientPays("France");
+        contrat.setProjectComplexity(ProjectComplexity.LOW);
+        contrat.setDevise(Devise.EUR);
+        contrat.setMontantContrat(montant);
+        contrat.setMajorationPourcentage(0.0);
+        contrat.setMontatMajoration(0.0);
+        contrat.setEcheanceContrat(new Date());
+        contrat.setNombreJours(10);
+        contrat.setConditionsSpeciales("-");
+        contrat.setConditionsGenerales("-");
+        contrat.setContratStatut(ContratStatut.ACCEPTE);
+        entityManager.persist(contrat);
+    }
+
+    private void document(Project project, String name, Float words) {
+        Document document = new Document();
+        document.setOriginalName(name);
+        document.setWordsCount(words);
+        document.setProject(project);
+        document.setStoredName("stored-" + name);
+        document.setFilePath("/tmp/" + name);
+        document.setFileSize(10L);
+        document.setTypeDocument(TypeDocument.values()[0]);
+        entityManager.persist(document);
+    }
+
+    private void source(Project project, Langue langue) {
+        ProjetLangueSource projetLangue = new ProjetLangueSource();
+        projetLangue.setProject(project);
+        projetLangue.setLangue(langue);
+        entityManager.persist(projetLangue);
+    }
+
+    private void target(Project project, Langue langue) {
+        ProjetLangueCible projetLangue = new ProjetLangueCible();
+        projetLangue.setProject(project);
+        projetLangue.setLangue(langue);
+        entityManager.persist(projetLangue);
+    }
+
+    private void activity(Long id, Project project, LocalDateTime createdAt) {
+        entityManager.flush();
+        jdbcTemplate.update("INSERT INTO activity (id, uuid, type, category, user_id, user_name, user_role, title, project_id, created_at) " +
+                "VALUES (?, ?, 'PROJECT_UPDATED', 'PROJECT', 1, 'Test', 'ADMIN', 'Projet modifié', ?, ?)",
+                id, "uuid-" + id, project.getId(), Timestamp.valueOf(createdAt));
+    }
+}
@@ -0,0 +1,164 @@
+package tunutech.api.services.implementsServices;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tunutech.api.dtos.CursorPageDto;
+import tunutech.api.dtos.TimelineItemDto;
+import tunutech.api.model.Activity;
+import tunutech.api.model.ActivityGroup;
+import tunutech.api.model.ActivityType;
+import tunutech.api.repositories.ActivityRepository;
+import tunutech.api.repositories.ChatMessageRepository;
+import tunutech.api.repositories.DocumentRepository;
+import tunutech.api.repositories.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fusion des trois sources avec des dates entrelacées et identiques, parcourue page par page jusqu'au bout
+ */
+class ProjectTimelineServiceImplTest {
+
+    private static final Long PROJECT_ID = 7L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 17, 9, 0);
+
+    private final ActivityRepository activityRepository = mock(ActivityRepository.class);
+    private final ChatMessageRepository chatMessageRepository = mock(ChatMessageRepository.class);
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ProjectTimelineServiceImpl service = new ProjectTimelineServiceImpl(
+            activityRepository, chatMessageRepository, documentRepository, userRepository);
+
+    // Lignes de chaque source (id, date), dans un ordre quelconque
+    private final List<Row> activities = new ArrayList<>();
+    private final List<Row> messages = new ArrayList<>();
+    private final List<Row> documents = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 12; i++) {
+            // Activités chaque minute, messages décalés de 30 s, documents sur les mêmes minutes que les activités
+            activities.add(new Row(100L + i, BASE.plusMinutes(i)));
+            messages.add(new Row(200L + i, BASE.plusMinutes(i).plusSeconds(30)));
+            if (i % 2 == 0) {
+                documents.add(new Row(100L + i, BASE.plusMinutes(i)));
+            }
+        }
+        // Même date pour plusieurs lignes d'une même source : départage par id
+        messages.add(new Row(250L, BASE.plusMinutes(5).plusSeconds(30)));
+        messages.add(new Row(251L, BASE.plusMinutes(5).plusSeconds(30)));
+
+        when(activityRepository.findProjectFeedFirst(eq(PROJECT_ID), anyInt()))
+                .thenAnswer(invocation -> page(activities, null, null, invocation.getArgument(1), this::activity));
+        when(activityRepository.findProjectFeedAfter(eq(PROJECT_ID), any(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> page(activities, invocation.getArgument(1), invocation.getArgument(2),
+                        invocation.getArgument(3), this::activity));
+        when(chatMessageRepository.findTimelineFirst(eq(PROJECT_ID), anyInt()))
+                .thenAnswer(invocation -> page(messages, null, null, invocation.getArgument(1), this::message));
+        when(chatMessageRepository.findTimelineAfter(eq(PROJECT_ID), any(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> page(messages, invocation.getArgument(1), invocation.getArgument(2),
+                        invocation.getArgument(3), this::message));
+        when(documentRepository.findTimelineFirst(eq(PROJECT_ID), anyInt()))
+                .thenAnswer(invocation -> page(documents, null, null, invocation.getArgument(1), this::document));
+        when(documentRepository.findTimelineAfter(eq(PROJECT_ID), any(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> page(documents, invocation.getArgument(1), invocation.getArgument(2),
+                        invocation.getArgument(3), this::document));
+        when(userRepository.findWithClientByIdIn(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void pagesThroughMergedTimelineInOrderWithoutGapsOrDuplicates() {
+        for (int size : new int[]{1, 3, 4, 7, 100}) {
+            List<String> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                CursorPageDto<TimelineItemDto> page = service.getTimeline(PROJECT_ID, cursor, size);
+                page.getItems().forEach(item -> seen.add(key(item)));
+                assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+                cursor = page.getNextCursor();
+                assertThat(++pages).isLessThanOrEqualTo(expectedOrder().size());
+            } while (cursor != null);
+
+            assertThat(seen).as("taille de page %d", size).containsExactlyElementsOf(expectedOrder());
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPageDto<TimelineItemDto> page = service.getTimeline(PROJECT_ID, null, expectedOrder().size());
+
+        assertThat(page.getItems()).hasSize(expectedOrder().size());
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> service.getTimeline(PROJECT_ID, "abc", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Ordre attendu : date puis id décroissants, puis source
+    private List<String> expectedOrder() {
+        return Stream.of(
+                        activities.stream().map(row -> new Object[]{row, TimelineItemDto.Source.ACTIVITY}),
+                        messages.stream().map(row -> new Object[]{row, TimelineItemDto.Source.CHAT_MESSAGE}),
+                        documents.stream().map(row -> new Object[]{row, TimelineItemDto.Source.DOCUMENT}))
+                .flatMap(Function.identity())
+                .sorted(Comparator.<Object[], LocalDateTime>comparing(entry -> ((Row) entry[0]).at(), Comparator.reverseOrder())
+                        .thenComparing(entry -> ((Row) entry[0]).id(), Comparator.reverseOrder())
+                        .thenComparing(entry -> (TimelineItemDto.Source) entry[1]))
+                .map(entry -> entry[1] + ":" + ((Row) entry[0]).id())
+                .toList();
+    }
+
+    private static String key(TimelineItemDto item) {
+        return item.getSource() + ":" + item.getId();
+    }
+
+    // Équivalent en mémoire des requêtes (date, id) < (:at, :id) ORDER BY date DESC, id DESC LIMIT :limit
+    private static <T> List<T> page(List<Row> rows, LocalDateTime at, Long id, int limit, Function<Row, T> mapper) {
+        return rows.stream()
+                .filter(row -> at == null || row.at().isBefore(at) || (row.at().isEqual(at) && row.id() < id))
+                .sorted(Comparator.comparing(Row::at).thenComparing(Row::id).reversed())
+                .limit(limit)
+                .map(mapper)
+                .toList();
+    }
+
+    private Activity activity(Row row) {
+        Activity activity = new Activity();
+        activity.setId(row.id());
+        activity.setCreatedAt(row.at());
+        activity.setType(ActivityType.PROJECT_UPDATED);
+        activity.setCategory(ActivityGroup.PROJECT);
+        activity.setTitle("Projet mis à jour");
+        return activity;
+    }
+
+    private Object[] message(Row row) {
+        return new Object[]{row.id(), Timestamp.valueOf(row.at()), "Bonjour", "TEXT", "CLIENT", null, null, 3L};
+    }
+
+    private Object[] document(Row row) {
+        return new Object[]{row.id(), Timestamp.valueOf(row.at()), "contrat.pdf", "UPLOADED", "Client", "PDF", 1024L};
+    }
+
+    private record Row(Long id, LocalDateTime at) {
+    }
+}